@@ -44,6 +44,7 @@ public class BackgroundScanHandler
     private final List<ModFile> allFiles;
     private final Map<IModFile.Type, List<ModFile>> modFiles;
     private LoadingModList loadingModList;
+    private long scanStart;
 
     public BackgroundScanHandler(final Map<IModFile.Type, List<ModFile>> modFiles) {
         this.modFiles = modFiles;
@@ -65,6 +66,9 @@ public class BackgroundScanHandler
         if (modContentScanner.isShutdown()) {
             throw new IllegalStateException("Scanner has shutdown");
         }
+        if (pendingFiles.isEmpty()) {
+            scanStart = System.nanoTime();
+        }
         allFiles.add(file);
         pendingFiles.add(file);
         final CompletableFuture<ModFileScanData> future = CompletableFuture.supplyAsync(file::compileContent, modContentScanner)
@@ -79,6 +83,10 @@ public class BackgroundScanHandler
         }
         pendingFiles.remove(file);
         scannedFiles.add(file);
+        if (pendingFiles.isEmpty()) {
+            LOGGER.info(SCAN, "Scanned {} mod files in {}ms, scan cache hits: {}, misses: {}", scannedFiles.size(),
+                    (System.nanoTime() - scanStart) / 1_000_000, ScanCache.getHits(), ScanCache.getMisses());
+        }
     }
 
     public void setLoadingModList(LoadingModList loadingModList)
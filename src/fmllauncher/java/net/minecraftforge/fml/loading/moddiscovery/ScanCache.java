@@ -0,0 +1,464 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.loading.moddiscovery;
+
+import net.minecraftforge.fml.loading.FMLConfig;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.fml.loading.JarVersionLookupHandler;
+import net.minecraftforge.forgespi.language.ModFileScanData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.Type;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import static net.minecraftforge.fml.loading.LogMarkers.SCAN;
+
+/**
+ * Persistent cache of the class and annotation data harvested by the {@link Scanner}.
+ *
+ * Entries are stored per mod jar in a compact binary format (a string table followed by the class entries)
+ * and are only used if the jar's size and modification time still match, so warm starts can skip
+ * ASM entirely for unchanged jars. Exploded directories are never cached.
+ *
+ * Every entry also records the versions of FML and of the SPI that filters the annotations, so an update of
+ * either rescans all jars. Without those versions, as in a development environment, nothing is cached.
+ */
+public class ScanCache
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int MAGIC = 0x464D4C53; // FMLS
+    private static final int VERSION = 2;
+    @Nullable
+    private static final String SCANNER_VERSION = getScannerVersion();
+
+    private static final AtomicInteger HITS = new AtomicInteger();
+    private static final AtomicInteger MISSES = new AtomicInteger();
+
+    private static final int T_BOOLEAN = 0, T_BYTE = 1, T_CHAR = 2, T_SHORT = 3, T_INT = 4, T_LONG = 5, T_FLOAT = 6, T_DOUBLE = 7,
+            T_STRING = 8, T_TYPE = 9, T_ENUM = 10, T_LIST = 11, T_MAP = 12,
+            T_BOOLEAN_ARRAY = 13, T_BYTE_ARRAY = 14, T_CHAR_ARRAY = 15, T_SHORT_ARRAY = 16, T_INT_ARRAY = 17, T_LONG_ARRAY = 18, T_FLOAT_ARRAY = 19, T_DOUBLE_ARRAY = 20;
+
+    /**
+     * The scanned data of a single class, before it is added to a {@link ModFileScanData}.
+     */
+    public static class ClassEntry
+    {
+        private final Type type;
+        private final Type superType;
+        private final Set<Type> interfaces;
+        private final List<ModFileScanData.AnnotationData> annotations;
+
+        public ClassEntry(Type type, Type superType, Set<Type> interfaces, List<ModFileScanData.AnnotationData> annotations)
+        {
+            this.type = type;
+            this.superType = superType;
+            this.interfaces = interfaces;
+            this.annotations = annotations;
+        }
+
+        public void addTo(ModFileScanData data)
+        {
+            data.getClasses().add(new ModFileScanData.ClassData(type, superType, interfaces));
+            data.getAnnotations().addAll(annotations);
+        }
+    }
+
+    public static boolean isEnabled()
+    {
+        return SCANNER_VERSION != null && FMLConfig.scanCacheEnabled() && FMLPaths.GAMEDIR.get() != null;
+    }
+
+    @Nullable
+    private static String getScannerVersion()
+    {
+        Optional<String> fml = JarVersionLookupHandler.getImplementationVersion(ScanCache.class);
+        Optional<String> spi = JarVersionLookupHandler.getImplementationVersion(ModFileScanData.class);
+        return fml.isPresent() && spi.isPresent() ? fml.get() + "/" + spi.get() : null;
+    }
+
+    public static int getHits()
+    {
+        return HITS.get();
+    }
+
+    public static int getMisses()
+    {
+        return MISSES.get();
+    }
+
+    private static Path getCacheFile(Path modFile)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(modFile.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (byte b : hash)
+                name.append(String.format("%02x", b));
+            return FMLPaths.getOrCreateGameRelativePath(Paths.get(".cache", "fml", "scan"), "mod scan cache").resolve(name.append(".bin").toString());
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return The cached entries for the mod file, if it is a jar that has not changed since they were written.
+     */
+    public static Optional<List<ClassEntry>> load(Path modFile)
+    {
+        if (!Files.isRegularFile(modFile))
+            return Optional.empty();
+        Path cacheFile = getCacheFile(modFile);
+        if (!Files.exists(cacheFile))
+        {
+            MISSES.incrementAndGet();
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile))))
+        {
+            BasicFileAttributes attrs = Files.readAttributes(modFile, BasicFileAttributes.class);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(SCANNER_VERSION) ||
+                in.readLong() != attrs.size() || in.readLong() != attrs.lastModifiedTime().toMillis())
+            {
+                MISSES.incrementAndGet();
+                return Optional.empty();
+            }
+            String[] strings = new String[in.readInt()];
+            for (int x = 0; x < strings.length; x++)
+                strings[x] = in.readUTF();
+
+            int count = in.readInt();
+            List<ClassEntry> ret = new ArrayList<>(count);
+            for (int x = 0; x < count; x++)
+            {
+                Type type = Type.getType(strings[in.readInt()]);
+                int superIdx = in.readInt();
+                Type superType = superIdx < 0 ? null : Type.getType(strings[superIdx]);
+                int interfaceCount = in.readInt();
+                Set<Type> interfaces = new LinkedHashSet<>();
+                for (int y = 0; y < interfaceCount; y++)
+                    interfaces.add(Type.getType(strings[in.readInt()]));
+                int annotationCount = in.readInt();
+                List<ModFileScanData.AnnotationData> annotations = new ArrayList<>(annotationCount);
+                for (int y = 0; y < annotationCount; y++)
+                {
+                    Type annType = Type.getType(strings[in.readInt()]);
+                    ElementType target = ElementType.values()[in.readByte()];
+                    Type clazz = Type.getType(strings[in.readInt()]);
+                    String member = strings[in.readInt()];
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> values = (Map<String, Object>)readValue(in, strings);
+                    annotations.add(new ModFileScanData.AnnotationData(annType, target, clazz, member, values));
+                }
+                ret.add(new ClassEntry(type, superType, interfaces, annotations));
+            }
+            HITS.incrementAndGet();
+            return Optional.of(ret);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.debug(SCAN, "Discarding unreadable scan cache {} for {}", cacheFile, modFile, e);
+            MISSES.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the entries for the mod file, failures are logged and otherwise ignored.
+     */
+    public static void save(Path modFile, List<ClassEntry> entries)
+    {
+        if (!Files.isRegularFile(modFile))
+            return;
+        Path cacheFile = getCacheFile(modFile);
+        try
+        {
+            BasicFileAttributes attrs = Files.readAttributes(modFile, BasicFileAttributes.class);
+            Map<String, Integer> strings = new LinkedHashMap<>();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeInt(entries.size());
+            for (ClassEntry entry : entries)
+            {
+                out.writeInt(intern(strings, entry.type.getDescriptor()));
+                out.writeInt(entry.superType == null ? -1 : intern(strings, entry.superType.getDescriptor()));
+                out.writeInt(entry.interfaces.size());
+                for (Type itf : entry.interfaces)
+                    out.writeInt(intern(strings, itf.getDescriptor()));
+                out.writeInt(entry.annotations.size());
+                for (ModFileScanData.AnnotationData ann : entry.annotations)
+                {
+                    out.writeInt(intern(strings, ann.getAnnotationType().getDescriptor()));
+                    out.writeByte(ann.getTargetType().ordinal());
+                    out.writeInt(intern(strings, ann.getClassType().getDescriptor()));
+                    out.writeInt(intern(strings, ann.getMemberName()));
+                    writeValue(out, strings, ann.getAnnotationData());
+                }
+            }
+            out.flush();
+
+            Path tmp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+            {
+                file.writeInt(MAGIC);
+                file.writeInt(VERSION);
+                file.writeUTF(SCANNER_VERSION);
+                file.writeLong(attrs.size());
+                file.writeLong(attrs.lastModifiedTime().toMillis());
+                file.writeInt(strings.size());
+                for (String s : strings.keySet())
+                    file.writeUTF(s);
+                body.writeTo(file);
+            }
+            try
+            {
+                Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            LOGGER.debug(SCAN, "Unable to write scan cache {} for {}", cacheFile, modFile, e);
+        }
+    }
+
+    private static int intern(Map<String, Integer> strings, String value)
+    {
+        return strings.computeIfAbsent(value, k -> strings.size());
+    }
+
+    private static void writeValue(DataOutputStream out, Map<String, Integer> strings, Object value) throws IOException
+    {
+        if (value instanceof Boolean)        { out.writeByte(T_BOOLEAN); out.writeBoolean((Boolean)value); }
+        else if (value instanceof Byte)      { out.writeByte(T_BYTE);    out.writeByte((Byte)value); }
+        else if (value instanceof Character) { out.writeByte(T_CHAR);    out.writeChar((Character)value); }
+        else if (value instanceof Short)     { out.writeByte(T_SHORT);   out.writeShort((Short)value); }
+        else if (value instanceof Integer)   { out.writeByte(T_INT);     out.writeInt((Integer)value); }
+        else if (value instanceof Long)      { out.writeByte(T_LONG);    out.writeLong((Long)value); }
+        else if (value instanceof Float)     { out.writeByte(T_FLOAT);   out.writeFloat((Float)value); }
+        else if (value instanceof Double)    { out.writeByte(T_DOUBLE);  out.writeDouble((Double)value); }
+        else if (value instanceof String)    { out.writeByte(T_STRING);  out.writeInt(intern(strings, (String)value)); }
+        else if (value instanceof Type)      { out.writeByte(T_TYPE);    out.writeInt(intern(strings, ((Type)value).getDescriptor())); }
+        else if (value instanceof ModAnnotation.EnumHolder)
+        {
+            ModAnnotation.EnumHolder holder = (ModAnnotation.EnumHolder)value;
+            out.writeByte(T_ENUM);
+            out.writeInt(intern(strings, holder.getDesc()));
+            out.writeInt(intern(strings, holder.getValue()));
+        }
+        else if (value instanceof List)
+        {
+            List<?> list = (List<?>)value;
+            out.writeByte(T_LIST);
+            out.writeInt(list.size());
+            for (Object o : list)
+                writeValue(out, strings, o);
+        }
+        else if (value instanceof Map)
+        {
+            Map<?, ?> map = (Map<?, ?>)value;
+            out.writeByte(T_MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> e : map.entrySet())
+            {
+                out.writeInt(intern(strings, (String)e.getKey()));
+                writeValue(out, strings, e.getValue());
+            }
+        }
+        else if (value instanceof boolean[])
+        {
+            boolean[] arr = (boolean[])value;
+            out.writeByte(T_BOOLEAN_ARRAY);
+            out.writeInt(arr.length);
+            for (boolean v : arr) out.writeBoolean(v);
+        }
+        else if (value instanceof byte[])
+        {
+            byte[] arr = (byte[])value;
+            out.writeByte(T_BYTE_ARRAY);
+            out.writeInt(arr.length);
+            out.write(arr);
+        }
+        else if (value instanceof char[])
+        {
+            char[] arr = (char[])value;
+            out.writeByte(T_CHAR_ARRAY);
+            out.writeInt(arr.length);
+            for (char v : arr) out.writeChar(v);
+        }
+        else if (value instanceof short[])
+        {
+            short[] arr = (short[])value;
+            out.writeByte(T_SHORT_ARRAY);
+            out.writeInt(arr.length);
+            for (short v : arr) out.writeShort(v);
+        }
+        else if (value instanceof int[])
+        {
+            int[] arr = (int[])value;
+            out.writeByte(T_INT_ARRAY);
+            out.writeInt(arr.length);
+            for (int v : arr) out.writeInt(v);
+        }
+        else if (value instanceof long[])
+        {
+            long[] arr = (long[])value;
+            out.writeByte(T_LONG_ARRAY);
+            out.writeInt(arr.length);
+            for (long v : arr) out.writeLong(v);
+        }
+        else if (value instanceof float[])
+        {
+            float[] arr = (float[])value;
+            out.writeByte(T_FLOAT_ARRAY);
+            out.writeInt(arr.length);
+            for (float v : arr) out.writeFloat(v);
+        }
+        else if (value instanceof double[])
+        {
+            double[] arr = (double[])value;
+            out.writeByte(T_DOUBLE_ARRAY);
+            out.writeInt(arr.length);
+            for (double v : arr) out.writeDouble(v);
+        }
+        else
+        {
+            // Refuse to write a cache we can't read back faithfully, the jar will simply be scanned every time.
+            throw new IllegalArgumentException("Unsupported annotation value " + value);
+        }
+    }
+
+    private static Object readValue(DataInputStream in, String[] strings) throws IOException
+    {
+        int tag = in.readByte();
+        switch (tag)
+        {
+            case T_BOOLEAN: return in.readBoolean();
+            case T_BYTE:    return in.readByte();
+            case T_CHAR:    return in.readChar();
+            case T_SHORT:   return in.readShort();
+            case T_INT:     return in.readInt();
+            case T_LONG:    return in.readLong();
+            case T_FLOAT:   return in.readFloat();
+            case T_DOUBLE:  return in.readDouble();
+            case T_STRING:  return strings[in.readInt()];
+            case T_TYPE:    return Type.getType(strings[in.readInt()]);
+            case T_ENUM:    return new ModAnnotation.EnumHolder(strings[in.readInt()], strings[in.readInt()]);
+            case T_LIST:
+            {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int x = 0; x < size; x++)
+                    list.add(readValue(in, strings));
+                return list;
+            }
+            case T_MAP:
+            {
+                int size = in.readInt();
+                Map<String, Object> map = new HashMap<>();
+                for (int x = 0; x < size; x++)
+                    map.put(strings[in.readInt()], readValue(in, strings));
+                return map;
+            }
+            case T_BOOLEAN_ARRAY:
+            {
+                boolean[] arr = new boolean[in.readInt()];
+                for (int x = 0; x < arr.length; x++) arr[x] = in.readBoolean();
+                return arr;
+            }
+            case T_BYTE_ARRAY:
+            {
+                byte[] arr = new byte[in.readInt()];
+                in.readFully(arr);
+                return arr;
+            }
+            case T_CHAR_ARRAY:
+            {
+                char[] arr = new char[in.readInt()];
+                for (int x = 0; x < arr.length; x++) arr[x] = in.readChar();
+                return arr;
+            }
+            case T_SHORT_ARRAY:
+            {
+                short[] arr = new short[in.readInt()];
+                for (int x = 0; x < arr.length; x++) arr[x] = in.readShort();
+                return arr;
+            }
+            case T_INT_ARRAY:
+            {
+                int[] arr = new int[in.readInt()];
+                for (int x = 0; x < arr.length; x++) arr[x] = in.readInt();
+                return arr;
+            }
+            case T_LONG_ARRAY:
+            {
+                long[] arr = new long[in.readInt()];
+                for (int x = 0; x < arr.length; x++) arr[x] = in.readLong();
+                return arr;
+            }
+            case T_FLOAT_ARRAY:
+            {
+                float[] arr = new float[in.readInt()];
+                for (int x = 0; x < arr.length; x++) arr[x] = in.readFloat();
+                return arr;
+            }
+            case T_DOUBLE_ARRAY:
+            {
+                double[] arr = new double[in.readInt()];
+                for (int x = 0; x < arr.length; x++) arr[x] = in.readDouble();
+                return arr;
+            }
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+}
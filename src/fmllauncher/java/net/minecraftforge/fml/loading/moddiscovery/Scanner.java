@@ -29,11 +29,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static net.minecraftforge.fml.loading.LogMarkers.SCAN;
 
 public class Scanner {
     private static final Logger LOGGER = LogManager.getLogger();
+    // Jars with at least this many classes are parsed on multiple threads
+    private static final int PARALLEL_THRESHOLD = 256;
     private final ModFile fileToScan;
 
     public Scanner(final ModFile fileToScan) {
@@ -41,26 +49,52 @@ public class Scanner {
     }
 
     public ModFileScanData scan() {
+        final long start = System.nanoTime();
         ModFileScanData result = new ModFileScanData();
         result.addModFileInfo(fileToScan.getModFileInfo());
-        fileToScan.scanFile(p -> fileVisitor(p, result));
+
+        final boolean useCache = ScanCache.isEnabled();
+        final Optional<List<ScanCache.ClassEntry>> cached = useCache ? ScanCache.load(fileToScan.getFilePath()) : Optional.empty();
+        final long loaded = System.nanoTime();
+        final List<ScanCache.ClassEntry> entries;
+        if (cached.isPresent()) {
+            entries = cached.get();
+        } else {
+            final List<Path> paths = new ArrayList<>();
+            fileToScan.scanFile(paths::add);
+            try (Stream<Path> stream = paths.size() >= PARALLEL_THRESHOLD ? paths.parallelStream() : paths.stream()) {
+                entries = stream.map(this::scanClass).filter(Objects::nonNull).collect(Collectors.toList());
+            }
+        }
+        final long scanned = System.nanoTime();
+        entries.forEach(e -> e.addTo(result));
+        if (useCache && !cached.isPresent()) {
+            ScanCache.save(fileToScan.getFilePath(), entries);
+        }
+        final long saved = System.nanoTime();
+
         final IModLanguageProvider loader = fileToScan.getLoader();
         if (loader != null) {
             LOGGER.debug(SCAN, "Scanning {} with language loader {}", fileToScan.getFilePath(), loader.name());
             loader.getFileVisitor().accept(result);
         }
+        final long end = System.nanoTime();
+        LOGGER.debug(SCAN, "Scanned {} classes in {} in {}ms ({}: {}ms, cache write: {}ms, cache lookup: {}ms, language loader: {}ms)",
+                entries.size(), fileToScan, (end - start) / 1_000_000, cached.isPresent() ? "cached" : "asm", (scanned - loaded) / 1_000_000,
+                (saved - scanned) / 1_000_000, (loaded - start) / 1_000_000, (end - saved) / 1_000_000);
         return result;
     }
 
-    private void fileVisitor(final Path path, final ModFileScanData result) {
+    private ScanCache.ClassEntry scanClass(final Path path) {
         LOGGER.debug(SCAN,"Scanning {} path {}", fileToScan, path);
         try (InputStream in = Files.newInputStream(path)){
             ModClassVisitor mcv = new ModClassVisitor();
             ClassReader cr = new ClassReader(in);
             cr.accept(mcv, 0);
-            mcv.buildData(result.getClasses(), result.getAnnotations());
+            return mcv.buildEntry();
         } catch (IOException | IllegalArgumentException e) {
             // mark path bad
+            return null;
         }
     }
 }
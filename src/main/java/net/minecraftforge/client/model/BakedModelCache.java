@@ -0,0 +1,790 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.mojang.datafixers.util.Pair;
+import io.netty.buffer.Unpooled;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.model.BakedQuad;
+import net.minecraft.client.renderer.model.BlockModel;
+import net.minecraft.client.renderer.model.IBakedModel;
+import net.minecraft.client.renderer.model.IModelTransform;
+import net.minecraft.client.renderer.model.IUnbakedModel;
+import net.minecraft.client.renderer.model.ItemCameraTransforms;
+import net.minecraft.client.renderer.model.ItemModelGenerator;
+import net.minecraft.client.renderer.model.ItemOverrideList;
+import net.minecraft.client.renderer.model.ItemTransformVec3f;
+import net.minecraft.client.renderer.model.ModelBakery;
+import net.minecraft.client.renderer.model.ModelResourceLocation;
+import net.minecraft.client.renderer.model.ModelRotation;
+import net.minecraft.client.renderer.model.RenderMaterial;
+import net.minecraft.client.renderer.model.SimpleBakedModel;
+import net.minecraft.client.renderer.model.Variant;
+import net.minecraft.client.renderer.model.VariantList;
+import net.minecraft.client.renderer.model.WeightedBakedModel;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.resources.IResource;
+import net.minecraft.resources.IResourceManager;
+import net.minecraft.util.Direction;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.vector.Vector3f;
+import net.minecraftforge.client.model.geometry.IModelGeometry;
+import net.minecraftforge.client.model.obj.OBJModel;
+import net.minecraftforge.common.ForgeConfig;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.versions.forge.ForgeVersion;
+import net.minecraftforge.versions.mcp.MCPVersion;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+
+import static net.minecraftforge.fml.Logging.MODELLOADING;
+
+/**
+ * On disk cache of baked top level models, so block states and item models whose resource files did not change since
+ * the last resource reload or game start are neither parsed nor baked again.
+ * <p>
+ * Each entry is keyed by a hash of the raw bytes of every resource the model was read from: the block state files of
+ * all resource packs, the model json and its parents, the OBJ and MTL files of {@code forge:obj} geometries, and the
+ * textures of generated item models. The key also covers the ids of the loaders the model used, and the Forge,
+ * Minecraft and mod versions. It is checked before anything is parsed. Entries which still match are put in the
+ * {@link ModelBakery} as a placeholder, which hands out the textures of the model for stitching and reads the baked
+ * model back, if the sprites it uses kept their place in the atlas. Otherwise the model is loaded and baked as usual.
+ * <p>
+ * Only block state variants and inventory models which bake to a {@link SimpleBakedModel}, or a weighted list of them,
+ * are cached. Multiparts, item overrides, and other loaders than {@code minecraft:elements} and {@code forge:obj} are
+ * always baked. Block states read from the cache are not grouped by model, so changing them always re-renders the
+ * chunk section.
+ * <p>
+ * The cache lives in {@code .cache/forge/baked_models.bin} and is rewritten after each reload with the models of that reload.
+ */
+public final class BakedModelCache
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int MAGIC = 0x464D4443; // FMDC
+    private static final int FORMAT = 2;
+    private static final ResourceLocation ELEMENTS_LOADER = new ResourceLocation("minecraft", "elements");
+    private static final ResourceLocation OBJ_LOADER = new ResourceLocation("forge", "obj");
+    private static final ItemModelGenerator ITEM_MODEL_GENERATOR = new ItemModelGenerator();
+    private static final ItemCameraTransforms.TransformType[] TRANSFORM_TYPES = {
+        ItemCameraTransforms.TransformType.THIRD_PERSON_LEFT_HAND, ItemCameraTransforms.TransformType.THIRD_PERSON_RIGHT_HAND,
+        ItemCameraTransforms.TransformType.FIRST_PERSON_LEFT_HAND, ItemCameraTransforms.TransformType.FIRST_PERSON_RIGHT_HAND,
+        ItemCameraTransforms.TransformType.HEAD, ItemCameraTransforms.TransformType.GUI,
+        ItemCameraTransforms.TransformType.GROUND, ItemCameraTransforms.TransformType.FIXED
+    };
+
+    private static volatile boolean active = false;
+    private static HashCode environment;
+    private static IResourceManager resourceManager;
+    private static final Map<Dependency, HashCode> contents = new HashMap<>();
+    private static final AtomicInteger hits = new AtomicInteger();
+
+    private BakedModelCache() {}
+
+    private static Path getFile()
+    {
+        return FMLPaths.GAMEDIR.get().resolve(".cache").resolve("forge").resolve("baked_models.bin");
+    }
+
+    /**
+     * Internal, called from {@link ModelBakery} before any model is loaded. Puts a placeholder for every cached model
+     * whose inputs did not change in the unbaked model cache of the bakery.
+     */
+    public static void onModelLoadingStart(ModelBakery bakery, BiConsumer<ResourceLocation, IUnbakedModel> unbakedCache)
+    {
+        active = bakery instanceof ModelLoader && ForgeConfig.CLIENT.bakedModelCache.get();
+        contents.clear();
+        hits.set(0);
+        if (!active)
+            return;
+        environment = hashEnvironment();
+        resourceManager = Minecraft.getInstance().getResourceManager();
+        Path file = getFile();
+        if (!Files.isRegularFile(file))
+            return;
+
+        int loaded = 0;
+        int stale = 0;
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(file))))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT)
+                return;
+            byte[] env = new byte[environment.bits() / 8];
+            in.readFully(env);
+            if (!HashCode.fromBytes(env).equals(environment))
+            {
+                LOGGER.debug(MODELLOADING, "Discarding baked model cache, the installed mods changed");
+                return;
+            }
+            int count = in.readInt();
+            Map<ModelResourceLocation, CachedModel> models = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++)
+            {
+                byte[] entry = new byte[in.readInt()];
+                in.readFully(entry);
+                CachedModel model = CachedModel.read(entry);
+                if (model == null)
+                    stale++;
+                else
+                    models.put(model.location, model);
+            }
+            models.forEach(unbakedCache);
+            loaded = models.size();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.debug(MODELLOADING, "Failed to read the baked model cache {}", file, e);
+            return;
+        }
+        LOGGER.debug(MODELLOADING, "Baked model cache: {} models unchanged, {} changed", loaded, stale);
+    }
+
+    /**
+     * Internal, called once all top level models are baked. Writes the models of this reload which can be cached.
+     */
+    static void onBakingDone(ModelBakery bakery, List<ResourceLocation> locations, IBakedModel[] baked)
+    {
+        if (!active)
+            return;
+        active = false;
+        final List<byte[]> entries = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < baked.length; i++)
+        {
+            if (baked[i] == null || !(locations.get(i) instanceof ModelResourceLocation))
+                continue;
+            ModelResourceLocation location = (ModelResourceLocation) locations.get(i);
+            total++;
+            IUnbakedModel unbaked = bakery.getModel(location);
+            try
+            {
+                byte[] entry;
+                if (unbaked instanceof CachedModel && ((CachedModel) unbaked).hit)
+                {
+                    entry = ((CachedModel) unbaked).entry;
+                }
+                else
+                {
+                    if (unbaked instanceof CachedModel)
+                        unbaked = ((CachedModel) unbaked).getFallback(bakery);
+                    entry = write(bakery, location, unbaked, baked[i]);
+                }
+                if (entry != null)
+                    entries.add(entry);
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.debug(MODELLOADING, "Failed to cache baked model {}", location, e);
+            }
+        }
+        contents.clear();
+        resourceManager = null;
+        LOGGER.debug(MODELLOADING, "Baked model cache: {} of {} models read back, {} cached", hits, total, entries.size());
+
+        final HashCode env = environment;
+        Util.ioPool().execute(() -> write(env, entries));
+    }
+
+    private static void write(HashCode env, List<byte[]> entries)
+    {
+        Path file = getFile();
+        try
+        {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "baked_models", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.write(env.asBytes());
+                out.writeInt(entries.size());
+                for (byte[] entry : entries)
+                {
+                    out.writeInt(entry.length);
+                    out.write(entry);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e)
+        {
+            LOGGER.debug(MODELLOADING, "Failed to write the baked model cache {}", file, e);
+        }
+    }
+
+    private static HashCode hashEnvironment()
+    {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putInt(FORMAT);
+        hasher.putUnencodedChars(ForgeVersion.getVersion()).putUnencodedChars(MCPVersion.getMCVersion());
+        ModList.get().getMods().stream()
+            .sorted((a, b) -> a.getModId().compareTo(b.getModId()))
+            .forEach(mod -> hasher.putUnencodedChars(mod.getModId()).putUnencodedChars(mod.getVersion().toString()));
+        return hasher.hash();
+    }
+
+    /**
+     * The key of a model: the versions, its location, the loaders it used and the raw bytes of every resource it was
+     * read from.
+     */
+    private static HashCode hashInputs(ResourceLocation location, Collection<ResourceLocation> loaders, Collection<Dependency> dependencies)
+    {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putBytes(environment.asBytes());
+        hasher.putUnencodedChars(location.toString());
+        for (ResourceLocation loader : loaders)
+            hasher.putUnencodedChars(loader.toString());
+        for (Dependency dependency : dependencies)
+        {
+            hasher.putBoolean(dependency.allPacks).putUnencodedChars(dependency.location.toString());
+            hasher.putBytes(contents.computeIfAbsent(dependency, BakedModelCache::hashContent).asBytes());
+        }
+        return hasher.hash();
+    }
+
+    private static HashCode hashContent(Dependency dependency)
+    {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        try
+        {
+            List<IResource> resources = dependency.allPacks ? resourceManager.getResources(dependency.location) : Collections.singletonList(resourceManager.getResource(dependency.location));
+            for (IResource resource : resources)
+            {
+                try (IResource r = resource)
+                {
+                    hasher.putUnencodedChars(r.getSourceName());
+                    ByteStreams.copy(r.getInputStream(), Funnels.asOutputStream(hasher));
+                }
+            }
+        }
+        catch (FileNotFoundException e)
+        {
+            hasher.putInt(-1);
+        }
+        catch (IOException e)
+        {
+            // Unreadable resources never match, so models reading them are loaded as usual
+            hasher.putLong(System.nanoTime());
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Serializes a top level model, or returns null if it can not be cached.
+     */
+    @Nullable
+    private static byte[] write(ModelBakery bakery, ModelResourceLocation location, IUnbakedModel unbaked, IBakedModel baked)
+    {
+        Set<Dependency> dependencies = new LinkedHashSet<>();
+        Set<ResourceLocation> loaders = new LinkedHashSet<>();
+        List<Variant> variants = new ArrayList<>();
+        List<IBakedModel> models = new ArrayList<>();
+        ResourceLocation itemModel = null;
+
+        if (unbaked.getClass() == VariantList.class)
+        {
+            dependencies.add(new Dependency(new ResourceLocation(location.getNamespace(), "blockstates/" + location.getPath() + ".json"), true));
+            for (Variant variant : ((VariantList) unbaked).getVariants())
+            {
+                IUnbakedModel child = bakery.getModel(variant.getModelLocation());
+                if (getRotation(variant) == null || !(child instanceof BlockModel) || !collectInputs((BlockModel) child, dependencies, loaders))
+                    return null;
+                variants.add(variant);
+                // Already baked for this variant list, so this only looks it up
+                models.add(bakery.getBakedModel(variant.getModelLocation(), variant, bakery.getSpriteMap()::getSprite));
+            }
+        }
+        else if (unbaked.getClass() == BlockModel.class && "inventory".equals(location.getVariant()))
+        {
+            itemModel = ResourceLocation.tryParse(((BlockModel) unbaked).name);
+            if (itemModel == null || !collectInputs((BlockModel) unbaked, dependencies, loaders))
+                return null;
+            models.add(baked);
+        }
+        else
+        {
+            return null;
+        }
+
+        PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+        buf.writeUtf(location.toString());
+        buf.writeBytes(hashInputs(location, loaders, dependencies).asBytes());
+        buf.writeVarInt(loaders.size());
+        loaders.forEach(buf::writeResourceLocation);
+        buf.writeVarInt(dependencies.size());
+        for (Dependency dependency : dependencies)
+        {
+            buf.writeResourceLocation(dependency.location);
+            buf.writeBoolean(dependency.allPacks);
+        }
+
+        Collection<RenderMaterial> materials = unbaked.getMaterials(bakery::getModel, new HashSet<>());
+        buf.writeVarInt(materials.size());
+        for (RenderMaterial material : materials)
+        {
+            buf.writeResourceLocation(material.atlasLocation());
+            buf.writeResourceLocation(material.texture());
+        }
+
+        Set<TextureAtlasSprite> sprites = new LinkedHashSet<>();
+        PacketBuffer bakedBuf = new PacketBuffer(Unpooled.buffer());
+        for (IBakedModel model : models)
+        {
+            if (!writeModel(bakedBuf, model, sprites))
+                return null;
+        }
+        buf.writeVarInt(sprites.size());
+        sprites.forEach(sprite -> new SpritePosition(sprite).write(buf));
+
+        buf.writeBoolean(itemModel != null);
+        if (itemModel != null)
+        {
+            buf.writeResourceLocation(itemModel);
+        }
+        else
+        {
+            buf.writeVarInt(variants.size());
+            for (Variant variant : variants)
+            {
+                buf.writeResourceLocation(variant.getModelLocation());
+                buf.writeVarInt(getRotation(variant).ordinal());
+                buf.writeBoolean(variant.isUvLocked());
+                buf.writeVarInt(variant.getWeight());
+            }
+        }
+        buf.writeBytes(bakedBuf);
+
+        byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        return bytes;
+    }
+
+    @Nullable
+    private static ModelRotation getRotation(Variant variant)
+    {
+        for (ModelRotation rotation : ModelRotation.values())
+        {
+            if (rotation.getRotation().equals(variant.getRotation()))
+                return rotation;
+        }
+        return null;
+    }
+
+    /**
+     * Adds the resources a block model and its parents were read from, or returns false if they are not known.
+     */
+    private static boolean collectInputs(BlockModel model, Set<Dependency> dependencies, Set<ResourceLocation> loaders)
+    {
+        IModelGeometry<?> geometry = model.customData.getCustomGeometry();
+        if (geometry != null)
+        {
+            ResourceLocation loader = ModelBakeScheduler.getLoaderId(geometry);
+            if (OBJ_LOADER.equals(loader) && geometry instanceof OBJModel)
+            {
+                OBJModel obj = (OBJModel) geometry;
+                dependencies.add(new Dependency(obj.modelLocation, false));
+                obj.getMaterialLibraries().forEach(lib -> dependencies.add(new Dependency(lib, false)));
+            }
+            else if (!ELEMENTS_LOADER.equals(loader))
+            {
+                return false;
+            }
+            loaders.add(loader);
+        }
+
+        for (BlockModel current = model; current != null; current = current.parent)
+        {
+            if (current == ModelBakery.GENERATION_MARKER)
+            {
+                // Generated item models are built from the pixels of their layers
+                for (String layer : ItemModelGenerator.LAYERS)
+                {
+                    if (!model.hasTexture(layer))
+                        break;
+                    ResourceLocation texture = model.getMaterial(layer).texture();
+                    dependencies.add(new Dependency(new ResourceLocation(texture.getNamespace(), "textures/" + texture.getPath() + ".png"), false));
+                    dependencies.add(new Dependency(new ResourceLocation(texture.getNamespace(), "textures/" + texture.getPath() + ".png.mcmeta"), false));
+                }
+                continue;
+            }
+            // Also rejects the block entity marker, whose name is not a resource location
+            ResourceLocation name = ResourceLocation.tryParse(current.name);
+            if (name == null || name.getPath().startsWith("builtin/") || !current.getOverrides().isEmpty())
+                return false;
+            dependencies.add(new Dependency(new ResourceLocation(name.getNamespace(), "models/" + name.getPath() + ".json"), false));
+        }
+        return true;
+    }
+
+    private static boolean writeModel(PacketBuffer buf, IBakedModel model, Set<TextureAtlasSprite> sprites)
+    {
+        if (model == null || model.getClass() != SimpleBakedModel.class || model.getOverrides() != ItemOverrideList.EMPTY)
+            return false;
+        buf.writeBoolean(model.useAmbientOcclusion());
+        buf.writeBoolean(model.usesBlockLight());
+        buf.writeBoolean(model.isGui3d());
+        writeSprite(buf, model.getParticleIcon());
+        sprites.add(model.getParticleIcon());
+        ItemCameraTransforms transforms = model.getTransforms();
+        for (ItemCameraTransforms.TransformType type : TRANSFORM_TYPES)
+        {
+            ItemTransformVec3f transform = transforms.getTransform(type);
+            writeVector(buf, transform.rotation);
+            writeVector(buf, transform.translation);
+            writeVector(buf, transform.scale);
+        }
+        if (!writeQuads(buf, model.getQuads(null, null, null), sprites))
+            return false;
+        for (Direction side : Direction.values())
+        {
+            if (!writeQuads(buf, model.getQuads(null, side, null), sprites))
+                return false;
+        }
+        return true;
+    }
+
+    private static IBakedModel readModel(PacketBuffer buf, Function<RenderMaterial, TextureAtlasSprite> spriteGetter)
+    {
+        boolean ambientOcclusion = buf.readBoolean();
+        boolean usesBlockLight = buf.readBoolean();
+        boolean gui3d = buf.readBoolean();
+        TextureAtlasSprite particle = readSprite(buf, spriteGetter);
+        ItemTransformVec3f[] transforms = new ItemTransformVec3f[TRANSFORM_TYPES.length];
+        for (int i = 0; i < transforms.length; i++)
+            transforms[i] = new ItemTransformVec3f(readVector(buf), readVector(buf), readVector(buf));
+        List<BakedQuad> unculled = readQuads(buf, spriteGetter);
+        Map<Direction, List<BakedQuad>> culled = new EnumMap<>(Direction.class);
+        for (Direction side : Direction.values())
+            culled.put(side, readQuads(buf, spriteGetter));
+        return new SimpleBakedModel(unculled, culled, ambientOcclusion, usesBlockLight, gui3d, particle,
+            new ItemCameraTransforms(transforms[0], transforms[1], transforms[2], transforms[3], transforms[4], transforms[5], transforms[6], transforms[7]),
+            ItemOverrideList.EMPTY);
+    }
+
+    private static boolean writeQuads(PacketBuffer buf, List<BakedQuad> quads, Set<TextureAtlasSprite> sprites)
+    {
+        buf.writeVarInt(quads.size());
+        for (BakedQuad quad : quads)
+        {
+            if (quad.getClass() != BakedQuad.class)
+                return false;
+            int[] vertices = quad.getVertices();
+            buf.writeVarInt(vertices.length);
+            for (int value : vertices)
+                buf.writeInt(value);
+            buf.writeVarInt(quad.getTintIndex() + 1);
+            buf.writeByte(quad.getDirection() == null ? -1 : quad.getDirection().ordinal());
+            buf.writeBoolean(quad.isShade());
+            writeSprite(buf, quad.getSprite());
+            sprites.add(quad.getSprite());
+        }
+        return true;
+    }
+
+    private static List<BakedQuad> readQuads(PacketBuffer buf, Function<RenderMaterial, TextureAtlasSprite> spriteGetter)
+    {
+        int count = buf.readVarInt();
+        List<BakedQuad> quads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            int[] vertices = new int[buf.readVarInt()];
+            for (int j = 0; j < vertices.length; j++)
+                vertices[j] = buf.readInt();
+            int tintIndex = buf.readVarInt() - 1;
+            int direction = buf.readByte();
+            boolean shade = buf.readBoolean();
+            quads.add(new BakedQuad(vertices, tintIndex, direction < 0 ? null : Direction.values()[direction], readSprite(buf, spriteGetter), shade));
+        }
+        return quads;
+    }
+
+    private static void writeSprite(PacketBuffer buf, TextureAtlasSprite sprite)
+    {
+        buf.writeResourceLocation(sprite.atlas().location());
+        buf.writeResourceLocation(sprite.getName());
+    }
+
+    private static TextureAtlasSprite readSprite(PacketBuffer buf, Function<RenderMaterial, TextureAtlasSprite> spriteGetter)
+    {
+        ResourceLocation atlas = buf.readResourceLocation();
+        return spriteGetter.apply(new RenderMaterial(atlas, buf.readResourceLocation()));
+    }
+
+    private static void writeVector(PacketBuffer buf, Vector3f vector)
+    {
+        buf.writeFloat(vector.x());
+        buf.writeFloat(vector.y());
+        buf.writeFloat(vector.z());
+    }
+
+    private static Vector3f readVector(PacketBuffer buf)
+    {
+        return new Vector3f(buf.readFloat(), buf.readFloat(), buf.readFloat());
+    }
+
+    private static final class Dependency
+    {
+        private final ResourceLocation location;
+        private final boolean allPacks;
+
+        private Dependency(ResourceLocation location, boolean allPacks)
+        {
+            this.location = location;
+            this.allPacks = allPacks;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof Dependency))
+                return false;
+            Dependency other = (Dependency) o;
+            return allPacks == other.allPacks && location.equals(other.location);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return location.hashCode() * 31 + (allPacks ? 1 : 0);
+        }
+    }
+
+    /**
+     * Where a sprite was stitched, as baked quads store texture coordinates in the atlas rather than in the sprite.
+     */
+    private static final class SpritePosition
+    {
+        private final RenderMaterial material;
+        private final int width;
+        private final int height;
+        private final float u0;
+        private final float u1;
+        private final float v0;
+        private final float v1;
+
+        private SpritePosition(TextureAtlasSprite sprite)
+        {
+            this.material = new RenderMaterial(sprite.atlas().location(), sprite.getName());
+            this.width = sprite.getWidth();
+            this.height = sprite.getHeight();
+            this.u0 = sprite.getU0();
+            this.u1 = sprite.getU1();
+            this.v0 = sprite.getV0();
+            this.v1 = sprite.getV1();
+        }
+
+        private SpritePosition(PacketBuffer buf)
+        {
+            this.material = new RenderMaterial(buf.readResourceLocation(), buf.readResourceLocation());
+            this.width = buf.readInt();
+            this.height = buf.readInt();
+            this.u0 = buf.readFloat();
+            this.u1 = buf.readFloat();
+            this.v0 = buf.readFloat();
+            this.v1 = buf.readFloat();
+        }
+
+        private void write(PacketBuffer buf)
+        {
+            buf.writeResourceLocation(material.atlasLocation());
+            buf.writeResourceLocation(material.texture());
+            buf.writeInt(width);
+            buf.writeInt(height);
+            buf.writeFloat(u0);
+            buf.writeFloat(u1);
+            buf.writeFloat(v0);
+            buf.writeFloat(v1);
+        }
+
+        private boolean matches(Function<RenderMaterial, TextureAtlasSprite> spriteGetter)
+        {
+            TextureAtlasSprite sprite = spriteGetter.apply(material);
+            return sprite.getName().equals(material.texture()) && sprite.getWidth() == width && sprite.getHeight() == height &&
+                    sprite.getU0() == u0 && sprite.getU1() == u1 && sprite.getV0() == v0 && sprite.getV1() == v1;
+        }
+    }
+
+    /**
+     * Stands in for a cached top level model while loading, so the block state or item model behind it is not parsed.
+     */
+    static final class CachedModel implements IUnbakedModel
+    {
+        private final ModelResourceLocation location;
+        private final byte[] entry;
+        private final List<RenderMaterial> materials;
+        private final List<SpritePosition> layout = new ArrayList<>();
+        @Nullable
+        private final ResourceLocation itemModel;
+        private final List<Variant> variants = new ArrayList<>();
+        private final int bakedIndex;
+        private volatile boolean hit = false;
+        @Nullable
+        private IUnbakedModel fallback;
+
+        /**
+         * Reads a cache entry, or returns null if the resources it was read from changed.
+         */
+        @Nullable
+        private static CachedModel read(byte[] entry)
+        {
+            PacketBuffer buf = new PacketBuffer(Unpooled.wrappedBuffer(entry));
+            ModelResourceLocation location = new ModelResourceLocation(buf.readUtf());
+            byte[] key = new byte[environment.bits() / 8];
+            buf.readBytes(key);
+            List<ResourceLocation> loaders = new ArrayList<>();
+            for (int i = buf.readVarInt(); i > 0; i--)
+                loaders.add(buf.readResourceLocation());
+            List<Dependency> dependencies = new ArrayList<>();
+            for (int i = buf.readVarInt(); i > 0; i--)
+                dependencies.add(new Dependency(buf.readResourceLocation(), buf.readBoolean()));
+
+            if (loaders.stream().anyMatch(loader -> ModelLoaderRegistry.getLoader(loader) == null) || !hashInputs(location, loaders, dependencies).equals(HashCode.fromBytes(key)))
+                return null;
+            return new CachedModel(location, entry, buf);
+        }
+
+        private CachedModel(ModelResourceLocation location, byte[] entry, PacketBuffer buf)
+        {
+            this.location = location;
+            this.entry = entry;
+            int count = buf.readVarInt();
+            List<RenderMaterial> materials = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+                materials.add(new RenderMaterial(buf.readResourceLocation(), buf.readResourceLocation()));
+            this.materials = Collections.unmodifiableList(materials);
+            for (int i = buf.readVarInt(); i > 0; i--)
+                layout.add(new SpritePosition(buf));
+            if (buf.readBoolean())
+            {
+                this.itemModel = buf.readResourceLocation();
+            }
+            else
+            {
+                this.itemModel = null;
+                for (int i = buf.readVarInt(); i > 0; i--)
+                    variants.add(new Variant(buf.readResourceLocation(), ModelRotation.values()[buf.readVarInt()].getRotation(), buf.readBoolean(), buf.readVarInt()));
+            }
+            this.bakedIndex = buf.readerIndex();
+        }
+
+        @Override
+        public Collection<ResourceLocation> getDependencies()
+        {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Collection<RenderMaterial> getMaterials(Function<ResourceLocation, IUnbakedModel> modelGetter, Set<Pair<String, String>> missingTextureErrors)
+        {
+            return materials;
+        }
+
+        @Nullable
+        @Override
+        public IBakedModel bake(ModelBakery bakery, Function<RenderMaterial, TextureAtlasSprite> spriteGetter, IModelTransform modelTransform, ResourceLocation modelLocation)
+        {
+            if (modelTransform.getRotation().isIdentity() && !modelTransform.isUvLocked() && layout.stream().allMatch(position -> position.matches(spriteGetter)))
+            {
+                try
+                {
+                    PacketBuffer buf = new PacketBuffer(Unpooled.wrappedBuffer(entry));
+                    buf.readerIndex(bakedIndex);
+                    IBakedModel model;
+                    if (itemModel != null)
+                    {
+                        model = readModel(buf, spriteGetter);
+                    }
+                    else
+                    {
+                        WeightedBakedModel.Builder builder = new WeightedBakedModel.Builder();
+                        for (Variant variant : variants)
+                            builder.add(readModel(buf, spriteGetter), variant.getWeight());
+                        model = builder.build();
+                    }
+                    hits.incrementAndGet();
+                    hit = true;
+                    return model;
+                }
+                catch (RuntimeException e)
+                {
+                    LOGGER.debug(MODELLOADING, "Failed to read cached model {}, baking it again", location, e);
+                }
+            }
+
+            IUnbakedModel model = getFallback(bakery);
+            if (model instanceof BlockModel && ((BlockModel) model).getRootModel() == ModelBakery.GENERATION_MARKER)
+            {
+                // Same as ModelBakery.getBakedModel, which only gets to see the placeholder
+                BlockModel blockModel = (BlockModel) model;
+                return ITEM_MODEL_GENERATOR.generateBlockModel(spriteGetter, blockModel).bake(bakery, blockModel, spriteGetter, modelTransform, modelLocation, false);
+            }
+            return model.bake(bakery, spriteGetter, modelTransform, modelLocation);
+        }
+
+        /**
+         * The model this placeholder stands in for, loaded through the bakery as if it had not been cached.
+         */
+        private synchronized IUnbakedModel getFallback(ModelBakery bakery)
+        {
+            if (fallback == null)
+            {
+                IUnbakedModel model = itemModel != null ? bakery.getModel(itemModel) : new VariantList(variants);
+                model.getMaterials(bakery::getModel, new HashSet<>());
+                fallback = model;
+            }
+            return fallback;
+        }
+    }
+}
@@ -241,6 +241,12 @@ public class CompositeModel implements IDynamicBakedModel
 
         }
 
+        @Override
+        public boolean isThreadSafe()
+        {
+            return true;
+        }
+
         @Override
         public Geometry read(JsonDeserializationContext deserializationContext, JsonObject modelContents)
         {
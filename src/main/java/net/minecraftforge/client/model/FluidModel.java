@@ -49,7 +49,6 @@ import net.minecraftforge.client.model.data.IModelData;
 import net.minecraftforge.client.model.geometry.IModelGeometry;
 import net.minecraftforge.client.model.pipeline.BakedQuadBuilder;
 import net.minecraftforge.client.model.pipeline.IVertexConsumer;
-import net.minecraftforge.client.model.pipeline.TRSRTransformer;
 import net.minecraftforge.fluids.FluidAttributes;
 
 import com.google.common.cache.CacheBuilder;
@@ -257,6 +256,8 @@ public final class FluidModel implements IModelGeometry<FluidModel>
         private ImmutableMap<Direction, ImmutableList<BakedQuad>> buildQuads(boolean statePresent, int[] cornerRound, int flowRound, boolean[] sideOverlays)
         {
             EnumMap<Direction, ImmutableList<BakedQuad>> faceQuads = new EnumMap<>(Direction.class);
+            // only apply the transform if it's not identity
+            QuadTransformer transformer = transformation.isIdentity() ? null : new QuadTransformer(transformation);
             for (Direction side : Direction.values())
             {
                 faceQuads.put(side, ImmutableList.of());
@@ -299,8 +300,8 @@ public final class FluidModel implements IModelGeometry<FluidModel>
                 {
                     ImmutableList.Builder<BakedQuad> builder = ImmutableList.builder();
 
-                    builder.add(buildQuad(top, topSprite, gas, false, topX, topY, topZ, topU, topV));
-                    if (!fullVolume) builder.add(buildQuad(top, topSprite, !gas, true, topX, topY, topZ, topU, topV));
+                    builder.add(buildQuad(transformer, top, topSprite, gas, false, topX, topY, topZ, topU, topV));
+                    if (!fullVolume) builder.add(buildQuad(transformer, top, topSprite, !gas, true, topX, topY, topZ, topU, topV));
 
                     faceQuads.put(top, builder.build());
                 }
@@ -308,7 +309,7 @@ public final class FluidModel implements IModelGeometry<FluidModel>
                 // bottom
                 Direction bottom = top.getOpposite();
                 faceQuads.put(bottom, ImmutableList.of(
-                        buildQuad(bottom, still, gas, false,
+                        buildQuad(transformer, bottom, still, gas, false,
                                 i -> z[i],
                                 i -> gas ? 1 : 0,
                                 i -> x[i],
@@ -332,8 +333,8 @@ public final class FluidModel implements IModelGeometry<FluidModel>
 
                     ImmutableList.Builder<BakedQuad> builder = ImmutableList.builder();
 
-                    if (!useOverlay) builder.add(buildQuad(side, flowing, gas, true, sideX, sideY, sideZ, sideU, sideV));
-                    builder.add(buildQuad(side, useOverlay ? overlay.get() : flowing, !gas, false, sideX, sideY, sideZ, sideU, sideV));
+                    if (!useOverlay) builder.add(buildQuad(transformer, side, flowing, gas, true, sideX, sideY, sideZ, sideU, sideV));
+                    builder.add(buildQuad(transformer, side, useOverlay ? overlay.get() : flowing, !gas, false, sideX, sideY, sideZ, sideU, sideV));
 
                     faceQuads.put(side, builder.build());
                 }
@@ -342,7 +343,7 @@ public final class FluidModel implements IModelGeometry<FluidModel>
             {
                 // inventory
                 faceQuads.put(Direction.SOUTH, ImmutableList.of(
-                        buildQuad(Direction.UP, still, false, false,
+                        buildQuad(transformer, Direction.UP, still, false, false,
                                 i -> z[i],
                                 i -> x[i],
                                 i -> 0,
@@ -361,28 +362,26 @@ public final class FluidModel implements IModelGeometry<FluidModel>
             float get(int index);
         }
 
-        private BakedQuad buildQuad(Direction side, TextureAtlasSprite texture, boolean flip, boolean offset, VertexParameter x, VertexParameter y, VertexParameter z, VertexParameter u, VertexParameter v)
+        private BakedQuad buildQuad(@Nullable QuadTransformer transformer, Direction side, TextureAtlasSprite texture, boolean flip, boolean offset, VertexParameter x, VertexParameter y, VertexParameter z, VertexParameter u, VertexParameter v)
         {
             BakedQuadBuilder builder = new BakedQuadBuilder(texture);
 
             builder.setQuadOrientation(side);
             builder.setQuadTint(0);
 
-            boolean hasTransform = !transformation.isIdentity();
-            IVertexConsumer consumer = hasTransform ? new TRSRTransformer(builder, transformation) : builder;
-
             for (int i = 0; i < 4; i++)
             {
                 int vertex = flip ? 3 - i : i;
                 putVertex(
-                    consumer, side, offset,
+                    builder, side, offset,
                     x.get(vertex), y.get(vertex), z.get(vertex),
                     texture.getU(u.get(vertex)),
                     texture.getV(v.get(vertex))
                 );
             }
 
-            return builder.build();
+            BakedQuad quad = builder.build();
+            return transformer == null ? quad : transformer.processOneInPlace(quad);
         }
 
         private void putVertex(IVertexConsumer consumer, Direction side, boolean offset, float x, float y, float z, float u, float v)
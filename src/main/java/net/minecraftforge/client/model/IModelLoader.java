@@ -50,4 +50,13 @@ public interface IModelLoader<T extends IModelGeometry<T>> extends ISelectiveRes
     }
 
     T read(JsonDeserializationContext deserializationContext, JsonObject modelContents);
+
+    /**
+     * Whether geometries read by this loader can be baked on several threads at once, when parallel model baking is
+     * enabled in the client config. Geometries of loaders which are not thread safe are baked one at a time.
+     */
+    default boolean isThreadSafe()
+    {
+        return false;
+    }
 }
@@ -38,7 +38,6 @@ import net.minecraftforge.client.ForgeRenderTypes;
 import net.minecraftforge.client.model.geometry.IModelGeometry;
 import net.minecraftforge.client.model.pipeline.BakedQuadBuilder;
 import net.minecraftforge.client.model.pipeline.IVertexConsumer;
-import net.minecraftforge.client.model.pipeline.TRSRTransformer;
 
 import javax.annotation.Nullable;
 import java.util.*;
@@ -95,7 +94,7 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
     {
         ImmutableMap<ItemCameraTransforms.TransformType, TransformationMatrix> transformMap =
                 PerspectiveMapWrapper.getTransforms(new ModelTransformComposition(owner.getCombinedTransform(), modelTransform));
-        TransformationMatrix transform = modelTransform.getRotation();
+        QuadTransformer transformer = getTransformer(modelTransform.getRotation());
         TextureAtlasSprite particle = spriteGetter.apply(
                 owner.isTexturePresent("particle") ? owner.resolveTexture("particle") : textures.get(0)
         );
@@ -105,7 +104,7 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
         {
             TextureAtlasSprite tas = spriteGetter.apply(textures.get(i));
             RenderType rt = getLayerRenderType(fullbrightLayers.contains(i));
-            builder.addQuads(rt, getQuadsForSprite(i, tas, transform, true));
+            builder.addQuads(rt, getQuadsForSprite(i, tas, transformer, true));
         }
 
         return builder.build();
@@ -124,10 +123,11 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
     public static ImmutableList<BakedQuad> getQuadsForSprites(List<RenderMaterial> textures, TransformationMatrix transform, Function<RenderMaterial, TextureAtlasSprite> spriteGetter, Set<Integer> fullbrights)
     {
         ImmutableList.Builder<BakedQuad> builder = ImmutableList.builder();
+        QuadTransformer transformer = getTransformer(transform);
         for(int i = 0; i < textures.size(); i++)
         {
             TextureAtlasSprite tas = spriteGetter.apply(textures.get(i));
-            builder.addAll(getQuadsForSprite(i, tas, transform, fullbrights.contains(i)));
+            builder.addAll(getQuadsForSprite(i, tas, transformer, fullbrights.contains(i)));
         }
         return builder.build();
     }
@@ -138,6 +138,20 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
     }
 
     public static ImmutableList<BakedQuad> getQuadsForSprite(int tint, TextureAtlasSprite sprite, TransformationMatrix transform, boolean fullbright)
+    {
+        return getQuadsForSprite(tint, sprite, getTransformer(transform), fullbright);
+    }
+
+    /**
+     * @return A transformer to share between all quads built with the transform, or null if it does nothing
+     */
+    @Nullable
+    private static QuadTransformer getTransformer(TransformationMatrix transform)
+    {
+        return transform.isIdentity() ? null : new QuadTransformer(transform);
+    }
+
+    private static ImmutableList<BakedQuad> getQuadsForSprite(int tint, TextureAtlasSprite sprite, @Nullable QuadTransformer transformer, boolean fullbright)
     {
         ImmutableList.Builder<BakedQuad> builder = ImmutableList.builder();
 
@@ -228,7 +242,7 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
                         {
                             // make quad [uStart, u]
                             int off = facing == Direction.DOWN ? 1 : 0;
-                            builder.add(buildSideQuad(transform, facing, tint, sprite, uStart, v+off, u-uStart, fullbright));
+                            builder.add(buildSideQuad(transformer, facing, tint, sprite, uStart, v+off, u-uStart, fullbright));
                             building = false;
                         }
                         else if (!building && face) // start new quad
@@ -242,7 +256,7 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
                 {
                     // make quad [uStart, uEnd]
                     int off = facing == Direction.DOWN ? 1 : 0;
-                    builder.add(buildSideQuad(transform, facing, tint, sprite, uStart, v+off, uEnd-uStart, fullbright));
+                    builder.add(buildSideQuad(transformer, facing, tint, sprite, uStart, v+off, uEnd-uStart, fullbright));
                 }
             }
         }
@@ -275,7 +289,7 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
                         {
                             // make quad [vStart, v]
                             int off = facing == Direction.EAST ? 1 : 0;
-                            builder.add(buildSideQuad(transform, facing, tint, sprite, u+off, vStart, v-vStart, fullbright));
+                            builder.add(buildSideQuad(transformer, facing, tint, sprite, u+off, vStart, v-vStart, fullbright));
                             building = false;
                         }
                         else if (!building && face) // start new quad
@@ -289,20 +303,20 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
                 {
                     // make quad [vStart, vEnd]
                     int off = facing == Direction.EAST ? 1 : 0;
-                    builder.add(buildSideQuad(transform, facing, tint, sprite, u+off, vStart, vEnd-vStart, fullbright));
+                    builder.add(buildSideQuad(transformer, facing, tint, sprite, u+off, vStart, vEnd-vStart, fullbright));
                 }
             }
         }
 
         // front
-        builder.add(buildQuad(transform, Direction.NORTH, sprite, tint, fullbright,
+        builder.add(buildQuad(transformer, Direction.NORTH, sprite, tint, fullbright,
             0, 0, 7.5f / 16f, sprite.getU0(), sprite.getV1(),
             0, 1, 7.5f / 16f, sprite.getU0(), sprite.getV0(),
             1, 1, 7.5f / 16f, sprite.getU1(), sprite.getV0(),
             1, 0, 7.5f / 16f, sprite.getU1(), sprite.getV1()
         ));
         // back
-        builder.add(buildQuad(transform, Direction.SOUTH, sprite, tint, fullbright,
+        builder.add(buildQuad(transformer, Direction.SOUTH, sprite, tint, fullbright,
             0, 0, 8.5f / 16f, sprite.getU0(), sprite.getV1(),
             1, 0, 8.5f / 16f, sprite.getU1(), sprite.getV1(),
             1, 1, 8.5f / 16f, sprite.getU1(), sprite.getV0(),
@@ -351,7 +365,7 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
         }
     }
 
-    private static BakedQuad buildSideQuad(TransformationMatrix transform, Direction side, int tint, TextureAtlasSprite sprite, int u, int v, int size, boolean fullbright)
+    private static BakedQuad buildSideQuad(@Nullable QuadTransformer transformer, Direction side, int tint, TextureAtlasSprite sprite, int u, int v, int size, boolean fullbright)
     {
         final float eps = 1e-2f;
 
@@ -390,7 +404,7 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
         float v1 = 16f * (1f - y1 - dy);
 
         return buildQuad(
-            transform, remap(side), sprite, tint, fullbright,
+            transformer, remap(side), sprite, tint, fullbright,
             x0, y0, z0, sprite.getU(u0), sprite.getV(v0),
             x1, y1, z0, sprite.getU(u1), sprite.getV(v1),
             x1, y1, z1, sprite.getU(u1), sprite.getV(v1),
@@ -404,7 +418,7 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
         return side.getAxis() == Direction.Axis.Y ? side.getOpposite() : side;
     }
 
-    private static BakedQuad buildQuad(TransformationMatrix transform, Direction side, TextureAtlasSprite sprite, int tint, boolean fullbright,
+    private static BakedQuad buildQuad(@Nullable QuadTransformer transformer, Direction side, TextureAtlasSprite sprite, int tint, boolean fullbright,
         float x0, float y0, float z0, float u0, float v0,
         float x1, float y1, float z1, float u1, float v1,
         float x2, float y2, float z2, float u2, float v2,
@@ -416,18 +430,17 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
         builder.setQuadOrientation(side);
         builder.setApplyDiffuseLighting(false);
 
-        boolean hasTransform = !transform.isIdentity();
-        IVertexConsumer consumer = hasTransform ? new TRSRTransformer(builder, transform) : builder;
-
         int uLight, vLight;
         uLight = vLight = fullbright ? 15 : 0;
 
-        putVertex(consumer, side, x0, y0, z0, u0, v0, uLight, vLight);
-        putVertex(consumer, side, x1, y1, z1, u1, v1, uLight, vLight);
-        putVertex(consumer, side, x2, y2, z2, u2, v2, uLight, vLight);
-        putVertex(consumer, side, x3, y3, z3, u3, v3, uLight, vLight);
+        putVertex(builder, side, x0, y0, z0, u0, v0, uLight, vLight);
+        putVertex(builder, side, x1, y1, z1, u1, v1, uLight, vLight);
+        putVertex(builder, side, x2, y2, z2, u2, v2, uLight, vLight);
+        putVertex(builder, side, x3, y3, z3, u3, v3, uLight, vLight);
 
-        return builder.build();
+        // only apply the transform if it's not identity
+        BakedQuad quad = builder.build();
+        return transformer == null ? quad : transformer.processOneInPlace(quad);
     }
 
     private static void putVertex(IVertexConsumer consumer, Direction side, float x, float y, float z, float u, float v, int uLight, int vLight)
@@ -478,6 +491,12 @@ public final class ItemLayerModel implements IModelGeometry<ItemLayerModel>
             // nothing to do
         }
 
+        @Override
+        public boolean isThreadSafe()
+        {
+            return true;
+        }
+
         @Override
         public ItemLayerModel read(JsonDeserializationContext deserializationContext, JsonObject modelContents)
         {
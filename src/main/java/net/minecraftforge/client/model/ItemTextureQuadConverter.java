@@ -29,8 +29,8 @@ import net.minecraft.util.Direction;
 import net.minecraft.util.math.vector.TransformationMatrix;
 import net.minecraftforge.client.model.pipeline.BakedQuadBuilder;
 import net.minecraftforge.client.model.pipeline.IVertexConsumer;
-import net.minecraftforge.client.model.pipeline.TRSRTransformer;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 public final class ItemTextureQuadConverter
@@ -58,8 +58,9 @@ public final class ItemTextureQuadConverter
     }
     public static List<BakedQuad> convertTexture(TransformationMatrix transform, TextureAtlasSprite template, TextureAtlasSprite sprite, float z, Direction facing, int color, int tint, int luminosity)
     {
-        List<BakedQuad> horizontal = convertTextureHorizontal(transform, template, sprite, z, facing, color, tint, luminosity);
-        List<BakedQuad> vertical = convertTextureVertical(transform, template, sprite, z, facing, color, tint, luminosity);
+        QuadTransformer transformer = getTransformer(transform);
+        List<BakedQuad> horizontal = convertTextureHorizontal(transformer, template, sprite, z, facing, color, tint, luminosity);
+        List<BakedQuad> vertical = convertTextureVertical(transformer, template, sprite, z, facing, color, tint, luminosity);
 
         return horizontal.size() <= vertical.size() ? horizontal : vertical;
     }
@@ -73,6 +74,11 @@ public final class ItemTextureQuadConverter
         return convertTextureHorizontal(transform, template, sprite, z, facing, color, tint, 0);
     }
     public static List<BakedQuad> convertTextureHorizontal(TransformationMatrix transform, TextureAtlasSprite template, TextureAtlasSprite sprite, float z, Direction facing, int color, int tint, int luminosity)
+    {
+        return convertTextureHorizontal(getTransformer(transform), template, sprite, z, facing, color, tint, luminosity);
+    }
+
+    private static List<BakedQuad> convertTextureHorizontal(@Nullable QuadTransformer transformer, TextureAtlasSprite template, TextureAtlasSprite sprite, float z, Direction facing, int color, int tint, int luminosity)
     {
         int w = template.getWidth();
         int h = template.getHeight();
@@ -127,7 +133,7 @@ public final class ItemTextureQuadConverter
                 if (startX >= 0)
                 {
                     // create the quad
-                    quads.add(genQuad(transform,
+                    quads.add(genQuad(transformer,
                                       (float)startX * wScale,
                                       (float)startY * hScale,
                                       (float)x * wScale,
@@ -155,6 +161,11 @@ public final class ItemTextureQuadConverter
         return convertTextureVertical(transform, template, sprite, z, facing, color, tint, 0);
     }
     public static List<BakedQuad> convertTextureVertical(TransformationMatrix transform, TextureAtlasSprite template, TextureAtlasSprite sprite, float z, Direction facing, int color, int tint, int luminosity)
+    {
+        return convertTextureVertical(getTransformer(transform), template, sprite, z, facing, color, tint, luminosity);
+    }
+
+    private static List<BakedQuad> convertTextureVertical(@Nullable QuadTransformer transformer, TextureAtlasSprite template, TextureAtlasSprite sprite, float z, Direction facing, int color, int tint, int luminosity)
     {
         int w = template.getWidth();
         int h = template.getHeight();
@@ -209,7 +220,7 @@ public final class ItemTextureQuadConverter
                 if (startY >= 0)
                 {
                     // create the quad
-                    quads.add(genQuad(transform,
+                    quads.add(genQuad(transformer,
                                       (float)startX * wScale,
                                       (float)startY * hScale,
                                       (float)x * wScale,
@@ -242,6 +253,11 @@ public final class ItemTextureQuadConverter
         return genQuad(transform, x1, y1, x2, y2, z, sprite, facing, color, tint, 0);
     }
     public static BakedQuad genQuad(TransformationMatrix transform, float x1, float y1, float x2, float y2, float z, TextureAtlasSprite sprite, Direction facing, int color, int tint, int luminosity)
+    {
+        return genQuad(getTransformer(transform), x1, y1, x2, y2, z, sprite, facing, color, tint, luminosity);
+    }
+
+    private static BakedQuad genQuad(@Nullable QuadTransformer transformer, float x1, float y1, float x2, float y2, float z, TextureAtlasSprite sprite, Direction facing, int color, int tint, int luminosity)
     {
         float u1 = sprite.getU(x1);
         float v1 = sprite.getV(y1);
@@ -257,10 +273,10 @@ public final class ItemTextureQuadConverter
         y1 = 1f - y2;
         y2 = 1f - tmp;
 
-        return putQuad(transform, facing, sprite, color, tint, x1, y1, x2, y2, z, u1, v1, u2, v2, luminosity);
+        return putQuad(transformer, facing, sprite, color, tint, x1, y1, x2, y2, z, u1, v1, u2, v2, luminosity);
     }
 
-    private static BakedQuad putQuad(TransformationMatrix transform, Direction side, TextureAtlasSprite sprite, int color, int tint,
+    private static BakedQuad putQuad(@Nullable QuadTransformer transformer, Direction side, TextureAtlasSprite sprite, int color, int tint,
                                              float x1, float y1, float x2, float y2, float z,
                                              float u1, float v1, float u2, float v2, int luminosity)
     {
@@ -270,25 +286,33 @@ public final class ItemTextureQuadConverter
         builder.setQuadOrientation(side);
         builder.setApplyDiffuseLighting(luminosity == 0);
 
-        // only apply the transform if it's not identity
-        boolean hasTransform = !transform.isIdentity();
-        IVertexConsumer consumer = hasTransform ? new TRSRTransformer(builder, transform) : builder;
-
         if (side == Direction.SOUTH)
         {
-            putVertex(consumer, side, x1, y1, z, u1, v2, color, luminosity);
-            putVertex(consumer, side, x2, y1, z, u2, v2, color, luminosity);
-            putVertex(consumer, side, x2, y2, z, u2, v1, color, luminosity);
-            putVertex(consumer, side, x1, y2, z, u1, v1, color, luminosity);
+            putVertex(builder, side, x1, y1, z, u1, v2, color, luminosity);
+            putVertex(builder, side, x2, y1, z, u2, v2, color, luminosity);
+            putVertex(builder, side, x2, y2, z, u2, v1, color, luminosity);
+            putVertex(builder, side, x1, y2, z, u1, v1, color, luminosity);
         }
         else
         {
-            putVertex(consumer, side, x1, y1, z, u1, v2, color, luminosity);
-            putVertex(consumer, side, x1, y2, z, u1, v1, color, luminosity);
-            putVertex(consumer, side, x2, y2, z, u2, v1, color, luminosity);
-            putVertex(consumer, side, x2, y1, z, u2, v2, color, luminosity);
+            putVertex(builder, side, x1, y1, z, u1, v2, color, luminosity);
+            putVertex(builder, side, x1, y2, z, u1, v1, color, luminosity);
+            putVertex(builder, side, x2, y2, z, u2, v1, color, luminosity);
+            putVertex(builder, side, x2, y1, z, u2, v2, color, luminosity);
         }
-        return builder.build();
+
+        // only apply the transform if it's not identity
+        BakedQuad quad = builder.build();
+        return transformer == null ? quad : transformer.processOneInPlace(quad);
+    }
+
+    /**
+     * @return A transformer to share between all quads built with the transform, or null if it does nothing
+     */
+    @Nullable
+    private static QuadTransformer getTransformer(TransformationMatrix transform)
+    {
+        return transform.isIdentity() ? null : new QuadTransformer(transform);
     }
 
     private static void putVertex(IVertexConsumer consumer, Direction side,
@@ -0,0 +1,200 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.common.collect.MapMaker;
+import net.minecraft.client.renderer.model.BlockModel;
+import net.minecraft.client.renderer.model.IBakedModel;
+import net.minecraft.client.renderer.model.IUnbakedModel;
+import net.minecraft.client.renderer.model.ModelBakery;
+import net.minecraft.client.renderer.model.VariantList;
+import net.minecraft.client.renderer.model.multipart.Multipart;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.Util;
+import net.minecraftforge.client.model.geometry.IModelGeometry;
+import net.minecraftforge.common.ForgeConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+
+import static net.minecraftforge.fml.Logging.MODELLOADING;
+
+/**
+ * Bakes the top level models of a {@link ModelLoader}, in parallel when enabled in the client config, and times the
+ * geometries of every {@link IModelLoader}.
+ * <p>
+ * Results are handed back in the order the models were given in, so the baked model registry is the same as when
+ * baking on one thread. Geometries of loaders which are not {@link IModelLoader#isThreadSafe() thread safe}, and
+ * unbaked models of any type other than vanilla's, all share one lock, so only one of them is baked at a time even
+ * when they nest each other.
+ */
+public final class ModelBakeScheduler
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int BATCH_SIZE = 64;
+    private static final String VANILLA = "vanilla";
+
+    private static final Object SERIAL_LOCK = new Object();
+    private static final Map<IModelGeometry<?>, ResourceLocation> geometryLoaders = new MapMaker().weakKeys().concurrencyLevel(4).makeMap();
+    private static final Map<String, Timing> timings = new ConcurrentHashMap<>();
+
+    private ModelBakeScheduler() {}
+
+    /**
+     * Internal, remembers which loader read a geometry.
+     */
+    static void onGeometryRead(IModelGeometry<?> geometry, ResourceLocation loaderId)
+    {
+        geometryLoaders.put(geometry, loaderId);
+    }
+
+    /**
+     * Internal, the id of the loader which read a geometry, or null if it was not read through {@link ModelLoaderRegistry}.
+     */
+    @Nullable
+    static ResourceLocation getLoaderId(IModelGeometry<?> geometry)
+    {
+        return geometryLoaders.get(geometry);
+    }
+
+    /**
+     * Internal, bakes a geometry or a vanilla model if {@code geometry} is null, holding the shared lock if its loader
+     * is not thread safe.
+     */
+    static <T> T bake(@Nullable IModelGeometry<?> geometry, Supplier<T> baker)
+    {
+        ResourceLocation loaderId = geometry == null ? null : geometryLoaders.get(geometry);
+        IModelLoader<?> loader = loaderId == null ? null : ModelLoaderRegistry.getLoader(loaderId);
+        long start = System.nanoTime();
+        try
+        {
+            if (geometry != null && (loader == null || !loader.isThreadSafe()))
+            {
+                synchronized (SERIAL_LOCK)
+                {
+                    return baker.get();
+                }
+            }
+            return baker.get();
+        }
+        finally
+        {
+            timings.computeIfAbsent(loaderId == null ? (geometry == null ? VANILLA : geometry.getClass().getName()) : loaderId.toString(), k -> new Timing())
+                .add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Internal, called from {@link ModelBakery} to bake an unbaked model. Vanilla's model types bake without the lock,
+     * as block models go through {@link #bake(IModelGeometry, Supplier)} for their geometry and variant lists and
+     * multiparts only bake other models. Models read back from the {@link BakedModelCache} are vanilla models too.
+     * Any other type holds the shared lock.
+     */
+    public static IBakedModel bakeUnbaked(IUnbakedModel model, Supplier<IBakedModel> baker)
+    {
+        Class<?> type = model.getClass();
+        if (type == BlockModel.class || type == VariantList.class || type == Multipart.class || type == BakedModelCache.CachedModel.class)
+            return baker.get();
+
+        long start = System.nanoTime();
+        try
+        {
+            synchronized (SERIAL_LOCK)
+            {
+                return baker.get();
+            }
+        }
+        finally
+        {
+            timings.computeIfAbsent(type.getName(), k -> new Timing()).add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Internal, called from {@link ModelBakery} to bake all top level models.
+     * @param results receives the models which did not bake to null, in the order of {@code locations}
+     */
+    public static void bakeTopLevelModels(ModelBakery bakery, Collection<ResourceLocation> locations, BiConsumer<ResourceLocation, IBakedModel> results, Function<ResourceLocation, IBakedModel> baker)
+    {
+        timings.clear();
+        final long start = System.nanoTime();
+        final List<ResourceLocation> order = new ArrayList<>(locations);
+        final IBakedModel[] baked = new IBakedModel[order.size()];
+        final boolean parallel = bakery instanceof ModelLoader && ForgeConfig.CLIENT.parallelModelBaking.get();
+
+        if (parallel)
+        {
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int from = 0; from < baked.length; from += BATCH_SIZE)
+            {
+                final int batchStart = from;
+                final int batchEnd = Math.min(from + BATCH_SIZE, baked.length);
+                batches.add(CompletableFuture.runAsync(() -> {
+                    for (int i = batchStart; i < batchEnd; i++)
+                        baked[i] = baker.apply(order.get(i));
+                }, Util.backgroundExecutor()));
+            }
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+        }
+        else
+        {
+            for (int i = 0; i < baked.length; i++)
+                baked[i] = baker.apply(order.get(i));
+        }
+
+        for (int i = 0; i < baked.length; i++)
+        {
+            if (baked[i] != null)
+                results.accept(order.get(i), baked[i]);
+        }
+        BakedModelCache.onBakingDone(bakery, order, baked);
+
+        LOGGER.debug(MODELLOADING, "Baked {} models {} in {} ms", baked.length, parallel ? "in parallel" : "on one thread", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        // Times of geometries which bake others, such as composite models, include the nested ones
+        timings.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue().nanos.sum(), a.getValue().nanos.sum()))
+            .forEach(e -> LOGGER.debug(MODELLOADING, "  {}: {} bakes, {} ms", e.getKey(), e.getValue().count.sum(), TimeUnit.NANOSECONDS.toMillis(e.getValue().nanos.sum())));
+    }
+
+    private static class Timing
+    {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void add(long time)
+        {
+            count.increment();
+            nanos.add(time);
+        }
+    }
+}
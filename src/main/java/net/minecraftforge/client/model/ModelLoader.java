@@ -102,6 +102,15 @@ public final class ModelLoader extends ModelBakery
         return new ModelResourceLocation(s, "inventory");
     }
 
+    /**
+     * Synchronized as models may be resolved from several threads while baking, see {@link ModelBakeScheduler}.
+     */
+    @Override
+    public synchronized IUnbakedModel getModel(ResourceLocation location)
+    {
+        return super.getModel(location);
+    }
+
     protected ResourceLocation getModelLocation(ResourceLocation model)
     {
         return new ResourceLocation(model.getNamespace(), model.getPath() + ".json");
@@ -118,7 +118,10 @@ public class ModelLoaderRegistry
 
             IModelLoader<?> loader = loaders.get(loaderId);
 
-            return loader.read(deserializationContext, data);
+            IModelGeometry<?> geometry = loader.read(deserializationContext, data);
+            if (geometry != null)
+                ModelBakeScheduler.onGeometryRead(geometry, loaderId);
+            return geometry;
         }
         catch(Exception e)
         {
@@ -127,6 +130,12 @@ public class ModelLoaderRegistry
         }
     }
 
+    @Nullable
+    static IModelLoader<?> getLoader(ResourceLocation loaderId)
+    {
+        return loaders.get(loaderId);
+    }
+
     @Nullable
     public static IModelGeometry<?> deserializeGeometry(JsonDeserializationContext deserializationContext, JsonObject object) {
         if (!object.has("loader")) {
@@ -266,17 +275,18 @@ public class ModelLoaderRegistry
         if (customModelState != null)
             modelTransform = new ModelTransformComposition(modelTransform, customModelState, modelTransform.isUvLocked());
 
+        final IModelTransform transform = modelTransform;
         if (customModel != null)
-            model = customModel.bake(blockModel.customData, modelBakery, spriteGetter, modelTransform, blockModel.getOverrides(modelBakery, otherModel, spriteGetter), modelLocation);
+            model = ModelBakeScheduler.bake(customModel, () -> customModel.bake(blockModel.customData, modelBakery, spriteGetter, transform, blockModel.getOverrides(modelBakery, otherModel, spriteGetter), modelLocation));
         else
         {
             // handle vanilla item models here, since vanilla has a shortcut for them
             if (blockModel.getRootModel() == ModelBakery.GENERATION_MARKER) {
-                model = ITEM_MODEL_GENERATOR.generateBlockModel(spriteGetter, blockModel).bake(modelBakery, blockModel, spriteGetter, modelTransform, modelLocation, guiLight3d);
+                model = ModelBakeScheduler.bake(null, () -> ITEM_MODEL_GENERATOR.generateBlockModel(spriteGetter, blockModel).bake(modelBakery, blockModel, spriteGetter, transform, modelLocation, guiLight3d));
             }
             else
             {
-                model = blockModel.bakeVanilla(modelBakery, otherModel, spriteGetter, modelTransform, modelLocation, guiLight3d);
+                model = ModelBakeScheduler.bake(null, () -> blockModel.bakeVanilla(modelBakery, otherModel, spriteGetter, transform, modelLocation, guiLight3d));
             }
         }
 
@@ -346,6 +356,12 @@ public class ModelLoaderRegistry
 
             }
 
+            @Override
+            public boolean isThreadSafe()
+            {
+                return true;
+            }
+
             @Override
             public VanillaProxy read(JsonDeserializationContext deserializationContext, JsonObject modelContents)
             {
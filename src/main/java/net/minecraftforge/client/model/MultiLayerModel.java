@@ -256,6 +256,12 @@ public final class MultiLayerModel implements IModelGeometry<MultiLayerModel>
 
         }
 
+        @Override
+        public boolean isThreadSafe()
+        {
+            return true;
+        }
+
         @Override
         public MultiLayerModel read(JsonDeserializationContext deserializationContext, JsonObject modelContents)
         {
@@ -19,150 +19,34 @@
 
 package net.minecraftforge.client.model;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import com.google.common.collect.Lists;
 
 import net.minecraft.util.math.vector.TransformationMatrix;
-import net.minecraft.util.math.vector.Vector3f;
-import net.minecraft.util.math.vector.Vector4f;
 import net.minecraft.client.renderer.model.BakedQuad;
-import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
-import net.minecraft.client.renderer.vertex.VertexFormat;
-import net.minecraft.client.renderer.vertex.VertexFormatElement;
+import net.minecraftforge.client.model.pipeline.IQuadTransformer;
+import net.minecraftforge.client.model.pipeline.QuadTransformers;
+import net.minecraftforge.client.model.pipeline.UnpackedQuad;
 
+/**
+ * Applies an {@link IQuadTransformer} to baked quads. Each quad is unpacked once into a per-thread
+ * {@link UnpackedQuad}, transformed and packed again, so processing does not allocate beyond the output quads.
+ */
 public class QuadTransformer
 {
-    private static final int POSITION = findPositionOffset(DefaultVertexFormats.BLOCK);
-    private static final int NORMAL = findNormalOffset(DefaultVertexFormats.BLOCK);
-    private final TransformationMatrix transform;
+    private static final ThreadLocal<UnpackedQuad> UNPACKED = ThreadLocal.withInitial(UnpackedQuad::new);
+    private final IQuadTransformer transformer;
 
     public QuadTransformer(TransformationMatrix transform)
     {
-        this.transform = transform;
+        this(QuadTransformers.applying(transform));
     }
 
-    private void processVertices(int[] inData, int[] outData)
+    public QuadTransformer(IQuadTransformer transformer)
     {
-        int stride = DefaultVertexFormats.BLOCK.getVertexSize();
-        int count = (inData.length * 4) / stride;
-        for (int i=0;i<count;i++)
-        {
-            int offset = POSITION + i * stride;
-            float x = Float.intBitsToFloat(getAtByteOffset(inData, offset ));
-            float y = Float.intBitsToFloat(getAtByteOffset(inData, offset + 4));
-            float z = Float.intBitsToFloat(getAtByteOffset(inData, offset + 8));
-
-            Vector4f pos = new Vector4f(x, y, z, 1);
-            transform.transformPosition(pos);
-            pos.perspectiveDivide();
-
-            putAtByteOffset(outData, offset, Float.floatToRawIntBits(pos.x()));
-            putAtByteOffset(outData,offset + 4, Float.floatToRawIntBits(pos.y()));
-            putAtByteOffset(outData,offset + 8, Float.floatToRawIntBits(pos.z()));
-        }
-
-        for (int i=0;i<count;i++)
-        {
-            int offset = NORMAL + i * stride;
-            int normalIn = getAtByteOffset(inData,offset);
-            if (normalIn != 0)
-            {
-
-                float x = ((byte)((normalIn) >> 24)) / 127.0f;
-                float y = ((byte)((normalIn << 8) >> 24)) / 127.0f;
-                float z = ((byte)((normalIn << 16) >> 24)) / 127.0f;
-
-                Vector3f pos = new Vector3f(x, y, z);
-                transform.transformNormal(pos);
-                pos.normalize();
-
-                int normalOut = ((((byte)(x / 127.0f)) & 0xFF) << 24) |
-                                ((((byte)(y / 127.0f)) & 0xFF) << 16) |
-                                ((((byte)(z / 127.0f)) & 0xFF) << 8) |
-                                (normalIn & 0xFF);
-
-                putAtByteOffset(outData, offset, normalOut);
-            }
-        }
-    }
-
-    private static int getAtByteOffset(int[] inData, int offset)
-    {
-        int index = offset / 4;
-        int lsb = inData[index];
-
-        int shift = (offset % 4) * 8;
-        if (shift == 0)
-            return inData[index];
-
-        int msb = inData[index+1];
-
-        return (lsb >>> shift) | (msb << (32-shift));
-    }
-
-    private static void putAtByteOffset(int[] outData, int offset, int value)
-    {
-        int index = offset / 4;
-        int shift = (offset % 4) * 8;
-
-        if (shift == 0)
-        {
-            outData[index] = value;
-            return;
-        }
-
-        int lsbMask = 0xFFFFFFFF >>> (32-shift);
-        int msbMask = 0xFFFFFFFF << shift;
-
-        outData[index] = (outData[index] & lsbMask) | (value << shift);
-        outData[index+1] = (outData[index+1] & msbMask) | (value >>> (32-shift));
-    }
-
-    private static int findPositionOffset(VertexFormat fmt)
-    {
-        int index;
-        VertexFormatElement element = null;
-        for (index = 0; index < fmt.getElements().size(); index++)
-        {
-            VertexFormatElement el = fmt.getElements().get(index);
-            if (el.getUsage() == VertexFormatElement.Usage.POSITION)
-            {
-                element = el;
-                break;
-            }
-        }
-        if (index == fmt.getElements().size() || element == null)
-            throw new RuntimeException("Expected vertex format to have a POSITION attribute");
-        if (element.getType() != VertexFormatElement.Type.FLOAT)
-            throw new RuntimeException("Expected POSITION attribute to have data type FLOAT");
-        if (element.getByteSize() < 3)
-            throw new RuntimeException("Expected POSITION attribute to have at least 3 dimensions");
-        return fmt.getOffset(index);
-    }
-
-    private static int findNormalOffset(VertexFormat fmt)
-    {
-        int index;
-        VertexFormatElement element = null;
-        for (index = 0; index < fmt.getElements().size(); index++)
-        {
-            VertexFormatElement el = fmt.getElements().get(index);
-            if (el.getUsage() == VertexFormatElement.Usage.NORMAL)
-            {
-                element = el;
-                break;
-            }
-        }
-        if (index == fmt.getElements().size() || element == null)
-            throw new IllegalStateException("BLOCK format does not have normals?");
-        if (element.getType() != VertexFormatElement.Type.BYTE)
-            throw new RuntimeException("Expected NORMAL attribute to have data type BYTE");
-        if (element.getByteSize() < 3)
-            throw new RuntimeException("Expected NORMAL attribute to have at least 3 dimensions");
-        return fmt.getOffset(index);
+        this.transformer = transformer;
     }
 
     /**
@@ -172,11 +56,9 @@ public class QuadTransformer
      */
     public BakedQuad processOne(BakedQuad input)
     {
-        int[] inData = input.getVertices();
-        int[] outData = Arrays.copyOf(inData, inData.length);
-        processVertices(inData, outData);
-
-        return new BakedQuad(outData, input.getTintIndex(), input.getDirection(), input.getSprite(), input.isShade());
+        UnpackedQuad quad = UNPACKED.get().load(input);
+        transformer.transform(quad);
+        return quad.toBakedQuad();
     }
 
     /**
@@ -187,7 +69,9 @@ public class QuadTransformer
     public BakedQuad processOneInPlace(BakedQuad input)
     {
         int[] data = input.getVertices();
-        processVertices(data, data);
+        UnpackedQuad quad = UNPACKED.get().load(data);
+        transformer.transform(quad);
+        quad.store(data);
         return input;
     }
 
@@ -203,13 +87,7 @@ public class QuadTransformer
 
         List<BakedQuad> outputs = Lists.newArrayList();
         for(BakedQuad input : inputs)
-        {
-            int[] inData = input.getVertices();
-            int[] outData = Arrays.copyOf(inData, inData.length);
-            processVertices(inData, outData);
-
-            outputs.add(new BakedQuad(outData, input.getTintIndex(), input.getDirection(), input.getSprite(), input.isShade()));
-        }
+            outputs.add(processOne(input));
         return outputs;
     }
 
@@ -223,9 +101,6 @@ public class QuadTransformer
             return;
 
         for(BakedQuad input : inputs)
-        {
-            int[] data = input.getVertices();
-            processVertices(data, data);
-        }
+            processOneInPlace(input);
     }
 }
@@ -183,6 +183,12 @@ public class SeparatePerspectiveModel implements IModelGeometry<SeparatePerspect
             // Not used
         }
 
+        @Override
+        public boolean isThreadSafe()
+        {
+            return true;
+        }
+
         @Override
         public SeparatePerspectiveModel read(JsonDeserializationContext deserializationContext, JsonObject modelContents)
         {
@@ -19,79 +19,382 @@
 
 package net.minecraftforge.client.model.obj;
 
-import com.google.common.base.Charsets;
-import joptsimple.internal.Strings;
 import net.minecraft.resources.IResource;
+import org.apache.commons.io.IOUtils;
 
 import javax.annotation.Nullable;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.List;
 
+/**
+ * Tokenizer for OBJ and MTL files which works directly on the bytes of the resource.
+ * <p>
+ * {@link #nextLine()} moves to the next line with content, joining lines ending in {@code \} and skipping comments,
+ * and records where its tokens start and end. Tokens can then be compared, parsed as numbers or turned into strings,
+ * so vertex and face data is read without creating a string per token.
+ */
 public class LineReader implements AutoCloseable
 {
-    InputStreamReader lineStream;
-    BufferedReader lineReader;
+    // Keywords of the OBJ and MTL formats, returned by keyword() without creating a new string
+    private static final String[] KEYWORDS = {
+        "v", "vt", "vn", "vc", "f", "s", "g", "o", "mtllib", "usemtl",
+        "newmtl", "Ka", "Kd", "Ks", "Ns", "d", "Tr", "map_Ka", "map_Kd", "map_Ks", "forge_TintIndex"
+    };
+    // Mantissas up to 15 digits and powers of ten up to 22 are exact doubles, so one multiplication or division rounds correctly
+    private static final int MAX_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    @Nullable
+    private InputStream input;
+    private byte[] data;
+    private int position;
+    private int[] tokenStart = new int[16];
+    private int[] tokenEnd = new int[16];
+    private int tokenCount;
 
     public LineReader(IResource resource)
     {
-        this.lineStream = new InputStreamReader(resource.getInputStream(), Charsets.UTF_8);
-        this.lineReader = new BufferedReader(lineStream);
+        this.input = resource.getInputStream();
     }
 
+    public LineReader(byte[] data)
+    {
+        this.data = data;
+    }
+
+    /**
+     * Moves to the next line containing tokens.
+     *
+     * @return false once the end of the file is reached
+     */
+    public boolean nextLine() throws IOException
+    {
+        return advance(true);
+    }
+
+    /**
+     * Reads the next line and splits it into strings.
+     * Prefer {@link #nextLine()} and the token accessors, which do not allocate for each token.
+     *
+     * @return the tokens of the line, an empty array for empty lines when they are not ignored, or null at the end of the file
+     */
     @Nullable
     public String[] readAndSplitLine(boolean ignoreEmptyLines) throws IOException
     {
-        //noinspection LoopConditionNotUpdatedInsideLoop
-        do
-        {
-            String currentLine = lineReader.readLine();
-            if (currentLine == null)
-                return null;
+        if (!advance(ignoreEmptyLines))
+            return null;
 
-            List<String> lineParts = new ArrayList<>();
+        String[] parts = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++)
+            parts[i] = token(i);
+        return parts;
+    }
+
+    private boolean advance(boolean skipEmptyLines) throws IOException
+    {
+        if (data == null)
+        {
+            data = IOUtils.toByteArray(input);
+            input.close();
+            input = null;
+        }
 
-            if (currentLine.startsWith("#"))
-                currentLine = "";
+        tokenCount = 0;
+        while (position < data.length)
+        {
+            int lineStart = position;
+            int lineEnd = findLineEnd(lineStart);
+            position = skipLineTerminator(lineEnd);
 
-            if (currentLine.length() > 0)
+            if (lineStart < lineEnd && data[lineStart] != '#')
             {
-
                 boolean hasContinuation;
                 do
                 {
-                    hasContinuation = currentLine.endsWith("\\");
-                    String tmp = hasContinuation ? currentLine.substring(0, currentLine.length() - 1) : currentLine;
-
-                    Arrays.stream(tmp.split("[\t ]+")).filter(s -> !Strings.isNullOrEmpty(s)).forEach(lineParts::add);
+                    hasContinuation = data[lineEnd - 1] == '\\';
+                    split(lineStart, hasContinuation ? lineEnd - 1 : lineEnd);
 
                     if (hasContinuation)
                     {
-                        currentLine = lineReader.readLine();
-                        if (currentLine == null)
+                        if (position >= data.length)
                             break;
 
-                        if (currentLine.length() == 0 || currentLine.startsWith("#"))
+                        lineStart = position;
+                        lineEnd = findLineEnd(lineStart);
+                        position = skipLineTerminator(lineEnd);
+                        if (lineStart == lineEnd || data[lineStart] == '#')
                             break;
                     }
                 } while (hasContinuation);
             }
 
-            if (lineParts.size() > 0)
-                return lineParts.toArray(new String[0]);
+            if (tokenCount > 0 || !skipEmptyLines)
+                return true;
         }
-        while (ignoreEmptyLines);
+        return false;
+    }
 
-        return new String[0];
+    private int findLineEnd(int from)
+    {
+        while (from < data.length && data[from] != '\n' && data[from] != '\r')
+            from++;
+        return from;
+    }
+
+    private int skipLineTerminator(int lineEnd)
+    {
+        if (lineEnd < data.length && data[lineEnd] == '\r')
+            lineEnd++;
+        if (lineEnd < data.length && data[lineEnd] == '\n')
+            lineEnd++;
+        return lineEnd;
+    }
+
+    private void split(int from, int to)
+    {
+        int i = from;
+        while (i < to)
+        {
+            while (i < to && (data[i] == ' ' || data[i] == '\t'))
+                i++;
+            if (i == to)
+                break;
+
+            int start = i;
+            while (i < to && data[i] != ' ' && data[i] != '\t')
+                i++;
+
+            if (tokenCount == tokenStart.length)
+            {
+                tokenStart = Arrays.copyOf(tokenStart, tokenCount * 2);
+                tokenEnd = Arrays.copyOf(tokenEnd, tokenCount * 2);
+            }
+            tokenStart[tokenCount] = start;
+            tokenEnd[tokenCount] = i;
+            tokenCount++;
+        }
+    }
+
+    public int tokenCount()
+    {
+        return tokenCount;
+    }
+
+    private void checkToken(int index)
+    {
+        if (index < 0 || index >= tokenCount)
+            throw new IndexOutOfBoundsException("Token " + index + " out of bounds for line with " + tokenCount + " tokens");
+    }
+
+    public String token(int index)
+    {
+        checkToken(index);
+        return new String(data, tokenStart[index], tokenEnd[index] - tokenStart[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the first token of the line, without creating a new string for the keywords of the OBJ and MTL formats
+     */
+    public String keyword()
+    {
+        for (String keyword : KEYWORDS)
+        {
+            if (matches(0, keyword))
+                return keyword;
+        }
+        return token(0);
+    }
+
+    /**
+     * @return whether the token is equal to the given ASCII string
+     */
+    public boolean matches(int index, String value)
+    {
+        checkToken(index);
+        int start = tokenStart[index];
+        if (tokenEnd[index] - start != value.length())
+            return false;
+        for (int i = 0; i < value.length(); i++)
+        {
+            if (data[start + i] != value.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the tokens from the given index to the end of the line, separated by single spaces
+     */
+    public String joinTokens(int from)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = from; i < tokenCount; i++)
+        {
+            if (i > from)
+                builder.append(' ');
+            builder.append(token(i));
+        }
+        return builder.toString();
+    }
+
+    public int parseInt(int index)
+    {
+        checkToken(index);
+        return parseInt(tokenStart[index], tokenEnd[index]);
+    }
+
+    public float parseFloat(int index)
+    {
+        checkToken(index);
+        return parseFloat(tokenStart[index], tokenEnd[index]);
+    }
+
+    /**
+     * Parses a face vertex such as {@code 1/2/3} or {@code 1//3}. Empty indices are read as 0 and trailing empty
+     * indices are dropped, matching {@code Integer.parseInt} over {@code String.split("/")}.
+     *
+     * @return the number of indices written to {@code indices}
+     */
+    public int parseIndices(int index, int[] indices)
+    {
+        checkToken(index);
+        int end = tokenEnd[index];
+        int count = 0;
+        int written = 0;
+        int start = tokenStart[index];
+        while (true)
+        {
+            int separator = start;
+            while (separator < end && data[separator] != '/')
+                separator++;
+
+            if (count < indices.length)
+                indices[count] = separator == start ? 0 : parseInt(start, separator);
+            count++;
+            if (separator != start)
+                written = count;
+
+            if (separator == end)
+                break;
+            start = separator + 1;
+        }
+        return Math.min(Math.max(written, 1), indices.length);
+    }
+
+    private int parseInt(int start, int end)
+    {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (data[i] == '-' || data[i] == '+'))
+        {
+            negative = data[i] == '-';
+            i++;
+        }
+        // Leave overflow and malformed numbers to Integer.parseInt
+        if (i == end || end - i > 9)
+            return Integer.parseInt(new String(data, start, end - start, StandardCharsets.UTF_8));
+
+        int value = 0;
+        for (; i < end; i++)
+        {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9)
+                return Integer.parseInt(new String(data, start, end - start, StandardCharsets.UTF_8));
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private float parseFloat(int start, int end)
+    {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (data[i] == '-' || data[i] == '+'))
+        {
+            negative = data[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        boolean fraction = false;
+        for (; i < end; i++)
+        {
+            byte c = data[i];
+            if (c == '.' && !fraction)
+            {
+                fraction = true;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9)
+                break;
+            hasDigits = true;
+            mantissa = mantissa * 10 + digit;
+            if (mantissa != 0 && ++digits > MAX_DIGITS)
+                return parseFloatSlow(start, end);
+            if (fraction)
+                exponent--;
+        }
+
+        if (i < end && (data[i] == 'e' || data[i] == 'E'))
+        {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (data[i] == '-' || data[i] == '+'))
+            {
+                negativeExponent = data[i] == '-';
+                i++;
+            }
+            if (i == end || end - i > 3)
+                return parseFloatSlow(start, end);
+            int value = 0;
+            for (; i < end; i++)
+            {
+                int digit = data[i] - '0';
+                if (digit < 0 || digit > 9)
+                    return parseFloatSlow(start, end);
+                value = value * 10 + digit;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        // Anything else, such as NaN, Infinity or hexadecimal, is left to Float.parseFloat
+        if (!hasDigits || i != end)
+            return parseFloatSlow(start, end);
+        if (mantissa == 0)
+            return negative ? -0.0f : 0.0f;
+        if (exponent < -22 || exponent > 22)
+            return parseFloatSlow(start, end);
+
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        // Rounding the double to a float only differs from rounding the decimal directly if the double sits exactly
+        // halfway between two floats, and subnormal floats have fewer bits than this accounts for
+        if (value < Float.MIN_NORMAL || (Double.doubleToRawLongBits(value) & 0x1FFFFFFFL) == 0x10000000L)
+            return parseFloatSlow(start, end);
+        float result = (float) value;
+        return negative ? -result : result;
+    }
+
+    private float parseFloatSlow(int start, int end)
+    {
+        return Float.parseFloat(new String(data, start, end - start, StandardCharsets.UTF_8));
     }
 
     @Override
     public void close() throws Exception
     {
-        lineReader.close();
-        lineStream.close();
+        if (input != null)
+        {
+            input.close();
+            input = null;
+        }
     }
 }
@@ -20,11 +20,9 @@
 package net.minecraftforge.client.model.obj;
 
 import com.google.common.collect.Maps;
-import joptsimple.internal.Strings;
 import net.minecraft.util.math.vector.Vector4f;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -41,61 +39,60 @@ public class MaterialLibrary
     {
         Material currentMaterial = null;
 
-        String[] line;
-        while((line = reader.readAndSplitLine(true)) != null)
+        while(reader.nextLine())
         {
-            switch(line[0])
+            switch(reader.keyword())
             {
                 case "newmtl":
                 {
-                    String name = Strings.join(Arrays.copyOfRange(line, 1, line.length), " ");
+                    String name = reader.joinTokens(1);
                     currentMaterial = new Material(name);
                     materials.put(name, currentMaterial);
                     break;
                 }
 
                 case "Ka":
-                    currentMaterial.ambientColor = OBJModel.parseVector4(line);
+                    currentMaterial.ambientColor = OBJModel.parseVector4(reader);
                     break;
 
                 case "map_Ka":
                     // Ignores all options params
-                    currentMaterial.ambientColorMap = line[line.length-1];
+                    currentMaterial.ambientColorMap = reader.token(reader.tokenCount()-1);
                     break;
 
                 case "Kd":
-                    currentMaterial.diffuseColor = OBJModel.parseVector4(line);
+                    currentMaterial.diffuseColor = OBJModel.parseVector4(reader);
                     break;
 
                 case "forge_TintIndex":
-                    currentMaterial.diffuseTintIndex = Integer.parseInt(line[1]);
+                    currentMaterial.diffuseTintIndex = reader.parseInt(1);
                     break;
 
                 case "map_Kd":
                     // Ignores all options params
-                    currentMaterial.diffuseColorMap = line[line.length-1];
+                    currentMaterial.diffuseColorMap = reader.token(reader.tokenCount()-1);
                     break;
 
                 case "Ks":
-                    currentMaterial.specularColor = OBJModel.parseVector4(line);
+                    currentMaterial.specularColor = OBJModel.parseVector4(reader);
                     break;
 
                 case "Ns":
-                    currentMaterial.specularHighlight = Float.parseFloat(line[1]);
+                    currentMaterial.specularHighlight = reader.parseFloat(1);
                     break;
 
                 case "map_Ks":
                     // Ignores all options params
-                    currentMaterial.specularColorMap = line[line.length-1];
+                    currentMaterial.specularColorMap = reader.token(reader.tokenCount()-1);
                     break;
 
                 case "d":
                     // Ignores all options params
-                    currentMaterial.dissolve = Float.parseFloat(line[1]);
+                    currentMaterial.dissolve = reader.parseFloat(1);
                     break;
                 case "Tr":
                     // Ignores all options params
-                    currentMaterial.transparency = Float.parseFloat(line[1]);
+                    currentMaterial.transparency = reader.parseFloat(1);
                     break;
             }
         }
@@ -51,6 +51,12 @@ public class OBJLoader implements IModelLoader<OBJModel>
         manager = resourceManager;
     }
 
+    @Override
+    public boolean isThreadSafe()
+    {
+        return true;
+    }
+
     @Override
     public OBJModel read(JsonDeserializationContext deserializationContext, JsonObject modelContents)
     {
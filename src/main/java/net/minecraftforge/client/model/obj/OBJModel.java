@@ -23,7 +23,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import joptsimple.internal.Strings;
 import net.minecraft.client.renderer.model.*;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.vertex.VertexFormatElement;
@@ -64,6 +63,7 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
     private final List<Vector2f> texCoords = Lists.newArrayList();
     private final List<Vector3f> normals = Lists.newArrayList();
     private final List<Vector4f> colors = Lists.newArrayList();
+    private final Set<ResourceLocation> materialLibraries = Sets.newLinkedHashSet();
 
     public final boolean detectCullableFaces;
     public final boolean diffuseLighting;
@@ -104,35 +104,25 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
         boolean objAboveGroup = false;
 
         if (materialLibraryOverrideLocation != null)
-        {
-            String lib = materialLibraryOverrideLocation;
-            if (lib.contains(":"))
-                mtllib = OBJLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(lib));
-            else
-                mtllib = OBJLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(modelDomain, modelPath + lib));
-        }
+            mtllib = loadMaterialLibrary(materialLibraryOverrideLocation, modelDomain, modelPath);
 
-        String[] line;
-        while((line = reader.readAndSplitLine(true)) != null)
+        int[] indices = new int[4];
+        while(reader.nextLine())
         {
-            switch(line[0])
+            switch(reader.keyword())
             {
                 case "mtllib": // Loads material library
                 {
                     if (materialLibraryOverrideLocation != null)
                         break;
 
-                    String lib = line[1];
-                    if (lib.contains(":"))
-                        mtllib = OBJLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(lib));
-                    else
-                        mtllib = OBJLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(modelDomain, modelPath + lib));
+                    mtllib = loadMaterialLibrary(reader.token(1), modelDomain, modelPath);
                     break;
                 }
 
                 case "usemtl": // Sets the current material (starts new mesh)
                 {
-                    String mat = Strings.join(Arrays.copyOfRange(line, 1, line.length), " ");
+                    String mat = reader.joinTokens(1);
                     MaterialLibrary.Material newMat = mtllib.getMaterial(mat);
                     if (!Objects.equals(newMat, currentMat))
                     {
@@ -151,16 +141,16 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
                 }
 
                 case "v": // Vertex
-                    positions.add(parseVector4To3(line));
+                    positions.add(parseVector4To3(reader));
                     break;
                 case "vt": // Vertex texcoord
-                    texCoords.add(parseVector2(line));
+                    texCoords.add(parseVector2(reader));
                     break;
                 case "vn": // Vertex normal
-                    normals.add(parseVector3(line));
+                    normals.add(parseVector3(reader));
                     break;
                 case "vc": // Vertex color (non-standard)
-                    colors.add(parseVector4(line));
+                    colors.add(parseVector4(reader));
                     break;
 
                 case "f": // Face
@@ -183,12 +173,10 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
                         }
                     }
 
-                    int[][] vertices = new int[line.length-1][];
+                    int[][] vertices = new int[reader.tokenCount()-1][];
                     for(int i=0;i<vertices.length;i++)
                     {
-                        String vertexData = line[i+1];
-                        String[] vertexParts = vertexData.split("/");
-                        int[] vertex = Arrays.stream(vertexParts).mapToInt(num -> Strings.isNullOrEmpty(num) ? 0 : Integer.parseInt(num)).toArray();
+                        int[] vertex = Arrays.copyOf(indices, reader.parseIndices(i+1, indices));
                         if (vertex[0] < 0) vertex[0] = positions.size() + vertex[0];
                         else vertex[0]--;
                         if (vertex.length > 1)
@@ -216,7 +204,7 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
 
                 case "s": // Smoothing group (starts new mesh)
                 {
-                    String smoothingGroup = "off".equals(line[1]) ? null : line[1];
+                    String smoothingGroup = reader.matches(1, "off") ? null : reader.token(1);
                     if (!Objects.equals(currentSmoothingGroup, smoothingGroup))
                     {
                         currentSmoothingGroup = smoothingGroup;
@@ -235,7 +223,7 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
 
                 case "g":
                 {
-                    String name = line[1];
+                    String name = reader.token(1);
                     if (objAboveGroup)
                     {
                         currentObject = new ModelObject(currentGroup.name() + "/" + name);
@@ -254,7 +242,7 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
 
                 case "o":
                 {
-                    String name = line[1];
+                    String name = reader.token(1);
                     if (objAboveGroup || currentGroup == null)
                     {
                         objAboveGroup = true;
@@ -276,6 +264,21 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
         }
     }
 
+    private MaterialLibrary loadMaterialLibrary(String lib, String modelDomain, String modelPath)
+    {
+        ResourceLocation location = lib.contains(":") ? new ResourceLocation(lib) : new ResourceLocation(modelDomain, modelPath + lib);
+        materialLibraries.add(location);
+        return OBJLoader.INSTANCE.loadMaterialLibrary(location);
+    }
+
+    /**
+     * @return the material library files this model read, in the order they were first used
+     */
+    public Set<ResourceLocation> getMaterialLibraries()
+    {
+        return Collections.unmodifiableSet(materialLibraries);
+    }
+
     public static Vector3f parseVector4To3(String[] line)
     {
         switch (line.length) {
@@ -325,6 +328,55 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
         }
     }
 
+    public static Vector3f parseVector4To3(LineReader line)
+    {
+        switch (line.tokenCount()) {
+            case 1: return new Vector3f(0,0,0);
+            case 2: return new Vector3f(line.parseFloat(1), 0, 0);
+            case 3: return new Vector3f(line.parseFloat(1), line.parseFloat(2), 0);
+            case 4: return new Vector3f(line.parseFloat(1), line.parseFloat(2), line.parseFloat(3));
+            default:
+            {
+                float w = line.parseFloat(4);
+                return new Vector3f(
+                        line.parseFloat(1) / w,
+                        line.parseFloat(2) / w,
+                        line.parseFloat(3) / w
+                );
+            }
+        }
+    }
+
+    public static Vector2f parseVector2(LineReader line)
+    {
+        switch (line.tokenCount()) {
+            case 1: return new Vector2f(0,0);
+            case 2: return new Vector2f(line.parseFloat(1), 0);
+            default: return new Vector2f(line.parseFloat(1), line.parseFloat(2));
+        }
+    }
+
+    public static Vector3f parseVector3(LineReader line)
+    {
+        switch (line.tokenCount()) {
+            case 1: return new Vector3f(0,0,0);
+            case 2: return new Vector3f(line.parseFloat(1), 0, 0);
+            case 3: return new Vector3f(line.parseFloat(1), line.parseFloat(2), 0);
+            default: return new Vector3f(line.parseFloat(1), line.parseFloat(2), line.parseFloat(3));
+        }
+    }
+
+    public static Vector4f parseVector4(LineReader line)
+    {
+        switch (line.tokenCount()) {
+            case 1: return new Vector4f(0,0,0,1);
+            case 2: return new Vector4f(line.parseFloat(1), 0, 0,1);
+            case 3: return new Vector4f(line.parseFloat(1), line.parseFloat(2), 0,1);
+            case 4: return new Vector4f(line.parseFloat(1), line.parseFloat(2), line.parseFloat(3),1);
+            default: return new Vector4f(line.parseFloat(1), line.parseFloat(2), line.parseFloat(3), line.parseFloat(4));
+        }
+    }
+
     @Override
     public Collection<? extends IModelGeometryPart> getParts()
     {
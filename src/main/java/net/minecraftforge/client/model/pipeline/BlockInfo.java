@@ -49,6 +49,8 @@ public class BlockInfo
 
     private final int[] packed = new int[7];
 
+    private final SectionLightCache lightCache = new SectionLightCache();
+
     private boolean full;
 
     private int cachedTint = -1;
@@ -98,6 +100,7 @@ public class BlockInfo
         this.world = null;
         this.state = null;
         this.blockPos = null;
+        lightCache.release();
         cachedTint = -1;
         cachedMultiplier = -1;
     }
@@ -113,31 +116,32 @@ public class BlockInfo
 
     public void updateLightMatrix()
     {
+        lightCache.prepare(world, blockPos, SectionLightCache.isSnapshot(world));
         for(int x = 0; x <= 2; x++)
         {
             for(int y = 0; y <= 2; y++)
             {
                 for(int z = 0; z <= 2; z++)
                 {
-                    BlockPos pos = blockPos.offset(x - 1, y - 1, z - 1);
-                    BlockState state = world.getBlockState(pos);
-                    t[x][y][z] = state.getLightBlock(world, pos) < 15;
-                    int brightness = WorldRenderer.getLightColor(world, pos);
+                    int i = lightCache.sample(blockPos.getX() + x - 1, blockPos.getY() + y - 1, blockPos.getZ() + z - 1);
+                    t[x][y][z] = lightCache.getLightBlock(i) < 15;
+                    int brightness = lightCache.getLightColor(i);
                     s[x][y][z] = LightTexture.sky(brightness);
                     b[x][y][z] = LightTexture.block(brightness);
-                    ao[x][y][z] = state.getShadeBrightness(world, pos);
+                    ao[x][y][z] = lightCache.getShadeBrightness(i);
                 }
             }
         }
         for(Direction side : SIDES)
         {
             BlockPos pos = blockPos.relative(side);
-            BlockState state = world.getBlockState(pos);
+            int i = lightCache.sample(pos.getX(), pos.getY(), pos.getZ());
+            BlockState state = lightCache.getState(i);
 
             BlockState thisStateShape = this.state.canOcclude() && this.state.useShapeForLightOcclusion() ? this.state : Blocks.AIR.defaultBlockState();
             BlockState otherStateShape = state.canOcclude() && state.useShapeForLightOcclusion() ? state : Blocks.AIR.defaultBlockState();
 
-            if(state.getLightBlock(world, pos) == 15 || VoxelShapes.faceShapeOccludes(thisStateShape.getFaceOcclusionShape(world, blockPos, side), otherStateShape.getFaceOcclusionShape(world, pos, side.getOpposite())))
+            if(lightCache.getLightBlock(i) == 15 || VoxelShapes.faceShapeOccludes(thisStateShape.getFaceOcclusionShape(world, blockPos, side), otherStateShape.getFaceOcclusionShape(world, pos, side.getOpposite())))
             {
                 int x = side.getStepX() + 1;
                 int y = side.getStepY() + 1;
@@ -0,0 +1,42 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model.pipeline;
+
+/**
+ * Transforms all vertices of an {@link UnpackedQuad} in place. Transformers are combined with {@link #andThen}, so a
+ * chain of them unpacks and packs each quad once rather than once per step.
+ * <p>
+ * Apply them to baked quads through {@link net.minecraftforge.client.model.QuadTransformer}.
+ *
+ * @see QuadTransformers
+ */
+@FunctionalInterface
+public interface IQuadTransformer
+{
+    void transform(UnpackedQuad quad);
+
+    default IQuadTransformer andThen(IQuadTransformer after)
+    {
+        return quad -> {
+            transform(quad);
+            after.transform(quad);
+        };
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model.pipeline;
+
+import net.minecraft.util.math.vector.Matrix3f;
+import net.minecraft.util.math.vector.Matrix4f;
+import net.minecraft.util.math.vector.TransformationMatrix;
+import net.minecraft.util.math.vector.Vector3f;
+import net.minecraft.util.math.vector.Vector4f;
+
+/**
+ * Common {@link IQuadTransformer}s, equivalent to the per-element transformers of this package.
+ */
+public final class QuadTransformers
+{
+    private QuadTransformers() {}
+
+    /**
+     * Same as {@link TRSRTransformer}. The matrices are read once here instead of for every vertex.
+     */
+    public static IQuadTransformer applying(TransformationMatrix transform)
+    {
+        if (transform.isIdentity())
+            return quad -> {};
+
+        final Matrix4f matrix = transform.getMatrix();
+        final Vector4f c0 = column(matrix, 1, 0, 0, 0);
+        final Vector4f c1 = column(matrix, 0, 1, 0, 0);
+        final Vector4f c2 = column(matrix, 0, 0, 1, 0);
+        final Vector4f c3 = column(matrix, 0, 0, 0, 1);
+        final Matrix3f normalMatrix = transform.getNormalMatrix();
+        final Vector3f n0 = column(normalMatrix, 1, 0, 0);
+        final Vector3f n1 = column(normalMatrix, 0, 1, 0);
+        final Vector3f n2 = column(normalMatrix, 0, 0, 1);
+
+        return quad -> {
+            for (int i = 0; i < UnpackedQuad.VERTICES; i++)
+            {
+                float x = quad.x[i], y = quad.y[i], z = quad.z[i];
+                quad.x[i] = c0.x() * x + c1.x() * y + c2.x() * z + c3.x();
+                quad.y[i] = c0.y() * x + c1.y() * y + c2.y() * z + c3.y();
+                quad.z[i] = c0.z() * x + c1.z() * y + c2.z() * z + c3.z();
+
+                float nx = quad.normalX[i], ny = quad.normalY[i], nz = quad.normalZ[i];
+                if (nx == 0 && ny == 0 && nz == 0)
+                    continue;
+                float tx = n0.x() * nx + n1.x() * ny + n2.x() * nz;
+                float ty = n0.y() * nx + n1.y() * ny + n2.y() * nz;
+                float tz = n0.z() * nx + n1.z() * ny + n2.z() * nz;
+                float length = (float)Math.sqrt(tx * tx + ty * ty + tz * tz);
+                if (length > 1.0E-5F)
+                {
+                    tx /= length;
+                    ty /= length;
+                    tz /= length;
+                }
+                quad.normalX[i] = tx;
+                quad.normalY[i] = ty;
+                quad.normalZ[i] = tz;
+            }
+        };
+    }
+
+    /**
+     * Multiplies the vertex colors with the given color, same as {@link LightUtil.ItemConsumer#setAuxColor}.
+     */
+    public static IQuadTransformer applyingColor(float r, float g, float b, float a)
+    {
+        return quad -> {
+            for (int i = 0; i < UnpackedQuad.VERTICES; i++)
+            {
+                quad.red[i] *= r;
+                quad.green[i] *= g;
+                quad.blue[i] *= b;
+                quad.alpha[i] *= a;
+            }
+        };
+    }
+
+    /**
+     * Multiplies the vertex colors with the given packed ARGB color, as returned by block and item colors.
+     */
+    public static IQuadTransformer applyingColor(int argb)
+    {
+        return applyingColor((argb >> 16 & 0xFF) / 255f, (argb >> 8 & 0xFF) / 255f, (argb & 0xFF) / 255f, (argb >>> 24) / 255f);
+    }
+
+    /**
+     * Replaces the light of every vertex with the given packed block and sky light.
+     */
+    public static IQuadTransformer applyingLightmap(int light)
+    {
+        return quad -> {
+            for (int i = 0; i < UnpackedQuad.VERTICES; i++)
+                quad.light[i] = light;
+        };
+    }
+
+    /**
+     * Darkens shaded quads by the direction of their vertex normals, as {@link VertexLighterFlat} does.
+     */
+    public static IQuadTransformer applyingDiffuseLighting()
+    {
+        return quad -> {
+            if (!quad.shade)
+                return;
+            for (int i = 0; i < UnpackedQuad.VERTICES; i++)
+            {
+                float d = LightUtil.diffuseLight(quad.normalX[i], quad.normalY[i], quad.normalZ[i]);
+                quad.red[i] *= d;
+                quad.green[i] *= d;
+                quad.blue[i] *= d;
+            }
+        };
+    }
+
+    private static Vector4f column(Matrix4f matrix, float x, float y, float z, float w)
+    {
+        Vector4f column = new Vector4f(x, y, z, w);
+        column.transform(matrix);
+        return column;
+    }
+
+    private static Vector3f column(Matrix3f matrix, float x, float y, float z)
+    {
+        Vector3f column = new Vector3f(x, y, z);
+        column.transform(matrix);
+        return column;
+    }
+}
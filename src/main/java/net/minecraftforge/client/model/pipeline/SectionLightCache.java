@@ -0,0 +1,155 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model.pipeline;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.client.renderer.WorldRenderer;
+import net.minecraft.client.renderer.chunk.ChunkRenderCache;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockDisplayReader;
+
+/**
+ * Light, opacity and ambient occlusion samples of one chunk section and the blocks bordering it, stored in flat arrays.
+ * <p>
+ * Neighbouring blocks share most of their 3x3x3 light neighbourhood, so while a section is rebuilt each position is
+ * read from the world once and every later {@link BlockInfo#updateLightMatrix()} in that section reads it from here.
+ * Positions are sampled the first time they are requested, so air and hidden blocks never cost a world read.
+ * <p>
+ * Samples are only kept between blocks for the region snapshots sections are rebuilt from (see {@link #isSnapshot}),
+ * for any other world they are discarded before every block.
+ */
+public class SectionLightCache
+{
+    public static final int SIZE = 16 + 2;
+    private static final int VOLUME = SIZE * SIZE * SIZE;
+
+    private final int[] stamps = new int[VOLUME];
+    private final BlockState[] states = new BlockState[VOLUME];
+    private final byte[] lightBlock = new byte[VOLUME];
+    private final int[] lightColor = new int[VOLUME];
+    private final float[] shadeBrightness = new float[VOLUME];
+    private final BlockPos.Mutable pos = new BlockPos.Mutable();
+
+    private int generation = 1;
+    private WeakReference<IBlockDisplayReader> lastWorld = new WeakReference<>(null);
+    @Nullable
+    private IBlockDisplayReader world;
+    private int minX, minY, minZ;
+
+    /**
+     * @return whether the world is a region snapshot taken for a section rebuild, which does not change while it is used
+     */
+    public static boolean isSnapshot(@Nullable IBlockDisplayReader world)
+    {
+        return world instanceof ChunkRenderCache;
+    }
+
+    /**
+     * Prepares the cache for the section containing the given position.
+     * Samples taken before are kept if the world and section are the same and {@code reuse} is set.
+     */
+    public void prepare(@Nullable IBlockDisplayReader world, BlockPos pos, boolean reuse)
+    {
+        int minX = (pos.getX() & ~15) - 1;
+        int minY = (pos.getY() & ~15) - 1;
+        int minZ = (pos.getZ() & ~15) - 1;
+        if (!reuse || world != lastWorld.get() || minX != this.minX || minY != this.minY || minZ != this.minZ)
+        {
+            invalidate();
+            this.lastWorld = new WeakReference<>(world);
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+        }
+        this.world = world;
+    }
+
+    /**
+     * Drops the reference to the world until the next {@link #prepare}, the samples themselves are kept.
+     */
+    public void release()
+    {
+        this.world = null;
+    }
+
+    public void invalidate()
+    {
+        if (++generation == 0)
+        {
+            // Wrapped around, so old stamps could match again
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Returns the index of the given position, sampling it from the world first if needed.
+     * The position must be inside the prepared section or directly next to it.
+     */
+    public int sample(int x, int y, int z)
+    {
+        int index = ((x - minX) * SIZE + (y - minY)) * SIZE + (z - minZ);
+        if (stamps[index] != generation)
+        {
+            sample(world, pos.set(x, y, z), index);
+            stamps[index] = generation;
+        }
+        return index;
+    }
+
+    protected void sample(@Nullable IBlockDisplayReader world, BlockPos pos, int index)
+    {
+        BlockState state = world.getBlockState(pos);
+        store(index, state, state.getLightBlock(world, pos), WorldRenderer.getLightColor(world, pos), state.getShadeBrightness(world, pos));
+    }
+
+    protected final void store(int index, @Nullable BlockState state, int lightBlock, int lightColor, float shadeBrightness)
+    {
+        this.states[index] = state;
+        this.lightBlock[index] = (byte)lightBlock;
+        this.lightColor[index] = lightColor;
+        this.shadeBrightness[index] = shadeBrightness;
+    }
+
+    public BlockState getState(int index)
+    {
+        return states[index];
+    }
+
+    public int getLightBlock(int index)
+    {
+        return lightBlock[index];
+    }
+
+    public int getLightColor(int index)
+    {
+        return lightColor[index];
+    }
+
+    public float getShadeBrightness(int index)
+    {
+        return shadeBrightness[index];
+    }
+}
@@ -19,6 +19,8 @@
 
 package net.minecraftforge.client.model.pipeline;
 
+import net.minecraft.util.math.vector.Matrix3f;
+import net.minecraft.util.math.vector.Matrix4f;
 import net.minecraft.util.math.vector.TransformationMatrix;
 import net.minecraft.util.math.vector.Vector3f;
 import net.minecraft.util.math.vector.Vector4f;
@@ -26,11 +28,18 @@ import net.minecraft.util.math.vector.Vector4f;
 public class TRSRTransformer extends VertexTransformer
 {
     private final TransformationMatrix transform;
+    // Read once, getMatrix() returns a copy and the normal matrix is computed lazily
+    private final Matrix4f matrix;
+    private final Matrix3f normalMatrix;
+    private final Vector4f pos = new Vector4f();
+    private final Vector3f normal = new Vector3f();
 
     public TRSRTransformer(IVertexConsumer parent, TransformationMatrix transform)
     {
         super(parent);
         this.transform = transform;
+        this.matrix = transform.getMatrix();
+        this.normalMatrix = transform.getNormalMatrix();
     }
 
     @Override
@@ -39,16 +48,17 @@ public class TRSRTransformer extends VertexTransformer
         switch (getVertexFormat().getElements().get(element).getUsage())
         {
             case POSITION:
-                Vector4f pos = new Vector4f(data[0], data[1], data[2], data[3]);
-                transform.transformPosition(pos);
+                pos.set(data[0], data[1], data[2], data[3]);
+                pos.transform(matrix);
                 data[0] = pos.x();
                 data[1] = pos.y();
                 data[2] = pos.z();
                 data[3] = pos.w();
                 break;
             case NORMAL:
-                Vector3f normal = new Vector3f(data);
-                transform.transformNormal(normal);
+                normal.set(data[0], data[1], data[2]);
+                normal.transform(normalMatrix);
+                normal.normalize();
                 data[0] = normal.x();
                 data[1] = normal.y();
                 data[2] = normal.z();
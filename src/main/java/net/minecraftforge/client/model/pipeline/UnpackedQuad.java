@@ -0,0 +1,204 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model.pipeline;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.client.renderer.model.BakedQuad;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.client.renderer.vertex.VertexFormatElement;
+import net.minecraft.util.Direction;
+
+/**
+ * A quad in {@link DefaultVertexFormats#BLOCK} unpacked into one array per vertex component, so transformations can
+ * run over all four vertices of a quad at once instead of being fed one element at a time through
+ * {@link IVertexConsumer#put}.
+ * <p>
+ * Instances are meant to be reused: {@link #load} a quad, apply an {@link IQuadTransformer}, then {@link #store} or
+ * {@link #toBakedQuad} the result.
+ */
+public class UnpackedQuad
+{
+    public static final int VERTICES = 4;
+    private static final int STRIDE = DefaultVertexFormats.BLOCK.getIntegerSize();
+    private static final float[] EMPTY = new float[0];
+
+    public final float[] x = new float[VERTICES];
+    public final float[] y = new float[VERTICES];
+    public final float[] z = new float[VERTICES];
+    public final float[] red = new float[VERTICES];
+    public final float[] green = new float[VERTICES];
+    public final float[] blue = new float[VERTICES];
+    public final float[] alpha = new float[VERTICES];
+    public final float[] u = new float[VERTICES];
+    public final float[] v = new float[VERTICES];
+    /** Packed block and sky light, as stored in the vertex data */
+    public final int[] light = new int[VERTICES];
+    public final float[] normalX = new float[VERTICES];
+    public final float[] normalY = new float[VERTICES];
+    public final float[] normalZ = new float[VERTICES];
+    private final int[] padding = new int[VERTICES];
+
+    private final float[] buffer = new float[4];
+
+    public int tintIndex = -1;
+    @Nullable
+    public Direction direction;
+    @Nullable
+    public TextureAtlasSprite sprite;
+    public boolean shade = true;
+
+    public UnpackedQuad load(BakedQuad quad)
+    {
+        load(quad.getVertices());
+        this.tintIndex = quad.getTintIndex();
+        this.direction = quad.getDirection();
+        this.sprite = quad.getSprite();
+        this.shade = quad.isShade();
+        return this;
+    }
+
+    public UnpackedQuad load(int[] data)
+    {
+        for (int i = 0; i < VERTICES; i++)
+        {
+            int offset = i * STRIDE;
+            x[i] = Float.intBitsToFloat(data[offset]);
+            y[i] = Float.intBitsToFloat(data[offset + 1]);
+            z[i] = Float.intBitsToFloat(data[offset + 2]);
+            int color = data[offset + 3];
+            red[i] = (color & 0xFF) / 255f;
+            green[i] = (color >>> 8 & 0xFF) / 255f;
+            blue[i] = (color >>> 16 & 0xFF) / 255f;
+            alpha[i] = (color >>> 24) / 255f;
+            u[i] = Float.intBitsToFloat(data[offset + 4]);
+            v[i] = Float.intBitsToFloat(data[offset + 5]);
+            light[i] = data[offset + 6];
+            int normal = data[offset + 7];
+            normalX[i] = ((byte)normal) / 127f;
+            normalY[i] = ((byte)(normal >> 8)) / 127f;
+            normalZ[i] = ((byte)(normal >> 16)) / 127f;
+            padding[i] = normal & 0xFF000000;
+        }
+        return this;
+    }
+
+    /**
+     * Packs the vertices back into {@code data}, which may be the array they were loaded from.
+     */
+    public void store(int[] data)
+    {
+        for (int i = 0; i < VERTICES; i++)
+        {
+            int offset = i * STRIDE;
+            data[offset] = Float.floatToRawIntBits(x[i]);
+            data[offset + 1] = Float.floatToRawIntBits(y[i]);
+            data[offset + 2] = Float.floatToRawIntBits(z[i]);
+            data[offset + 3] = packUnsigned(red[i]) | packUnsigned(green[i]) << 8 | packUnsigned(blue[i]) << 16 | packUnsigned(alpha[i]) << 24;
+            data[offset + 4] = Float.floatToRawIntBits(u[i]);
+            data[offset + 5] = Float.floatToRawIntBits(v[i]);
+            data[offset + 6] = light[i];
+            data[offset + 7] = packSigned(normalX[i]) | packSigned(normalY[i]) << 8 | packSigned(normalZ[i]) << 16 | padding[i];
+        }
+    }
+
+    public BakedQuad toBakedQuad()
+    {
+        int[] data = new int[STRIDE * VERTICES];
+        store(data);
+        return new BakedQuad(data, tintIndex, direction, sprite, shade);
+    }
+
+    /**
+     * Sends this quad to a consumer of any vertex format, mapping elements with {@link LightUtil#mapFormats} once per
+     * quad. Elements the consumer expects which are not part of the block format are sent empty.
+     */
+    public void pipe(IVertexConsumer consumer)
+    {
+        consumer.setTexture(sprite);
+        consumer.setQuadOrientation(direction);
+        if (tintIndex != -1)
+        {
+            consumer.setQuadTint(tintIndex);
+        }
+        consumer.setApplyDiffuseLighting(shade);
+        VertexFormat formatFrom = consumer.getVertexFormat();
+        int countFrom = formatFrom.getElements().size();
+        int countTo = DefaultVertexFormats.BLOCK.getElements().size();
+        int[] eMap = LightUtil.mapFormats(formatFrom, DefaultVertexFormats.BLOCK);
+        for (int i = 0; i < VERTICES; i++)
+        {
+            for (int e = 0; e < countFrom; e++)
+            {
+                if (eMap[e] != countTo && fill(i, DefaultVertexFormats.BLOCK.getElements().get(eMap[e])))
+                {
+                    consumer.put(e, buffer);
+                }
+                else
+                {
+                    consumer.put(e, EMPTY);
+                }
+            }
+        }
+    }
+
+    private boolean fill(int i, VertexFormatElement element)
+    {
+        float[] buf = buffer;
+        switch (element.getUsage())
+        {
+            case POSITION:
+                buf[0] = x[i]; buf[1] = y[i]; buf[2] = z[i]; buf[3] = 1;
+                return true;
+            case COLOR:
+                buf[0] = red[i]; buf[1] = green[i]; buf[2] = blue[i]; buf[3] = alpha[i];
+                return true;
+            case UV:
+                if (element.getIndex() == 0)
+                {
+                    buf[0] = u[i]; buf[1] = v[i];
+                }
+                else
+                {
+                    // Same scale as LightUtil.unpack uses for the SHORT light element
+                    buf[0] = ((short)light[i]) / 32767f; buf[1] = ((short)(light[i] >> 16)) / 32767f;
+                }
+                buf[2] = 0; buf[3] = 0;
+                return true;
+            case NORMAL:
+                buf[0] = normalX[i]; buf[1] = normalY[i]; buf[2] = normalZ[i]; buf[3] = 0;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static int packUnsigned(float f)
+    {
+        return Math.round(f * 255) & 0xFF;
+    }
+
+    private static int packSigned(float f)
+    {
+        return Math.round(f * 127) & 0xFF;
+    }
+}
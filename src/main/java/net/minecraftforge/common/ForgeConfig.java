@@ -21,8 +21,10 @@ package net.minecraftforge.common;
 
 import static net.minecraftforge.fml.loading.LogMarkers.FORGEMOD;
 
+import net.minecraftforge.common.capabilities.CapabilityProvider;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.server.timings.TickProfiler;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 
@@ -50,6 +52,8 @@ public class ForgeConfig
 
         public final BooleanValue fixAdvancementLoading;
 
+        public final BooleanValue enableTickProfiler;
+
         Server(ForgeConfigSpec.Builder builder) {
             builder.comment("Server configuration settings")
                    .push("server");
@@ -109,6 +113,11 @@ public class ForgeConfig
                     .translation("forge.configgui.fixAdvancementLoading")
                     .define("fixAdvancementLoading", true);
 
+            enableTickProfiler = builder
+                    .comment("Continuously profile tile entity and entity updates per type, mod and chunk. The results can be dumped with '/forge profiler dump'. The overhead is small enough to leave this on in production.")
+                    .translation("forge.configgui.enableTickProfiler")
+                    .define("enableTickProfiler", false);
+
             builder.pop();
         }
     }
@@ -119,6 +128,8 @@ public class ForgeConfig
     public static class Common {
         public final ForgeConfigSpec.ConfigValue<? extends String> defaultWorldType;
 
+        public final BooleanValue lazyItemStackCapabilities;
+
         Common(ForgeConfigSpec.Builder builder)
         {
             builder.comment("General configuration settings")
@@ -130,6 +141,12 @@ public class ForgeConfig
                     .translation("forge.configgui.defaultWorldType")
                     .define("defaultWorldType", "default");
 
+            lazyItemStackCapabilities = builder
+                    .comment("Defer attaching capabilities to item stacks until they are first queried, compared or saved, and let copies share capability data until then.",
+                             "Speeds up creating and copying stacks whose capabilities are not used, but capability attachers will see the stack as it is at that point rather than at creation.")
+                    .translation("forge.configgui.lazyItemStackCapabilities")
+                    .define("lazyItemStackCapabilities", false);
+
             builder.pop();
         }
 
@@ -156,6 +173,10 @@ public class ForgeConfig
 
         public final BooleanValue useCombinedDepthStencilAttachment;
 
+        public final BooleanValue parallelModelBaking;
+
+        public final BooleanValue bakedModelCache;
+
         Client(ForgeConfigSpec.Builder builder) {
             builder.comment("Client only settings, mostly things related to rendering")
                    .push("client");
@@ -206,6 +227,18 @@ public class ForgeConfig
                     .translation("forge.configgui.useCombinedDepthStencilAttachment")
                     .define("useCombinedDepthStencilAttachment", false);
 
+            parallelModelBaking = builder
+                .comment("EXPERIMENTAL: Bake models on several threads during resource reloads.",
+                        "Models from loaders which are not marked as thread safe are still baked one at a time.")
+                .translation("forge.configgui.parallelModelBaking")
+                .define("parallelModelBaking", false);
+
+            bakedModelCache = builder
+                .comment("EXPERIMENTAL: Keep baked block and item models in .cache/forge between resource reloads and game starts.",
+                        "Models whose resource files did not change are neither parsed nor baked again.")
+                .translation("forge.configgui.bakedModelCache")
+                .define("bakedModelCache", false);
+
             builder.pop();
         }
     }
@@ -239,11 +272,29 @@ public class ForgeConfig
     @SubscribeEvent
     public static void onLoad(final ModConfig.Loading configEvent) {
         LogManager.getLogger().debug(FORGEMOD, "Loaded forge config file {}", configEvent.getConfig().getFileName());
+        if (configEvent.getConfig().getSpec() == serverSpec)
+            applyServerSettings();
+        else if (configEvent.getConfig().getSpec() == commonSpec)
+            applyCommonSettings();
     }
 
     @SubscribeEvent
     public static void onFileChange(final ModConfig.Reloading configEvent) {
         LogManager.getLogger().debug(FORGEMOD, "Forge config just got changed on the file system!");
+        if (configEvent.getConfig().getSpec() == serverSpec)
+            applyServerSettings();
+        else if (configEvent.getConfig().getSpec() == commonSpec)
+            applyCommonSettings();
+    }
+
+    private static void applyCommonSettings() {
+        CapabilityProvider.setLazyCapabilities(COMMON.lazyItemStackCapabilities.get());
+    }
+
+    private static void applyServerSettings() {
+        boolean profile = SERVER.enableTickProfiler.get();
+        TickProfiler.TILE_ENTITIES.setEnabled(profile);
+        TickProfiler.ENTITIES.setEnabled(profile);
     }
 
     //General
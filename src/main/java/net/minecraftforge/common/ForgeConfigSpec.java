@@ -35,7 +35,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
 import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -73,13 +77,22 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
     private Map<List<String>, String> levelComments = new HashMap<>();
 
     private UnmodifiableConfig values;
-    private Config childConfig;
-
-    private boolean isCorrecting = false;
-
-    private ForgeConfigSpec(UnmodifiableConfig storage, UnmodifiableConfig values, Map<List<String>, String> levelComments) {
+    private final List<ConfigValue<?>> valueList;
+    private volatile Config childConfig;
+    /**
+     * Every value of this spec resolved from {@link #childConfig}, replaced as a whole on reload so readers never see
+     * a partially loaded config and never have to wait for the loader.
+     */
+    @Nullable
+    private volatile Snapshot snapshot;
+    private final Object snapshotLock = new Object();
+
+    private volatile boolean isCorrecting = false;
+
+    private ForgeConfigSpec(UnmodifiableConfig storage, UnmodifiableConfig values, List<ConfigValue<?>> valueList, Map<List<String>, String> levelComments) {
         super(storage);
         this.values = values;
+        this.valueList = valueList;
         this.levelComments = levelComments;
     }
 
@@ -117,20 +130,23 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
         return this.values;
     }
 
+    /**
+     * Resolves every value from the current config and publishes them at once.
+     * Values read while this runs keep returning the previous snapshot.
+     */
     public void afterReload() {
-        this.resetCaches(getValues().valueMap().values());
+        synchronized (snapshotLock) {
+            final Config config = this.childConfig;
+            this.snapshot = config == null ? null : Snapshot.resolve(config, valueList);
+        }
     }
 
-    private void resetCaches(final Iterable<Object> configValues) {
-        configValues.forEach(value -> {
-            if (value instanceof ConfigValue) {
-                final ConfigValue<?> configValue = (ConfigValue<?>) value;
-                configValue.clearCache();
-            } else if (value instanceof Config) {
-                final Config innerConfig = (Config) value;
-                this.resetCaches(innerConfig.valueMap().values());
-            }
-        });
+    private <T> void updateSnapshot(ConfigValue<T> value, T newValue) {
+        synchronized (snapshotLock) {
+            final Snapshot current = this.snapshot;
+            if (current != null)
+                this.snapshot = current.with(value, newValue);
+        }
     }
 
     public void save()
@@ -620,8 +636,12 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
             Config valueCfg = Config.of(Config.getDefaultMapCreator(true, true), InMemoryFormat.withSupport(ConfigValue.class::isAssignableFrom));
             values.forEach(v -> valueCfg.set(v.getPath(), v));
 
-            ForgeConfigSpec ret = new ForgeConfigSpec(storage, valueCfg, levelComments);
-            values.forEach(v -> v.spec = ret);
+            ForgeConfigSpec ret = new ForgeConfigSpec(storage, valueCfg, Collections.unmodifiableList(new ArrayList<>(values)), levelComments);
+            for (int i = 0; i < values.size(); i++)
+            {
+                values.get(i).spec = ret;
+                values.get(i).index = i;
+            }
             return ret;
         }
 
@@ -791,6 +811,45 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
         }
     }
 
+    /**
+     * An immutable view of all values of a spec. Primitive values are additionally kept unboxed in {@link #bits},
+     * encoded by {@link ConfigValue#toBits}.
+     */
+    private static final class Snapshot
+    {
+        private final Object[] values;
+        private final long[] bits;
+
+        private Snapshot(Object[] values, long[] bits)
+        {
+            this.values = values;
+            this.bits = bits;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Snapshot resolve(Config config, List<ConfigValue<?>> valueList)
+        {
+            final Object[] values = new Object[valueList.size()];
+            final long[] bits = new long[valueList.size()];
+            for (int i = 0; i < values.length; i++)
+            {
+                final ConfigValue value = valueList.get(i);
+                values[i] = value.getRaw(config, value.path, value.defaultSupplier);
+                bits[i] = values[i] == null ? 0 : value.toBits(values[i]);
+            }
+            return new Snapshot(values, bits);
+        }
+
+        private <T> Snapshot with(ConfigValue<T> value, T newValue)
+        {
+            final Object[] values = this.values.clone();
+            final long[] bits = this.bits.clone();
+            values[value.index] = newValue;
+            bits[value.index] = newValue == null ? 0 : value.toBits(newValue);
+            return new Snapshot(values, bits);
+        }
+    }
+
     public static class ConfigValue<T>
     {
         @VisibleForTesting
@@ -800,9 +859,8 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
         private final List<String> path;
         private final Supplier<T> defaultSupplier;
 
-        private T cachedValue = null;
-
         private ForgeConfigSpec spec;
+        private int index;
 
         ConfigValue(Builder parent, List<String> path, Supplier<T> defaultSupplier)
         {
@@ -817,18 +875,40 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
             return Lists.newArrayList(path);
         }
 
+        @SuppressWarnings("unchecked")
         public T get()
         {
             Preconditions.checkNotNull(spec, "Cannot get config value before spec is built");
-            if (spec.childConfig == null)
+            final Snapshot snapshot = spec.snapshot;
+            if (USE_CACHES && snapshot != null)
+                return (T)snapshot.values[index];
+
+            final Config config = spec.childConfig;
+            if (config == null)
                 return defaultSupplier.get();
+            return getRaw(config, path, defaultSupplier);
+        }
 
-            if (USE_CACHES && cachedValue == null)
-                cachedValue = getRaw(spec.childConfig, path, defaultSupplier);
-            else if (!USE_CACHES)
-                return getRaw(spec.childConfig, path, defaultSupplier);
+        /**
+         * @return the current value encoded by {@link #toBits}, without boxing when the spec is loaded
+         */
+        long getBits()
+        {
+            Preconditions.checkNotNull(spec, "Cannot get config value before spec is built");
+            final Snapshot snapshot = spec.snapshot;
+            if (USE_CACHES && snapshot != null)
+                return snapshot.bits[index];
 
-            return cachedValue;
+            final T value = get();
+            return value == null ? 0 : toBits(value);
+        }
+
+        /**
+         * Encodes a primitive value so it can be stored unboxed in the snapshot. Values of other types are not encoded.
+         */
+        long toBits(T value)
+        {
+            return 0;
         }
 
         protected T getRaw(Config config, List<String> path, Supplier<T> defaultSupplier)
@@ -853,29 +933,59 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
             Preconditions.checkNotNull(spec, "Cannot set config value before spec is built");
             Preconditions.checkNotNull(spec.childConfig, "Cannot set config value without assigned Config object present");
             spec.childConfig.set(path, value);
-            this.cachedValue = value;
+            spec.updateSnapshot(this, value);
         }
 
+        /**
+         * Re-reads this value from the config, for when the config was changed without going through {@link #set}.
+         */
         public void clearCache() {
-            this.cachedValue = null;
+            Preconditions.checkNotNull(spec, "Cannot clear config value before spec is built");
+            final Config config = spec.childConfig;
+            if (config != null)
+                spec.updateSnapshot(this, getRaw(config, path, defaultSupplier));
         }
     }
 
-    public static class BooleanValue extends ConfigValue<Boolean>
+    public static class BooleanValue extends ConfigValue<Boolean> implements BooleanSupplier
     {
         BooleanValue(Builder parent, List<String> path, Supplier<Boolean> defaultSupplier)
         {
             super(parent, path, defaultSupplier);
         }
+
+        @Override
+        public boolean getAsBoolean()
+        {
+            return getBits() != 0;
+        }
+
+        @Override
+        long toBits(Boolean value)
+        {
+            return value ? 1 : 0;
+        }
     }
 
-    public static class IntValue extends ConfigValue<Integer>
+    public static class IntValue extends ConfigValue<Integer> implements IntSupplier
     {
         IntValue(Builder parent, List<String> path, Supplier<Integer> defaultSupplier)
         {
             super(parent, path, defaultSupplier);
         }
 
+        @Override
+        public int getAsInt()
+        {
+            return (int)getBits();
+        }
+
+        @Override
+        long toBits(Integer value)
+        {
+            return value;
+        }
+
         @Override
         protected Integer getRaw(Config config, List<String> path, Supplier<Integer> defaultSupplier)
         {
@@ -883,13 +993,25 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
         }
     }
 
-    public static class LongValue extends ConfigValue<Long>
+    public static class LongValue extends ConfigValue<Long> implements LongSupplier
     {
         LongValue(Builder parent, List<String> path, Supplier<Long> defaultSupplier)
         {
             super(parent, path, defaultSupplier);
         }
 
+        @Override
+        public long getAsLong()
+        {
+            return getBits();
+        }
+
+        @Override
+        long toBits(Long value)
+        {
+            return value;
+        }
+
         @Override
         protected Long getRaw(Config config, List<String> path, Supplier<Long> defaultSupplier)
         {
@@ -897,13 +1019,25 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
         }
     }
 
-    public static class DoubleValue extends ConfigValue<Double>
+    public static class DoubleValue extends ConfigValue<Double> implements DoubleSupplier
     {
         DoubleValue(Builder parent, List<String> path, Supplier<Double> defaultSupplier)
         {
             super(parent, path, defaultSupplier);
         }
 
+        @Override
+        public double getAsDouble()
+        {
+            return Double.longBitsToDouble(getBits());
+        }
+
+        @Override
+        long toBits(Double value)
+        {
+            return Double.doubleToRawLongBits(value);
+        }
+
         @Override
         protected Double getRaw(Config config, List<String> path, Supplier<Double> defaultSupplier)
         {
@@ -27,10 +27,14 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.concurrent.ThreadTaskExecutor;
 import net.minecraft.util.concurrent.TickDelayedTask;
 import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.common.crafting.RecipeIndex;
 import net.minecraftforge.common.loot.LootModifierManager;
 import net.minecraftforge.common.util.FakePlayerFactory;
+import net.minecraftforge.common.util.PlayerSpatialIndex;
+import net.minecraftforge.common.world.StructureSpawnManager;
 import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.entity.EntityEvent;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.world.ChunkEvent;
@@ -44,6 +48,7 @@ import net.minecraftforge.event.TickEvent.Phase;
 import net.minecraftforge.event.TickEvent.ServerTickEvent;
 import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.LogicalSidedProvider;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
 import net.minecraftforge.server.command.ForgeCommand;
 import net.minecraftforge.server.command.ConfigCommand;
 
@@ -76,7 +81,10 @@ public class ForgeInternalHandler
     public void onDimensionUnload(WorldEvent.Unload event)
     {
         if (event.getWorld() instanceof ServerWorld)
+        {
             FakePlayerFactory.unloadWorld((ServerWorld) event.getWorld());
+            StructureSpawnManager.onWorldUnload(((ServerWorld) event.getWorld()).structureFeatureManager());
+        }
     }
 
     @SubscribeEvent
@@ -97,6 +105,8 @@ public class ForgeInternalHandler
     {
         if (!event.getWorld().isClientSide())
             FarmlandWaterManager.removeTickets(event.getChunk());
+        if (event.getWorld() instanceof ServerWorld)
+            StructureSpawnManager.onChunkUnload(((ServerWorld) event.getWorld()).structureFeatureManager(), event.getChunk().getPos());
     }
 
     /*
@@ -112,12 +122,49 @@ public class ForgeInternalHandler
     public void playerLogin(PlayerEvent.PlayerLoggedInEvent event)
     {
         UsernameCache.setUsername(event.getPlayer().getUUID(), event.getPlayer().getGameProfile().getName());
+        if (event.getPlayer() instanceof ServerPlayerEntity)
+            PlayerSpatialIndex.update((ServerPlayerEntity)event.getPlayer());
+    }
+
+    @SubscribeEvent
+    public void playerLogout(PlayerEvent.PlayerLoggedOutEvent event)
+    {
+        if (event.getPlayer() instanceof ServerPlayerEntity)
+            PlayerSpatialIndex.remove((ServerPlayerEntity)event.getPlayer());
+    }
+
+    @SubscribeEvent
+    public void playerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event)
+    {
+        if (event.getPlayer() instanceof ServerPlayerEntity)
+            PlayerSpatialIndex.update((ServerPlayerEntity)event.getPlayer());
+    }
+
+    @SubscribeEvent
+    public void playerRespawn(PlayerEvent.PlayerRespawnEvent event)
+    {
+        if (event.getPlayer() instanceof ServerPlayerEntity)
+            PlayerSpatialIndex.update((ServerPlayerEntity)event.getPlayer());
+    }
+
+    @SubscribeEvent
+    public void enteringChunk(EntityEvent.EnteringChunk event)
+    {
+        if (event.getEntity() instanceof ServerPlayerEntity)
+            PlayerSpatialIndex.update((ServerPlayerEntity)event.getEntity());
+    }
+
+    @SubscribeEvent
+    public void serverStopped(FMLServerStoppedEvent event)
+    {
+        PlayerSpatialIndex.clear();
     }
 
     @SubscribeEvent
     public synchronized void tagsUpdated(TagsUpdatedEvent.VanillaTagTypes event)
     {
         ForgeHooks.updateBurns();
+        RecipeIndex.invalidateAll();
     }
 
     @SubscribeEvent
@@ -20,68 +20,286 @@
 package net.minecraftforge.common;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs {@link IWorker}s in the time left over at the end of each server tick.
+ *
+ * <p>The budget is whatever remains of the 50ms tick, measured from the start of the tick, but never less than 10ms so
+ * workers still progress while the server is lagging. Within a tick workers are scheduled fairly: the worker that has
+ * used the least time, weighted by {@link IWorker#getPriority()}, runs next. Workers that can do part of their job
+ * without touching the world may {@link IWorker#prepare() prepare} it on a background thread, and are only called on the
+ * server thread once that has finished.
+ */
 public class WorldWorkerManager
 {
-    private static List<IWorker> workers = new ArrayList<IWorker>();
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MIN_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10); //If ticks are lagging, give us at least 10ms to do something.
+    private static final int MIN_PRIORITY = -5;
+    private static final int MAX_PRIORITY = 5;
+    private static final long BASE_WEIGHT = 1L << -MIN_PRIORITY;
+
+    private static final Queue<IWorker> pending = new ConcurrentLinkedQueue<>();
+    // Only touched on the server thread
+    private static final List<Worker> workers = new ArrayList<>();
+    private static volatile boolean clearRequested = false;
+    private static ExecutorService executor;
     private static long startTime = -1;
-    private static int index = 0;
+    private static long tickCount = 0;
 
     public static void tick(boolean start)
     {
         if (start)
         {
-            startTime = System.currentTimeMillis();
+            startTime = System.nanoTime();
             return;
         }
 
-        index = 0;
-        IWorker task = getNext();
-        if (task == null)
+        tickCount++;
+        if (clearRequested)
+        {
+            clearRequested = false;
+            workers.clear();
+        }
+        for (IWorker worker; (worker = pending.poll()) != null; )
+            workers.add(new Worker(worker, getMinRuntime()));
+        if (workers.isEmpty())
             return;
 
-        long time = 50 - (System.currentTimeMillis() - startTime);
-        if (time < 10)
-            time = 10; //If ticks are lagging, give us at least 10ms to do something.
-        time += System.currentTimeMillis();
+        final long now = System.nanoTime();
+        final long budget = startTime < 0 ? MIN_BUDGET_NANOS : Math.max(MIN_BUDGET_NANOS, TICK_NANOS - (now - startTime));
+        final long deadline = now + budget;
+        workers.forEach(w -> w.yielded = false);
 
-        while (System.currentTimeMillis() < time && task != null)
+        Worker task;
+        while ((task = getNext()) != null)
         {
-            boolean again = task.doWork();
+            final long taskStart = System.nanoTime();
+            final boolean again = task.worker.doWork();
+            final long taskEnd = System.nanoTime();
+            task.recordWork(taskEnd - taskStart);
+
+            if (!task.worker.hasWork())
+                finish(task);
+            else if (!again)
+                task.yielded = true;
 
-            if (!task.hasWork())
+            if (taskEnd - deadline >= 0)
+                break;
+        }
+    }
+
+    /**
+     * Picks the ready worker with the lowest weighted runtime, starting background preparation for any worker that asks
+     * for it along the way.
+     */
+    private static Worker getNext()
+    {
+        Worker ret = null;
+        for (Iterator<Worker> itr = workers.iterator(); itr.hasNext(); )
+        {
+            Worker w = itr.next();
+            if (w.yielded)
+                continue;
+            if (w.preparing != null)
             {
-                remove(task);
-                task = getNext();
+                if (!w.preparing.isDone())
+                    continue;
+                if (!w.completePreparation())
+                {
+                    itr.remove();
+                    continue;
+                }
             }
-            else if (!again)
+            if (!w.worker.hasWork())
             {
-                task = getNext();
+                itr.remove();
+                w.logFinished();
+                continue;
             }
+            if (w.worker.canPrepare())
+            {
+                w.startPreparation(getExecutor());
+                continue;
+            }
+            if (ret == null || w.runtime < ret.runtime)
+                ret = w;
         }
+        return ret;
+    }
+
+    private static void finish(Worker task)
+    {
+        workers.remove(task);
+        task.logFinished();
     }
 
-    public static synchronized void addWorker(IWorker worker)
+    private static long getMinRuntime()
     {
-        workers.add(worker);
+        long min = Long.MAX_VALUE;
+        for (Worker w : workers)
+            min = Math.min(min, w.runtime);
+        return min == Long.MAX_VALUE ? 0 : min;
     }
 
-    private static synchronized IWorker getNext()
+    private static synchronized ExecutorService getExecutor()
     {
-        return workers.size() > index ? workers.get(index++) : null;
+        if (executor == null)
+        {
+            AtomicInteger count = new AtomicInteger(1);
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "Forge World Worker #" + count.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    public static void addWorker(IWorker worker)
+    {
+        pending.add(worker);
     }
 
-    private static synchronized void remove(IWorker worker)
+    /**
+     * @return A snapshot of the statistics of every scheduled worker. Only call from the server thread.
+     */
+    public static List<WorkerStats> getStats()
     {
-        workers.remove(worker);
-        index--;
+        List<WorkerStats> ret = new ArrayList<>();
+        workers.forEach(w -> ret.add(new WorkerStats(w)));
+        return ret;
     }
 
     //Internal only, used to clear everything when the server shuts down.
-    public static synchronized void clear()
+    public static void clear()
     {
-        workers.clear();
+        pending.clear();
+        clearRequested = true;
+    }
+
+    private static class Worker
+    {
+        private final IWorker worker;
+        private final long weight;
+        private final long added = tickCount;
+        private long runtime;
+        private boolean yielded;
+        private CompletableFuture<Long> preparing;
+
+        private long calls;
+        private long workNanos;
+        private long prepares;
+        private long prepareNanos;
+        private long ticksActive;
+        private long lastTick = -1;
+
+        private Worker(IWorker worker, long runtime)
+        {
+            this.worker = worker;
+            int priority = Math.max(MIN_PRIORITY, Math.min(MAX_PRIORITY, worker.getPriority()));
+            this.weight = 1L << (priority - MIN_PRIORITY);
+            this.runtime = runtime;
+        }
+
+        private void recordWork(long nanos)
+        {
+            calls++;
+            workNanos += nanos;
+            runtime += nanos * BASE_WEIGHT / weight;
+            if (lastTick != tickCount)
+            {
+                lastTick = tickCount;
+                ticksActive++;
+            }
+        }
+
+        private void startPreparation(ExecutorService executor)
+        {
+            preparing = CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                worker.prepare();
+                return System.nanoTime() - start;
+            }, executor);
+        }
+
+        /**
+         * @return false if preparation failed and the worker should be dropped
+         */
+        private boolean completePreparation()
+        {
+            try
+            {
+                prepareNanos += preparing.get();
+                prepares++;
+                return true;
+            }
+            catch (InterruptedException | ExecutionException e)
+            {
+                LOGGER.error("World worker {} failed to prepare work, removing it", worker, e);
+                return false;
+            }
+            finally
+            {
+                preparing = null;
+            }
+        }
+
+        private void logFinished()
+        {
+            LOGGER.debug("World worker {} finished: {} calls taking {}ms over {} ticks, {} preparations taking {}ms off thread",
+                    worker, calls, TimeUnit.NANOSECONDS.toMillis(workNanos), ticksActive, prepares, TimeUnit.NANOSECONDS.toMillis(prepareNanos));
+        }
+    }
+
+    public static final class WorkerStats
+    {
+        private final IWorker worker;
+        private final int priority;
+        private final long calls;
+        private final long workNanos;
+        private final long prepares;
+        private final long prepareNanos;
+        private final long ticksActive;
+        private final long ticksScheduled;
+
+        private WorkerStats(Worker w)
+        {
+            this.worker = w.worker;
+            this.priority = w.worker.getPriority();
+            this.calls = w.calls;
+            this.workNanos = w.workNanos;
+            this.prepares = w.prepares;
+            this.prepareNanos = w.prepareNanos;
+            this.ticksActive = w.ticksActive;
+            this.ticksScheduled = tickCount - w.added;
+        }
+
+        public IWorker getWorker() { return worker; }
+        public int getPriority() { return priority; }
+        /** Number of {@link IWorker#doWork()} calls so far */
+        public long getCalls() { return calls; }
+        /** Time spent in {@link IWorker#doWork()} on the server thread */
+        public long getWorkNanos() { return workNanos; }
+        public long getPrepares() { return prepares; }
+        /** Time spent in {@link IWorker#prepare()} off the server thread */
+        public long getPrepareNanos() { return prepareNanos; }
+        /** Ticks in which the worker was called at least once */
+        public long getTicksActive() { return ticksActive; }
+        public long getTicksScheduled() { return ticksScheduled; }
     }
 
     public static interface IWorker
@@ -93,5 +311,31 @@ public class WorldWorkerManager
          * Returning false will skip calling this worker until next tick.
          */
         boolean doWork();
+
+        /**
+         * Relative share of the tick budget this worker gets while competing with others, from -5 to 5. Each step up
+         * doubles the share.
+         */
+        default int getPriority()
+        {
+            return 0;
+        }
+
+        /**
+         * Return true when the worker needs {@link #prepare()} to run before it can continue. Checked on the server
+         * thread before every {@link #doWork()}.
+         */
+        default boolean canPrepare()
+        {
+            return false;
+        }
+
+        /**
+         * Does the part of the work that doesn't touch the world, such as computing what to do next, on a background
+         * thread. {@link #doWork()} is not called until this returns, and sees everything it wrote.
+         */
+        default void prepare()
+        {
+        }
     }
 }
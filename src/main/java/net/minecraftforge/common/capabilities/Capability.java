@@ -90,6 +90,12 @@ public class Capability<T>
      */
     public String getName() { return name; }
 
+    /**
+     * @return A small, dense numeric id assigned by the CapabilityManager when this capability was registered.
+     * Only stable for the lifetime of the game instance, do not persist it.
+     */
+    public int getId() { return id; }
+
     /**
      * @return An instance of the default storage handler. You can safely use this store your default implementation in NBT.
      */
@@ -146,10 +152,12 @@ public class Capability<T>
     private final String name;
     private final IStorage<T> storage;
     private final Callable<? extends T> factory;
+    private final int id;
 
-    Capability(String name, IStorage<T> storage, Callable<? extends T> factory)
+    Capability(String name, IStorage<T> storage, Callable<? extends T> factory, int id)
     {
         this.name = name;
+        this.id = id;
         this.storage = storage;
         this.factory = factory;
     }
@@ -22,8 +22,14 @@ package net.minecraftforge.common.capabilities;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
 
@@ -43,16 +49,26 @@ import net.minecraftforge.common.util.LazyOptional;
  * our handlers using normal if statements.
  *
  * Internally the handlers are baked into arrays for fast iteration.
+ * Providers that declare their {@link ICapabilityProvider#getExposedCapabilities() exposed capabilities}
+ * are additionally indexed by {@link Capability#getId() capability id}, so a query only visits
+ * the providers that could possibly answer it.
  * The ResourceLocations will be used for the NBT Key when serializing.
  */
 @ParametersAreNonnullByDefault
 @MethodsReturnNonnullByDefault
 public final class CapabilityDispatcher implements INBTSerializable<CompoundNBT>, ICapabilityProvider
 {
+    private static final Candidates[] NO_CANDIDATES = new Candidates[0];
+
     private ICapabilityProvider[] caps;
     private INBTSerializable<INBT>[] writers;
     private String[] names;
+    private boolean[] comparable;
     private final List<Runnable> listeners;
+    // Parallel to caps, null entries are providers that did not declare what they expose.
+    private final Set<Capability<?>>[] exposed;
+    // Indexed by Capability id, filled lazily. Stale reads only cause a recompute, so no locking is needed.
+    private Candidates[] lookup = NO_CANDIDATES;
 
     public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list, List<Runnable> listeners)
     {
@@ -91,13 +107,60 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundNBT>
         caps = lstCaps.toArray(new ICapabilityProvider[lstCaps.size()]);
         writers = lstWriters.toArray(new INBTSerializable[lstWriters.size()]);
         names = lstNames.toArray(new String[lstNames.size()]);
+        comparable = new boolean[writers.length];
+        for (int x = 0; x < writers.length; x++)
+        {
+            comparable[x] = writers[x] instanceof IComparableCapabilityProvider;
+        }
+        exposed = new Set[caps.length];
+        for (int x = 0; x < caps.length; x++)
+        {
+            exposed[x] = gatherExposed(caps[x]);
+        }
+    }
+
+    @Nullable
+    private static Set<Capability<?>> gatherExposed(ICapabilityProvider provider)
+    {
+        Collection<Capability<?>> declared = provider.getExposedCapabilities();
+        if (declared == null)
+            return null;
+        Set<Capability<?>> ret = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Capability<?> cap : declared)
+        {
+            if (cap != null)
+                ret.add(cap);
+        }
+        return ret;
     }
 
+    private ICapabilityProvider[] getCandidates(Capability<?> cap)
+    {
+        final int id = cap.getId();
+        Candidates[] table = this.lookup;
+        Candidates ret = id < table.length ? table[id] : null;
+        if (ret == null)
+        {
+            List<ICapabilityProvider> lst = Lists.newArrayList();
+            for (int x = 0; x < caps.length; x++)
+            {
+                if (exposed[x] == null || exposed[x].contains(cap))
+                    lst.add(caps[x]);
+            }
+            ret = new Candidates(lst.size() == caps.length ? caps : lst.toArray(new ICapabilityProvider[lst.size()]));
+            table = id < table.length ? table.clone() : Arrays.copyOf(table, id + 1);
+            table[id] = ret;
+            this.lookup = table;
+        }
+        return ret.providers;
+    }
 
     @Override
     public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side)
     {
-        for (ICapabilityProvider c : caps)
+        //noinspection ConstantConditions
+        final ICapabilityProvider[] candidates = cap == null ? caps : getCandidates(cap); // Mods query with uninjected (null) capabilities, keep that working.
+        for (ICapabilityProvider c : candidates)
         {
             LazyOptional<T> ret = c.getCapability(cap, side);
             //noinspection ConstantConditions
@@ -145,11 +208,48 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundNBT>
     {                                                        // Only compares serializeable caps.
         if (other == null) return this.writers.length == 0;  // Done this way so we can do some pre-checks before doing the costly NBT serialization and compare
         if (this.writers.length == 0) return other.writers.length == 0;
-        return this.serializeNBT().equals(other.serializeNBT());
+        if (!Arrays.equals(this.names, other.names)) return this.serializeNBT().equals(other.serializeNBT()); // Different layouts, compare the whole tree.
+
+        boolean needsNBT = false;
+        for (int x = 0; x < writers.length; x++)  // Providers that opted in first, they can short circuit without allocating.
+        {
+            if (this.comparable[x] && other.comparable[x])
+            {
+                IComparableCapabilityProvider a = (IComparableCapabilityProvider)this.writers[x];
+                IComparableCapabilityProvider b = (IComparableCapabilityProvider)other.writers[x];
+                if (a.getContentHash() != b.getContentHash() || !a.isContentEqual(b))
+                    return false;
+            }
+            else
+            {
+                needsNBT = true;
+            }
+        }
+
+        if (needsNBT)
+        {
+            for (int x = 0; x < writers.length; x++)
+            {
+                if (!(this.comparable[x] && other.comparable[x]) && !Objects.equals(this.writers[x].serializeNBT(), other.writers[x].serializeNBT()))
+                    return false;
+            }
+        }
+        return true;
     }
 
     public void invalidate()
     {
         this.listeners.forEach(Runnable::run);
     }
+
+    // Final field so the array contents are safely published to other threads reading the lookup table.
+    private static final class Candidates
+    {
+        private final ICapabilityProvider[] providers;
+
+        private Candidates(ICapabilityProvider[] providers)
+        {
+            this.providers = providers;
+        }
+    }
 }
@@ -19,6 +19,7 @@
 
 package net.minecraftforge.common.capabilities;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -30,7 +31,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.tileentity.TileEntityType;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
 import net.minecraftforge.forgespi.language.ModFileScanData;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -72,14 +83,122 @@ public enum CapabilityManager
                 throw new IllegalArgumentException("Cannot register a capability implementation multiple times : "+ realName);
             }
 
-            cap = new Capability<>(realName, storage, factory);
+            cap = new Capability<>(realName, storage, factory, providers.size());
             providers.put(realName, cap);
         }
 
-        callbacks.getOrDefault(realName, Collections.emptyList()).forEach(func -> func.apply(cap));
+        final List<Function<Capability<?>, Object>> injectors = callbacks.getOrDefault(realName, Collections.emptyList());
+        final long start = System.nanoTime();
+        injectors.forEach(func -> func.apply(cap));
+        LOGGER.debug(CAPABILITIES, "Injected capability {} into {} targets in {} ms", realName, injectors.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Registers an attacher that is only run for stacks of the given item, before {@link AttachCapabilitiesEvent} is
+     * posted to the event bus. Unlike an event listener, it is not invoked for any other stack, so prefer this when the
+     * attached capabilities only depend on the item.
+     * This method is safe to call during parallel mod loading, and must be called before loading completes.
+     *
+     * @param item The item whose stacks the capabilities are attached to
+     * @param attacher Called with the event of every such stack
+     */
+    public void registerAttacher(Item item, Consumer<AttachCapabilitiesEvent<ItemStack>> attacher)
+    {
+        addAttacher(item, attacher);
+    }
+
+    /**
+     * Registers an attacher that is only run for entities of the given type.
+     * @see #registerAttacher(Item, Consumer)
+     */
+    public void registerAttacher(EntityType<?> type, Consumer<AttachCapabilitiesEvent<Entity>> attacher)
+    {
+        addAttacher(type, attacher);
+    }
+
+    /**
+     * Registers an attacher that is only run for tile entities of the given type.
+     * @see #registerAttacher(Item, Consumer)
+     */
+    public void registerAttacher(TileEntityType<?> type, Consumer<AttachCapabilitiesEvent<TileEntity>> attacher)
+    {
+        addAttacher(type, attacher);
+    }
+
+    private void addAttacher(Object key, Consumer<? extends AttachCapabilitiesEvent<?>> attacher)
+    {
+        Objects.requireNonNull(key, "Attempted to register a capability attacher for an invalid type");
+        Objects.requireNonNull(attacher, "Attempted to register an invalid capability attacher");
+        synchronized (pendingAttachers)
+        {
+            if (frozenAttachers != null)
+            {
+                LOGGER.error(CAPABILITIES, "Attempted to register a capability attacher for {} after loading completed", key);
+                throw new IllegalStateException("Registration of capability attachers is frozen");
+            }
+            pendingAttachers.computeIfAbsent(key, k -> new ArrayList<>()).add(attacher);
+        }
+    }
+
+    /**
+     * Runs the attachers registered for the type of the object being created, if any.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void runAttachers(AttachCapabilitiesEvent<?> event)
+    {
+        final Object obj = event.getObject();
+        final Object key;
+        if (obj instanceof ItemStack)
+            key = ((ItemStack) obj).getItem();
+        else if (obj instanceof Entity)
+            key = ((Entity) obj).getType();
+        else if (obj instanceof TileEntity)
+            key = ((TileEntity) obj).getType();
+        else
+            return;
+
+        Consumer[] attachers;
+        final Map<Object, Consumer[]> frozen = frozenAttachers;
+        if (frozen != null)
+        {
+            attachers = frozen.get(key);
+        }
+        else
+        {
+            synchronized (pendingAttachers)
+            {
+                final List<Consumer<?>> list = pendingAttachers.get(key);
+                attachers = list == null ? null : list.toArray(new Consumer[0]);
+            }
+        }
+        if (attachers == null)
+            return;
+        for (Consumer attacher : attachers)
+            attacher.accept(event);
+    }
+
+    /**
+     * Compiles the registered attachers into per-type arrays. Any further registration is an error.
+     */
+    public void freezeAttachers()
+    {
+        synchronized (pendingAttachers)
+        {
+            if (frozenAttachers != null)
+                return;
+            final Reference2ObjectOpenHashMap<Object, Consumer[]> frozen = new Reference2ObjectOpenHashMap<>(pendingAttachers.size());
+            pendingAttachers.forEach((key, list) -> frozen.put(key, list.toArray(new Consumer[0])));
+            frozen.trim();
+            LOGGER.debug(CAPABILITIES, "Froze capability attachers for {} types", frozen.size());
+            pendingAttachers.clear();
+            frozenAttachers = frozen;
+        }
     }
 
     // INTERNAL
+    private final IdentityHashMap<Object, List<Consumer<?>>> pendingAttachers = new IdentityHashMap<>();
+    @SuppressWarnings("rawtypes")
+    private volatile Map<Object, Consumer[]> frozenAttachers;
     private final IdentityHashMap<String, Capability<?>> providers = new IdentityHashMap<>();
     private volatile IdentityHashMap<String, List<Function<Capability<?>, Object>>> callbacks;
     public void injectCapabilities(List<ModFileScanData> data)
@@ -124,13 +243,13 @@ public enum CapabilityManager
                             }
 
                             mtd.setAccessible(true);
-                            mtd.invoke(null, input);
+                            MethodHandles.lookup().unreflect(mtd).invoke(input);
                             return null;
                         }
                     }
                     LOGGER.warn(CAPABILITIES,"Unable to inject capability {} at {}.{} (Method Not Found)", capabilityName, targetClass, targetName);
                 }
-                catch (Exception e)
+                catch (Throwable e)
                 {
                     LOGGER.warn(CAPABILITIES,"Unable to inject capability {} at {}.{}", capabilityName, targetClass, targetName, e);
                 }
@@ -149,9 +268,9 @@ public enum CapabilityManager
                         return null;
                     }
                     field.setAccessible(true);
-                    field.set(null, input);
+                    MethodHandles.lookup().unreflectSetter(field).invoke(input);
                 }
-                catch (Exception e)
+                catch (Throwable e)
                 {
                     LOGGER.warn(CAPABILITIES,"Unable to inject capability {} at {}.{}", capabilityName, targetClass, targetName, e);
                 }
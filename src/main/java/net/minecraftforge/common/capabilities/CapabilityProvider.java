@@ -19,6 +19,9 @@
 
 package net.minecraftforge.common.capabilities;
 
+import java.util.Objects;
+import java.util.function.Supplier;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -26,19 +29,45 @@ import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.Direction;
 import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
 import net.minecraftforge.event.ForgeEventFactory;
 
 @MethodsReturnNonnullByDefault
 @ParametersAreNonnullByDefault
 public abstract class CapabilityProvider<B extends CapabilityProvider<B>> implements ICapabilityProvider
 {
+    private static volatile boolean lazyCapabilities = false;
+
     private final @Nonnull Class<B> baseClass;
+    private final boolean isLazy;
     private @Nullable CapabilityDispatcher capabilities;
     private boolean valid = true;
+    private boolean initialized = true;
+    private @Nullable Supplier<ICapabilityProvider> lazyParent;
+    private @Nullable CompoundNBT lazyData;
 
     protected CapabilityProvider(Class<B> baseClass)
+    {
+        this(baseClass, false);
+    }
+
+    /**
+     * @param isLazy If this provider supports deferring {@link AttachCapabilitiesEvent} until its capabilities are first
+     *               needed. Only takes effect while {@link #setLazyCapabilities(boolean) lazy capabilities} are enabled.
+     */
+    protected CapabilityProvider(Class<B> baseClass, boolean isLazy)
     {
         this.baseClass = baseClass;
+        this.isLazy = isLazy && lazyCapabilities;
+    }
+
+    /**
+     * Enables deferred capability gathering for providers created from now on that support it, see
+     * {@link #lazilyGatherCapabilities(Supplier)}.
+     */
+    public static void setLazyCapabilities(boolean enabled)
+    {
+        lazyCapabilities = enabled;
     }
 
     protected final void gatherCapabilities() { gatherCapabilities(null); }
@@ -46,15 +75,55 @@ public abstract class CapabilityProvider<B extends CapabilityProvider<B>> implem
     protected final void gatherCapabilities(@Nullable ICapabilityProvider parent)
     {
         this.capabilities = ForgeEventFactory.gatherCapabilities(baseClass, this, parent);
+        this.initialized = true;
+    }
+
+    /**
+     * Gathers capabilities like {@link #gatherCapabilities(ICapabilityProvider)}, but if this provider is lazy the
+     * parent is not created and {@link AttachCapabilitiesEvent} is not fired until the capabilities are first queried,
+     * compared or serialized. Data passed to {@link #deserializeCaps(CompoundNBT)} in the meantime is kept, and applied
+     * once they are.
+     *
+     * <p>Attachers of a lazy provider see its state at the time of the first query, not at construction.
+     */
+    protected final void lazilyGatherCapabilities(@Nullable Supplier<ICapabilityProvider> parent)
+    {
+        if (!isLazy)
+        {
+            gatherCapabilities(parent == null ? null : parent.get());
+            return;
+        }
+        this.capabilities = null;
+        this.lazyParent = parent;
+        this.lazyData = null;
+        this.initialized = false;
+    }
+
+    private void initialize()
+    {
+        // Mark first, attachers may query this provider while it is being set up
+        this.initialized = true;
+        final Supplier<ICapabilityProvider> parent = this.lazyParent;
+        final CompoundNBT data = this.lazyData;
+        this.lazyParent = null;
+        this.lazyData = null;
+        this.capabilities = ForgeEventFactory.gatherCapabilities(baseClass, this, parent == null ? null : parent.get());
+        if (data != null && this.capabilities != null)
+            this.capabilities.deserializeNBT(data);
     }
 
     protected final @Nullable CapabilityDispatcher getCapabilities()
     {
+        if (!this.initialized)
+            initialize();
         return this.capabilities;
     }
 
     public final boolean areCapsCompatible(CapabilityProvider<B> other)
     {
+        // Two untouched lazy providers with the same pending data will end up in the same state
+        if (!this.initialized && !other.initialized && Objects.equals(this.lazyData, other.lazyData))
+            return true;
         return areCapsCompatible(other.getCapabilities());
     }
 
@@ -78,6 +147,16 @@ public abstract class CapabilityProvider<B extends CapabilityProvider<B>> implem
         }
     }
 
+    /**
+     * Capability data to seed a copy of this provider with. While a lazy provider has not gathered its capabilities
+     * yet, this is the pending data itself rather than a fresh serialization, shared between both until either of
+     * them initializes. That data must therefore be treated as read only, as it already is by deserializers.
+     */
+    protected final @Nullable CompoundNBT getCapsForCopy()
+    {
+        return this.initialized ? serializeCaps() : this.lazyData;
+    }
+
     protected final @Nullable CompoundNBT serializeCaps()
     {
         final CapabilityDispatcher disp = getCapabilities();
@@ -90,6 +169,11 @@ public abstract class CapabilityProvider<B extends CapabilityProvider<B>> implem
 
     protected final void deserializeCaps(CompoundNBT tag)
     {
+        if (!this.initialized)
+        {
+            this.lazyData = tag;
+            return;
+        }
         final CapabilityDispatcher disp = getCapabilities();
         if (disp != null)
         {
@@ -100,6 +184,8 @@ public abstract class CapabilityProvider<B extends CapabilityProvider<B>> implem
     protected void invalidateCaps()
     {
         this.valid = false;
+        if (!this.initialized)
+            return;
         final CapabilityDispatcher disp = getCapabilities();
         if (disp != null)
             disp.invalidate();
@@ -114,7 +200,9 @@ public abstract class CapabilityProvider<B extends CapabilityProvider<B>> implem
     @Nonnull
     public <T> LazyOptional<T> getCapability(@Nonnull Capability<T> cap, @Nullable Direction side)
     {
+        if (!valid)
+            return LazyOptional.empty();
         final CapabilityDispatcher disp = getCapabilities();
-        return !valid || disp == null ? LazyOptional.empty() : disp.getCapability(cap, side);
+        return disp == null ? LazyOptional.empty() : disp.getCapability(cap, side);
     }
 }
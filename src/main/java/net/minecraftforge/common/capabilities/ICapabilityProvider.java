@@ -19,6 +19,8 @@
 
 package net.minecraftforge.common.capabilities;
 
+import java.util.Collection;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -47,4 +49,21 @@ public interface ICapabilityProvider
     @Nonnull default <T> LazyOptional<T> getCapability(@Nonnull final Capability<T> cap) {
         return getCapability(cap, null);
     }
+
+    /**
+     * Optionally declares every capability this provider can ever expose, on any side.
+     * {@link CapabilityDispatcher} uses this to skip providers that can never answer a query,
+     * so providers attached through the AttachCapabilitiesEvent are encouraged to implement it.
+     *
+     * The returned collection must not change over the lifetime of the provider.
+     * Null entries (capabilities that were never registered) are ignored.
+     *
+     * @return The capabilities this provider may return from {@link #getCapability(Capability, Direction)},
+     *   or null (the default) if it may expose any capability and must always be queried.
+     */
+    @Nullable
+    default Collection<Capability<?>> getExposedCapabilities()
+    {
+        return null;
+    }
 }
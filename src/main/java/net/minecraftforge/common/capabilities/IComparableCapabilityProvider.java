@@ -0,0 +1,48 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.capabilities;
+
+/**
+ * Optional contract for serializable capability providers attached to objects that are compared for equality,
+ * most notably ItemStacks.
+ *
+ * When both sides of a {@link CapabilityDispatcher#areCompatible(CapabilityDispatcher)} check implement this,
+ * the providers are compared directly instead of serializing both to NBT, which is what stacking checks
+ * in hoppers, containers and storage networks would otherwise do on every call.
+ *
+ * Implementations must be consistent with their serialized form: two providers whose NBT would be equal
+ * must be {@link #isContentEqual equal} and have the same {@link #getContentHash content hash}.
+ */
+public interface IComparableCapabilityProvider
+{
+    /**
+     * A hash of the data this provider would serialize, used to reject unequal providers cheaply.
+     * This is called frequently, so implementations are encouraged to cache it and reset the cache when their data changes.
+     *
+     * @return The content hash.
+     */
+    int getContentHash();
+
+    /**
+     * @param other The provider in the same position of the other object's capabilities. May be of a different class.
+     * @return True if this provider would serialize to the same data as the other.
+     */
+    boolean isContentEqual(IComparableCapabilityProvider other);
+}
@@ -0,0 +1,288 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.crafting;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.BlastingRecipe;
+import net.minecraft.item.crafting.CampfireCookingRecipe;
+import net.minecraft.item.crafting.FurnaceRecipe;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.IRecipeType;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraft.item.crafting.RecipeManager;
+import net.minecraft.item.crafting.ShapedRecipe;
+import net.minecraft.item.crafting.ShapelessRecipe;
+import net.minecraft.item.crafting.SmokingRecipe;
+import net.minecraft.item.crafting.StonecuttingRecipe;
+import net.minecraft.tags.ITag;
+import net.minecraft.world.World;
+
+/**
+ * An index from items to the recipes of a {@link RecipeManager} they can take part in, per recipe type.
+ *
+ * <p>A recipe is indexed under the items of its most selective ingredient, so it is only tested against inventories
+ * holding one of them. That is only sound when every non-empty ingredient has to be matched and when the items an
+ * ingredient accepts are known, so only the vanilla recipe classes and vanilla, {@link NBTIngredient} and
+ * {@link CompoundIngredient} ingredients are indexed. Every other recipe is tested against every inventory, as before.
+ *
+ * <p>Indexes are built on first use and dropped when tags or recipes are updated.
+ */
+public class RecipeIndex
+{
+    private static final Set<Class<?>> INDEXED_RECIPES = ImmutableSet.of(ShapedRecipe.class, ShapelessRecipe.class, FurnaceRecipe.class,
+            BlastingRecipe.class, SmokingRecipe.class, CampfireCookingRecipe.class, StonecuttingRecipe.class);
+    private static final Map<RecipeManager, RecipeIndex> INDEXES = new MapMaker().weakKeys().makeMap();
+
+    private final RecipeManager manager;
+    private final Map<IRecipeType<?>, TypeIndex<?>> types = new ConcurrentHashMap<>();
+    private final Map<IInventory, IRecipe<?>> lastMatched = new MapMaker().weakKeys().makeMap();
+
+    private RecipeIndex(RecipeManager manager)
+    {
+        this.manager = manager;
+    }
+
+    public static RecipeIndex get(RecipeManager manager)
+    {
+        return INDEXES.computeIfAbsent(manager, RecipeIndex::new);
+    }
+
+    /**
+     * Drops the index of the manager, called when its recipes are replaced.
+     * @apiNote Internal
+     */
+    public static void invalidate(RecipeManager manager)
+    {
+        INDEXES.remove(manager);
+    }
+
+    /**
+     * Drops all indexes, called when tags are updated as that changes the items of tag ingredients.
+     * @apiNote Internal
+     */
+    public static void invalidateAll()
+    {
+        INDEXES.clear();
+    }
+
+    /**
+     * Finds the first recipe of the type that matches the inventory, like {@link RecipeManager#getRecipeFor(IRecipeType, IInventory, World)},
+     * but only tests the recipes that can match the items in it.
+     */
+    public <C extends IInventory, T extends IRecipe<C>> Optional<T> getRecipeFor(IRecipeType<T> type, C inventory, World world)
+    {
+        TypeIndex<T> index = getIndex(type);
+        BitSet candidates = index.getCandidates(inventory);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1))
+        {
+            Optional<T> match = type.tryMatch(index.recipes.get(i), world, inventory);
+            if (match.isPresent())
+                return match;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Like {@link #getRecipeFor(IRecipeType, IInventory, World)}, but first tests the recipe the inventory matched last
+     * time, which is the common case for machines that keep processing the same input. If the inventory matches more
+     * than one recipe, that may not be the one a fresh lookup would find.
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends IInventory, T extends IRecipe<C>> Optional<T> getCachedRecipeFor(IRecipeType<T> type, C inventory, World world)
+    {
+        IRecipe<?> last = lastMatched.get(inventory);
+        if (last != null && last.getType() == type)
+        {
+            Optional<T> match = type.tryMatch((T) last, world, inventory);
+            if (match.isPresent())
+                return match;
+        }
+        Optional<T> match = getRecipeFor(type, inventory, world);
+        if (match.isPresent())
+            lastMatched.put(inventory, match.get());
+        else
+            lastMatched.remove(inventory);
+        return match;
+    }
+
+    /**
+     * All recipes of the type that an inventory holding the item could match, in lookup order. This includes the recipes
+     * that can not be indexed.
+     */
+    public <C extends IInventory, T extends IRecipe<C>> List<T> getCandidates(IRecipeType<T> type, Item item)
+    {
+        TypeIndex<T> index = getIndex(type);
+        BitSet candidates = index.getUnindexed();
+        index.addCandidates(item, candidates);
+        return index.toList(candidates);
+    }
+
+    /**
+     * @see #getCandidates(IRecipeType, Item)
+     */
+    public <C extends IInventory, T extends IRecipe<C>> List<T> getCandidates(IRecipeType<T> type, ITag<Item> tag)
+    {
+        TypeIndex<T> index = getIndex(type);
+        BitSet candidates = index.getUnindexed();
+        for (Item item : tag.getValues())
+            index.addCandidates(item, candidates);
+        return index.toList(candidates);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <C extends IInventory, T extends IRecipe<C>> TypeIndex<T> getIndex(IRecipeType<T> type)
+    {
+        return (TypeIndex<T>) types.computeIfAbsent(type, t -> new TypeIndex<>(manager.getAllRecipesFor(type)));
+    }
+
+    /**
+     * The items of the ingredient of the recipe that accepts the fewest, or null if the recipe can not be indexed.
+     */
+    @Nullable
+    private static Set<Item> getKeyItems(IRecipe<?> recipe)
+    {
+        if (!INDEXED_RECIPES.contains(recipe.getClass()))
+            return null;
+        Set<Item> best = null;
+        for (Ingredient ingredient : recipe.getIngredients())
+        {
+            if (ingredient.isEmpty())
+                continue; // Only matches empty slots
+            Set<Item> items = getItems(ingredient);
+            if (items != null && (best == null || items.size() < best.size()))
+                best = items;
+        }
+        return best;
+    }
+
+    /**
+     * The items the ingredient accepts, or null if it could accept others.
+     */
+    @Nullable
+    private static Set<Item> getItems(Ingredient ingredient)
+    {
+        Class<?> cls = ingredient.getClass();
+        Set<Item> items = new ReferenceOpenHashSet<>();
+        if (cls == Ingredient.class || cls == NBTIngredient.class)
+        {
+            for (ItemStack stack : ingredient.getItems())
+                items.add(stack.getItem());
+        }
+        else if (cls == CompoundIngredient.class)
+        {
+            for (Ingredient child : ((CompoundIngredient) ingredient).getChildren())
+            {
+                Set<Item> childItems = getItems(child);
+                if (childItems == null)
+                    return null;
+                items.addAll(childItems);
+            }
+        }
+        else
+        {
+            return null;
+        }
+        return items;
+    }
+
+    private static class TypeIndex<T extends IRecipe<?>>
+    {
+        private final List<T> recipes;
+        private final Map<Item, int[]> byItem;
+        private final BitSet unindexed;
+
+        private TypeIndex(List<T> recipes)
+        {
+            this.recipes = recipes;
+            Reference2ObjectOpenHashMap<Item, IntArrayList> byItem = new Reference2ObjectOpenHashMap<>();
+            this.unindexed = new BitSet(recipes.size());
+            for (int i = 0; i < recipes.size(); i++)
+            {
+                Set<Item> keys = getKeyItems(recipes.get(i));
+                if (keys == null)
+                {
+                    unindexed.set(i);
+                    continue;
+                }
+                for (Item item : keys)
+                    byItem.computeIfAbsent(item, k -> new IntArrayList()).add(i);
+            }
+            Reference2ObjectOpenHashMap<Item, int[]> compiled = new Reference2ObjectOpenHashMap<>(byItem.size());
+            byItem.forEach((item, list) -> compiled.put(item, list.toIntArray()));
+            this.byItem = compiled;
+        }
+
+        private BitSet getUnindexed()
+        {
+            return (BitSet) unindexed.clone();
+        }
+
+        private void addCandidates(Item item, BitSet candidates)
+        {
+            int[] indexed = byItem.get(item);
+            if (indexed != null)
+            {
+                for (int i : indexed)
+                    candidates.set(i);
+            }
+        }
+
+        private BitSet getCandidates(IInventory inventory)
+        {
+            BitSet candidates = getUnindexed();
+            Item previous = null;
+            for (int slot = 0; slot < inventory.getContainerSize(); slot++)
+            {
+                ItemStack stack = inventory.getItem(slot);
+                if (stack.isEmpty() || stack.getItem() == previous)
+                    continue;
+                previous = stack.getItem();
+                addCandidates(previous, candidates);
+            }
+            return candidates;
+        }
+
+        private List<T> toList(BitSet candidates)
+        {
+            List<T> ret = new ArrayList<>(candidates.cardinality());
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1))
+                ret.add(recipes.get(i));
+            return ret;
+        }
+    }
+}
@@ -20,12 +20,14 @@
 package net.minecraftforge.common.extensions;
 
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.world.LargeEntityIndex;
 
 public interface IForgeWorld extends ICapabilityProvider
 {
     /**
      * The maximum radius to scan for entities when trying to check bounding boxes. Vanilla's default is
      * 2.0D But mods that add larger entities may increase this.
+     * Searches only scan vanilla's radius, and find the entities beyond it through the {@link #getLargeEntityIndex()}.
      */
     public double getMaxEntityRadius();
     /**
@@ -36,4 +38,9 @@ public interface IForgeWorld extends ICapabilityProvider
      * @return The new max radius
      */
     public double increaseMaxEntityRadius(double value);
+
+    /**
+     * The entities of this world that reach further than vanilla's search radius from their position.
+     */
+    public LargeEntityIndex getLargeEntityIndex();
 }
@@ -28,8 +28,16 @@ import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.annotation.Nullable;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.loot.LootContext;
 import net.minecraft.loot.LootSerializers;
 import net.minecraft.loot.conditions.ILootCondition;
 import org.apache.commons.io.IOUtils;
@@ -55,7 +63,10 @@ public class LootModifierManager extends JsonReloadListener {
     public static final Logger LOGGER = LogManager.getLogger();
     private static final Gson GSON_INSTANCE = LootSerializers.createFunctionSerializer().create();
 
+    private static final CompiledModifier[] NO_MODIFIERS = new CompiledModifier[0];
+
     private Map<ResourceLocation, IGlobalLootModifier> registeredLootModifiers = ImmutableMap.of();
+    private volatile CompiledModifiers compiledModifiers = new CompiledModifiers(ImmutableMap.of(), NO_MODIFIERS, ImmutableMap.of());
     private static final String folder = "loot_modifiers";
     
     public LootModifierManager() {
@@ -121,6 +132,48 @@ public class LootModifierManager extends JsonReloadListener {
         });
         ImmutableMap<ResourceLocation, IGlobalLootModifier> immutablemap = builder.build();
         this.registeredLootModifiers = immutablemap;
+        this.compiledModifiers = compile(immutablemap);
+    }
+
+    /**
+     * Sorts the modifiers by the loot table a {@link LootTableIdCondition} restricts them to, keeping the layered order
+     * within each table. Modifiers that are not restricted to a table apply to all of them.
+     */
+    private static CompiledModifiers compile(Map<ResourceLocation, IGlobalLootModifier> modifiers) {
+        List<CompiledModifier> unindexed = new ArrayList<>();
+        Map<ResourceLocation, List<CompiledModifier>> byTable = new HashMap<>();
+        Builder<ResourceLocation, ModifierStats> stats = ImmutableMap.builder();
+        modifiers.forEach((location, modifier) -> {
+            CompiledModifier compiled = new CompiledModifier(modifier, new ModifierStats());
+            stats.put(location, compiled.stats);
+            ResourceLocation lootTable = getTargetLootTable(modifier);
+            if (lootTable == null) {
+                unindexed.add(compiled);
+                byTable.values().forEach(list -> list.add(compiled));
+            } else {
+                byTable.computeIfAbsent(lootTable, k -> new ArrayList<>(unindexed)).add(compiled);
+            }
+        });
+        ImmutableMap.Builder<ResourceLocation, CompiledModifier[]> tables = ImmutableMap.builder();
+        byTable.forEach((lootTable, list) -> tables.put(lootTable, list.toArray(NO_MODIFIERS)));
+        CompiledModifiers compiled = new CompiledModifiers(tables.build(), unindexed.toArray(NO_MODIFIERS), stats.build());
+        LOGGER.debug("Indexed {} loot modifiers by {} loot tables, {} apply to all loot tables", modifiers.size(), compiled.byTable.size(), compiled.unindexed.length);
+        return compiled;
+    }
+
+    /**
+     * The loot table a modifier can only apply to, if it is a {@link LootModifier}, which requires all of its conditions
+     * to pass, and has a {@link LootTableIdCondition}.
+     */
+    @Nullable
+    private static ResourceLocation getTargetLootTable(IGlobalLootModifier modifier) {
+        if (!(modifier instanceof LootModifier) || ((LootModifier) modifier).conditions == null)
+            return null;
+        for (ILootCondition condition : ((LootModifier) modifier).conditions) {
+            if (condition instanceof LootTableIdCondition)
+                return ((LootTableIdCondition) condition).getTargetLootTableId();
+        }
+        return null;
     }
 
     private IGlobalLootModifier deserializeModifier(ResourceLocation location, JsonElement element) {
@@ -151,4 +204,61 @@ public class LootModifierManager extends JsonReloadListener {
         return registeredLootModifiers.values();
     }
 
+    /**
+     * Applies the modifiers that may apply to the {@linkplain LootContext#getQueriedLootTableId() queried loot table},
+     * in layered order.
+     */
+    public List<ItemStack> modifyLoot(List<ItemStack> generatedLoot, LootContext context) {
+        CompiledModifiers compiled = this.compiledModifiers;
+        CompiledModifier[] modifiers = compiled.byTable.getOrDefault(context.getQueriedLootTableId(), compiled.unindexed);
+        for (CompiledModifier modifier : modifiers) {
+            long start = System.nanoTime();
+            generatedLoot = modifier.modifier.apply(generatedLoot, context);
+            modifier.stats.record(System.nanoTime() - start);
+        }
+        return generatedLoot;
+    }
+
+    /**
+     * How often each loaded modifier was applied and how long it took, since the last reload.
+     */
+    public Map<ResourceLocation, ModifierStats> getModifierStats() {
+        return compiledModifiers.stats;
+    }
+
+    public static class ModifierStats {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void record(long elapsed) {
+            invocations.increment();
+            nanos.add(elapsed);
+        }
+
+        public long getInvocations() { return invocations.sum(); }
+        public long getTime(TimeUnit unit) { return unit.convert(nanos.sum(), TimeUnit.NANOSECONDS); }
+    }
+
+    private static class CompiledModifier {
+        private final IGlobalLootModifier modifier;
+        private final ModifierStats stats;
+
+        private CompiledModifier(IGlobalLootModifier modifier, ModifierStats stats) {
+            this.modifier = modifier;
+            this.stats = stats;
+        }
+    }
+
+    private static class CompiledModifiers {
+        private final Map<ResourceLocation, CompiledModifier[]> byTable;
+        private final CompiledModifier[] unindexed;
+        private final Map<ResourceLocation, ModifierStats> stats;
+
+        private CompiledModifiers(Map<ResourceLocation, CompiledModifier[]> byTable, CompiledModifier[] unindexed, Map<ResourceLocation, ModifierStats> stats) {
+            this.byTable = byTable;
+            this.unindexed = unindexed;
+            this.stats = stats;
+        }
+    }
+
 }
@@ -42,6 +42,11 @@ public class LootTableIdCondition implements ILootCondition
         this.targetLootTableId = targetLootTableId;
     }
 
+    public ResourceLocation getTargetLootTableId()
+    {
+        return this.targetLootTableId;
+    }
+
     @Override
     public LootConditionType getType()
     {
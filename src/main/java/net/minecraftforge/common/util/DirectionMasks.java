@@ -0,0 +1,85 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.util;
+
+import java.util.EnumSet;
+
+import net.minecraft.util.Direction;
+
+/**
+ * Sets of {@link Direction}s packed into the low six bits of an int, bit {@code 1 << direction.ordinal()} per direction.
+ * Unlike an {@link EnumSet} these can be shared and passed around hot paths without allocating.
+ */
+public final class DirectionMasks
+{
+    private static final Direction[] VALUES = Direction.values();
+    private static final int[] WITHOUT = new int[VALUES.length];
+
+    public static final int NONE = 0;
+    public static final int ALL = (1 << VALUES.length) - 1;
+
+    static
+    {
+        for (Direction direction : VALUES)
+            WITHOUT[direction.ordinal()] = ALL & ~of(direction);
+    }
+
+    private DirectionMasks() {}
+
+    public static int of(Direction direction)
+    {
+        return 1 << direction.ordinal();
+    }
+
+    /**
+     * @return The mask of every direction except the given one
+     */
+    public static int allExcept(Direction direction)
+    {
+        return WITHOUT[direction.ordinal()];
+    }
+
+    public static boolean contains(int mask, Direction direction)
+    {
+        return (mask & of(direction)) != 0;
+    }
+
+    public static int fromSet(EnumSet<Direction> directions)
+    {
+        int mask = NONE;
+        for (Direction direction : directions)
+            mask |= of(direction);
+        return mask;
+    }
+
+    /**
+     * @return A new mutable set of the directions in the mask
+     */
+    public static EnumSet<Direction> toSet(int mask)
+    {
+        EnumSet<Direction> set = EnumSet.noneOf(Direction.class);
+        for (Direction direction : VALUES)
+        {
+            if (contains(mask, direction))
+                set.add(direction);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.World;
+
+/**
+ * Index of the online players of every dimension, bucketed by the chunk column they stand in.
+ *
+ * <p>Lets {@link net.minecraftforge.fml.network.PacketDistributor#NEAR} and
+ * {@link net.minecraftforge.fml.network.PacketDistributor#TRACKING_CHUNK} look at the players around a position
+ * instead of distance checking every player on the server. Buckets are refreshed when a player logs in, changes
+ * dimension or respawns, and whenever their position is set, which covers teleports and movement packets. Buckets are
+ * only as fine as a chunk column, so callers must still check exact positions.
+ *
+ * <p>Only safe to use from the server thread.
+ */
+public class PlayerSpatialIndex
+{
+    private static final Map<RegistryKey<World>, Dimension> DIMENSIONS = new HashMap<>();
+    private static final Map<UUID, Location> LOCATIONS = new HashMap<>();
+
+    private static class Location
+    {
+        private final ServerPlayerEntity player;
+        private final RegistryKey<World> dimension;
+        private final long chunk;
+
+        private Location(ServerPlayerEntity player, RegistryKey<World> dimension, long chunk)
+        {
+            this.player = player;
+            this.dimension = dimension;
+            this.chunk = chunk;
+        }
+    }
+
+    private static class Dimension
+    {
+        private final Long2ObjectMap<List<ServerPlayerEntity>> buckets = new Long2ObjectOpenHashMap<>();
+        private int size;
+
+        private void add(long chunk, ServerPlayerEntity player)
+        {
+            buckets.computeIfAbsent(chunk, k -> new ArrayList<>(2)).add(player);
+            size++;
+        }
+
+        private void remove(long chunk, ServerPlayerEntity player)
+        {
+            List<ServerPlayerEntity> bucket = buckets.get(chunk);
+            if (bucket != null && bucket.remove(player))
+            {
+                size--;
+                if (bucket.isEmpty())
+                    buckets.remove(chunk);
+            }
+        }
+    }
+
+    /**
+     * Moves the player to the bucket of their current dimension and chunk, if it changed.
+     */
+    public static void update(ServerPlayerEntity player)
+    {
+        if (player instanceof FakePlayer || player.connection == null)
+            return;
+        final RegistryKey<World> dimension = player.level.dimension();
+        final long chunk = ChunkPos.asLong(MathHelper.floor(player.getX()) >> 4, MathHelper.floor(player.getZ()) >> 4);
+        final Location old = LOCATIONS.get(player.getUUID());
+        if (old != null)
+        {
+            if (old.player == player && old.dimension == dimension && old.chunk == chunk)
+                return;
+            DIMENSIONS.get(old.dimension).remove(old.chunk, old.player);
+        }
+        DIMENSIONS.computeIfAbsent(dimension, k -> new Dimension()).add(chunk, player);
+        LOCATIONS.put(player.getUUID(), new Location(player, dimension, chunk));
+    }
+
+    public static void remove(ServerPlayerEntity player)
+    {
+        final Location old = LOCATIONS.get(player.getUUID());
+        // A respawn replaces the player entity, only the current one may remove the entry
+        if (old != null && old.player == player)
+        {
+            LOCATIONS.remove(player.getUUID());
+            DIMENSIONS.get(old.dimension).remove(old.chunk, old.player);
+        }
+    }
+
+    public static void clear()
+    {
+        DIMENSIONS.clear();
+        LOCATIONS.clear();
+    }
+
+    /**
+     * Players within {@code radius} blocks of the position, the same set {@link net.minecraft.server.management.PlayerList#broadcast}
+     * would send to.
+     */
+    public static List<ServerPlayerEntity> getPlayersNear(@Nullable ServerPlayerEntity excluded, double x, double y, double z, double radius, RegistryKey<World> dimension)
+    {
+        final Dimension dim = DIMENSIONS.get(dimension);
+        if (dim == null || dim.size == 0)
+            return Collections.emptyList();
+        final double radiusSq = radius * radius;
+        final List<ServerPlayerEntity> ret = new ArrayList<>();
+        forEachCandidate(dim, MathHelper.floor(x - radius) >> 4, MathHelper.floor(z - radius) >> 4, MathHelper.floor(x + radius) >> 4, MathHelper.floor(z + radius) >> 4, player -> {
+            if (player == excluded)
+                return;
+            final double dx = x - player.getX();
+            final double dy = y - player.getY();
+            final double dz = z - player.getZ();
+            if (dx * dx + dy * dy + dz * dz < radiusSq)
+                ret.add(player);
+        });
+        return ret;
+    }
+
+    /**
+     * Players that have the chunk within their view distance, judged by the section the chunk map last placed them
+     * in, like {@code ChunkManager#getPlayers(ChunkPos, false)}.
+     *
+     * @param viewDistance The chunk map's effective view distance
+     */
+    public static List<ServerPlayerEntity> getPlayersTracking(RegistryKey<World> dimension, ChunkPos pos, int viewDistance)
+    {
+        final Dimension dim = DIMENSIONS.get(dimension);
+        if (dim == null || dim.size == 0)
+            return Collections.emptyList();
+        final List<ServerPlayerEntity> ret = new ArrayList<>();
+        // One chunk of slack for players whose last section differs from the chunk we bucketed them in
+        final int range = viewDistance + 1;
+        forEachCandidate(dim, pos.x - range, pos.z - range, pos.x + range, pos.z + range, player -> {
+            final SectionPos section = player.getLastSectionPos();
+            if (Math.max(Math.abs(section.x() - pos.x), Math.abs(section.z() - pos.z)) <= viewDistance)
+                ret.add(player);
+        });
+        return ret;
+    }
+
+    private static void forEachCandidate(Dimension dim, int minX, int minZ, int maxX, int maxZ, Consumer<ServerPlayerEntity> consumer)
+    {
+        final long columns = (long)(maxX - minX + 1) * (maxZ - minZ + 1);
+        if (columns >= dim.buckets.size())
+        {
+            // Covering more columns than there are occupied buckets, walking the buckets is cheaper
+            for (Long2ObjectMap.Entry<List<ServerPlayerEntity>> entry : dim.buckets.long2ObjectEntrySet())
+            {
+                final long key = entry.getLongKey();
+                final int cx = ChunkPos.getX(key);
+                final int cz = ChunkPos.getZ(key);
+                if (cx >= minX && cx <= maxX && cz >= minZ && cz <= maxZ)
+                    entry.getValue().forEach(consumer);
+            }
+            return;
+        }
+        for (int cx = minX; cx <= maxX; cx++)
+        {
+            for (int cz = minZ; cz <= maxZ; cz++)
+            {
+                final List<ServerPlayerEntity> bucket = dim.buckets.get(ChunkPos.asLong(cx, cz));
+                if (bucket != null)
+                    bucket.forEach(consumer);
+            }
+        }
+    }
+}
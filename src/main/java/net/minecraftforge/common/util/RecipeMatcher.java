@@ -19,10 +19,8 @@
 
 package net.minecraftforge.common.util;
 
-import java.util.BitSet;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 import java.util.function.Predicate;
 
 public class RecipeMatcher
@@ -35,6 +33,9 @@ public class RecipeMatcher
      *   any test doesn't match a input
      *   If we are unable to determine a proper pair
      *
+     * Every test is run against every input at most once, and tests that appear several times (by identity) only once.
+     * The pairing is then found as a maximum bipartite matching, in polynomial time.
+     *
      * @return An array mapping inputs to tests. ret[x] = y means input[x] = test[y]
      */
     public static <T> int[] findMatches(List<T> inputs, List<? extends Predicate<T>> tests)
@@ -43,120 +44,172 @@ public class RecipeMatcher
         if (elements != tests.size())
             return null; // There will not be a 1:1 mapping of inputs -> tests
 
-        int[] ret = new int[elements];
-        for (int x = 0; x < elements; x++)
-            ret[x] = -1;
+        int[][] matches = buildMatches(inputs, tests, elements);
+        if (matches == null)
+            return null;
+
+        return new Matching(matches, elements).find();
+    }
+
+    /**
+     * Builds the inputs each test matches, or returns null if a test or an input has no match at all.
+     */
+    private static <T> int[][] buildMatches(List<T> inputs, List<? extends Predicate<T>> tests, int elements)
+    {
+        int[][] matches = new int[elements][];
+        boolean[] inputUsed = new boolean[elements];
+        int[] buffer = new int[elements];
 
-        // [UnusedInputs] [UnusedIngredients] [IngredientMatchMask]...
-        BitSet data = new BitSet((elements + 2) * elements);
         for (int x = 0; x < elements; x++)
         {
-            int matched = 0;
-            int offset = (x + 2) * elements;
             Predicate<T> test = tests.get(x);
+            for (int prev = 0; prev < x; prev++)
+            {
+                if (tests.get(prev) == test)
+                {
+                    matches[x] = matches[prev];
+                    break;
+                }
+            }
+            if (matches[x] != null)
+                continue;
 
+            int matched = 0;
             for (int y = 0; y < elements; y++)
             {
-                if (data.get(y))
-                    continue;
-
                 if (test.test(inputs.get(y)))
                 {
-                    data.set(offset + y);
-                    matched++;
+                    buffer[matched++] = y;
+                    inputUsed[y] = true;
                 }
             }
 
             if (matched == 0)
                 return null; //We have an test that matched non of the inputs
 
-            if (matched == 1)
-            {
-                if (!claim(ret, data, x, elements))
-                    return null; //We failed to claim this index, which means it caused something else to go to 0 matches, which makes the whole thing fail
-            }
+            matches[x] = Arrays.copyOf(buffer, matched);
         }
 
-        if (data.nextClearBit(0) >= elements) //All items have been used, which means all tests have a match!
-            return ret;
-
-        // We should be in a state where multiple tests are satified by multiple inputs. So we need to try a branching recursive test.
-        // However for performance reasons, we should probably make that check a sub-set of the entire graph.
-        if (backtrack(data, ret, 0, elements))
-            return ret;
-
-        return null; //Backtrack failed, no matches, we cry and go home now :(
+        for (int y = 0; y < elements; y++)
+        {
+            if (!inputUsed[y])
+                return null; //We have an input that no test matched
+        }
+        return matches;
     }
 
-    // This is bad... need to think of a better cascade, recursion instead of stack?
-    private static boolean claim(int[] ret, BitSet data, int claimed, int elements)
+    /**
+     * Hopcroft-Karp maximum bipartite matching between tests and the inputs they match.
+     */
+    private static class Matching
     {
-        Queue<Integer> pending = new LinkedList<Integer>();
-        pending.add(claimed);
-
-        while (pending.peek() != null)
-        {
-            int test = pending.poll();
-            int offset = (test + 2) * elements;
-            int used = data.nextSetBit(offset) - offset;
+        private static final int FREE = -1;
+        private static final int INFINITE = Integer.MAX_VALUE;
 
-            if (used >= elements || used < 0)
-                throw new IllegalStateException("What? We matched something, but it wasn't set in the range of this test! Test: " + test +  " Used: " + used);
+        private final int[][] matches;
+        private final int elements;
+        private final int[] testToInput;
+        private final int[] inputToTest;
+        private final int[] distance;
+        private final int[] queue;
 
-            data.set(used);
-            data.set(elements + test);
-            ret[used] = test;
+        private Matching(int[][] matches, int elements)
+        {
+            this.matches = matches;
+            this.elements = elements;
+            this.testToInput = new int[elements];
+            this.inputToTest = new int[elements];
+            this.distance = new int[elements];
+            this.queue = new int[elements];
+            Arrays.fill(testToInput, FREE);
+            Arrays.fill(inputToTest, FREE);
+        }
 
-            for (int x = 0; x < elements; x++)
+        private int[] find()
+        {
+            // Greedily pair what we can first, usually that is everything
+            int matched = 0;
+            for (int test = 0; test < elements; test++)
             {
-                offset = (x + 2) * elements;
-                if (data.get(offset + used) && !data.get(elements + x))
+                for (int input : matches[test])
                 {
-                    data.clear(offset + used);
-                    int count = 0;
-                    for (int y = offset; y < offset + elements; y++)
-                        if (data.get(y))
-                            count++;
-
-                    if (count == 0)
-                        return false; //Claiming this caused another test to lose its last match..
-
-                    if (count == 1)
-                        pending.add(x);
+                    if (inputToTest[input] == FREE)
+                    {
+                        inputToTest[input] = test;
+                        testToInput[test] = input;
+                        matched++;
+                        break;
+                    }
                 }
             }
-        }
 
-        return true;
-    }
-
-    //We use recursion here, why? Because I feel like it. Also because we should only ever be working in data sets < 9
-    private static boolean backtrack(BitSet data, int[] ret, int start, int elements)
-    {
-      int test = data.nextClearBit(elements + start) - elements;
-      if (test >= elements)
-        return true; //Could not find the next unused test.
+            while (matched < elements && layer())
+            {
+                for (int test = 0; test < elements; test++)
+                {
+                    if (testToInput[test] == FREE && augment(test))
+                        matched++;
+                }
+            }
 
-      if (test < 0)
-        throw new IllegalStateException("This should never happen, negative test in backtrack!");
+            return matched == elements ? inputToTest : null;
+        }
 
-      int offset = (test + 2) * elements;
-      for (int x = 0; x < elements; x++)
-      {
-        if (!data.get(offset + x) || data.get(x))
-            continue;
+        /**
+         * Breadth first search from the free tests along alternating paths, setting the distance of each test reached.
+         * @return If a free input can be reached
+         */
+        private boolean layer()
+        {
+            int head = 0, tail = 0;
+            for (int test = 0; test < elements; test++)
+            {
+                if (testToInput[test] == FREE)
+                {
+                    distance[test] = 0;
+                    queue[tail++] = test;
+                }
+                else
+                    distance[test] = INFINITE;
+            }
 
-        data.set(x);
+            boolean found = false;
+            while (head < tail)
+            {
+                int test = queue[head++];
+                for (int input : matches[test])
+                {
+                    int next = inputToTest[input];
+                    if (next == FREE)
+                        found = true;
+                    else if (distance[next] == INFINITE)
+                    {
+                        distance[next] = distance[test] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return found;
+        }
 
-        if (backtrack(data, ret, test + 1, elements))
+        /**
+         * Depth first search along the layers for an augmenting path from the test, flipping it if found.
+         * The depth is bounded by the number of tests, which is small for any recipe.
+         */
+        private boolean augment(int test)
         {
-            ret[x] = test;
-            return true;
+            for (int input : matches[test])
+            {
+                int next = inputToTest[input];
+                if (next == FREE || (distance[next] == distance[test] + 1 && augment(next)))
+                {
+                    inputToTest[input] = test;
+                    testToInput[test] = input;
+                    return true;
+                }
+            }
+            distance[test] = INFINITE;
+            return false;
         }
-
-        data.clear(x);
-      }
-
-      return false;
     }
 }
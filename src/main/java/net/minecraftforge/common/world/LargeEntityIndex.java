@@ -0,0 +1,275 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.world;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.entity.PartEntity;
+
+/**
+ * Tracks the entities of a world whose bounding box reaches further than vanilla's search radius of
+ * {@value #VANILLA_RADIUS} blocks from their position.
+ *
+ * <p>Entity searches only scan the chunk sections within vanilla's radius of the searched box, and then consult this
+ * index for the large entities that a scan widened by {@link World#getMaxEntityRadius()} would have found. That gives the
+ * same results as widening every scan, without scanning the extra sections when no large entity is loaded.
+ *
+ * <p>Entities are indexed by the chunk section they are in, so a search only visits the sections its widened range adds.
+ * They are indexed when they enter a chunk section and when their dimensions change, and removed when they leave
+ * their section or the world. An entity that sets a bounding box larger than its dimensions is picked up the next time
+ * it moves to another section.
+ */
+public class LargeEntityIndex
+{
+    public static final double VANILLA_RADIUS = 2.0D;
+    // Chunk#getEntitySections() has one section per 16 blocks of build height
+    private static final int SECTION_COUNT = 16;
+
+    private final World world;
+    private final Long2ObjectOpenHashMap<ReferenceOpenHashSet<Entity>> sections = new Long2ObjectOpenHashMap<>();
+    private final Reference2LongOpenHashMap<Entity> indexed = new Reference2LongOpenHashMap<>();
+
+    public LargeEntityIndex(World world)
+    {
+        this.world = world;
+    }
+
+    public void update(Entity entity)
+    {
+        if (!isLarge(entity))
+        {
+            remove(entity);
+            return;
+        }
+
+        long section = SectionPos.asLong(entity.xChunk, entity.yChunk, entity.zChunk);
+        if (indexed.containsKey(entity))
+        {
+            long previous = indexed.put(entity, section);
+            if (previous == section)
+                return;
+            removeFromSection(entity, previous);
+        }
+        else
+        {
+            indexed.put(entity, section);
+        }
+
+        ReferenceOpenHashSet<Entity> entities = sections.get(section);
+        if (entities == null)
+            sections.put(section, entities = new ReferenceOpenHashSet<>());
+        entities.add(entity);
+    }
+
+    public void remove(Entity entity)
+    {
+        if (indexed.containsKey(entity))
+            removeFromSection(entity, indexed.removeLong(entity));
+    }
+
+    private void removeFromSection(Entity entity, long section)
+    {
+        ReferenceOpenHashSet<Entity> entities = sections.get(section);
+        if (entities != null && entities.remove(entity) && entities.isEmpty())
+            sections.remove(section);
+    }
+
+    public int size()
+    {
+        return indexed.size();
+    }
+
+    /**
+     * Adds the large entities {@link Chunk#getEntities(Entity, AxisAlignedBB, List, Predicate)} would have found in the
+     * chunks around the box that only a search widened to the max entity radius reaches.
+     */
+    public void getEntities(@Nullable Entity except, AxisAlignedBB box, @Nullable Predicate<? super Entity> filter, List<Entity> out)
+    {
+        for (Entity entity : getCandidates(box, false))
+        {
+            if (entity != except && entity.getBoundingBox().intersects(box) && (filter == null || filter.test(entity)))
+                out.add(entity);
+
+            if (entity.isMultipartEntity())
+            {
+                for (PartEntity<?> part : entity.getParts())
+                {
+                    if (part != except && part.getBoundingBox().intersects(box) && (filter == null || filter.test(part)))
+                        out.add(part);
+                }
+            }
+        }
+    }
+
+    /**
+     * @see #getEntities(Entity, AxisAlignedBB, Predicate, List)
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Entity> void getEntities(@Nullable EntityType<?> type, AxisAlignedBB box, Predicate<? super T> filter, List<? super T> out)
+    {
+        for (Entity entity : getCandidates(box, true))
+        {
+            if (type == null || entity.getType() == type)
+            {
+                T t = (T) entity;
+                if (entity.getBoundingBox().intersects(box) && filter.test(t))
+                    out.add(t);
+            }
+        }
+    }
+
+    /**
+     * @see #getEntities(Entity, AxisAlignedBB, Predicate, List)
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Entity> void getEntitiesOfClass(Class<? extends T> clazz, AxisAlignedBB box, @Nullable Predicate<? super T> filter, List<? super T> out)
+    {
+        for (Entity entity : getCandidates(box, true))
+        {
+            if (clazz.isInstance(entity) && entity.getBoundingBox().intersects(box) && (filter == null || filter.test((T) entity)))
+                out.add((T) entity);
+        }
+    }
+
+    private List<Entity> getCandidates(AxisAlignedBB box, boolean roundMaxUp)
+    {
+        final double radius = world.getMaxEntityRadius();
+        if (indexed.isEmpty() || radius <= VANILLA_RADIUS)
+            return Collections.emptyList();
+
+        // Collected first, as filters may add or remove entities
+        List<Entity> candidates = new ArrayList<>();
+        int minX = MathHelper.floor((box.minX - radius) / 16.0D);
+        int minZ = MathHelper.floor((box.minZ - radius) / 16.0D);
+        int maxX = roundMaxUp ? MathHelper.ceil((box.maxX + radius) / 16.0D) - 1 : MathHelper.floor((box.maxX + radius) / 16.0D);
+        int maxZ = roundMaxUp ? MathHelper.ceil((box.maxZ + radius) / 16.0D) - 1 : MathHelper.floor((box.maxZ + radius) / 16.0D);
+        int minY = MathHelper.clamp(MathHelper.floor((box.minY - radius) / 16.0D), 0, SECTION_COUNT - 1);
+        int maxY = MathHelper.clamp(MathHelper.floor((box.maxY + radius) / 16.0D), 0, SECTION_COUNT - 1);
+        long searched = (long) Math.max(0, maxX - minX + 1) * Math.max(0, maxZ - minZ + 1) * (maxY - minY + 1);
+
+        if (searched <= sections.size())
+        {
+            for (int x = minX; x <= maxX; x++)
+            {
+                for (int z = minZ; z <= maxZ; z++)
+                {
+                    for (int y = minY; y <= maxY; y++)
+                    {
+                        ReferenceOpenHashSet<Entity> entities = sections.get(SectionPos.asLong(x, y, z));
+                        if (entities != null && !isInSearchRange(x, y, z, box, VANILLA_RADIUS, roundMaxUp, SECTION_COUNT))
+                            candidates.addAll(entities);
+                    }
+                }
+            }
+        }
+        else
+        {
+            for (Long2ObjectMap.Entry<ReferenceOpenHashSet<Entity>> entry : sections.long2ObjectEntrySet())
+            {
+                long section = entry.getLongKey();
+                int x = SectionPos.x(section), y = SectionPos.y(section), z = SectionPos.z(section);
+                if (isInSearchRange(x, y, z, box, radius, roundMaxUp, SECTION_COUNT) && !isInSearchRange(x, y, z, box, VANILLA_RADIUS, roundMaxUp, SECTION_COUNT))
+                    candidates.addAll(entry.getValue());
+            }
+        }
+
+        candidates.removeIf(entity -> {
+            Chunk chunk = world.getChunkSource().getChunk(entity.xChunk, entity.zChunk, false);
+            if (chunk == null)
+                return true;
+            ClassInheritanceMultiMap<Entity>[] entitySections = chunk.getEntitySections();
+            if (entity.yChunk >= 0 && entity.yChunk < entitySections.length && entitySections[entity.yChunk].contains(entity))
+                return false;
+            // No longer in the section it was indexed in, it is indexed again when it enters one
+            remove(entity);
+            return true;
+        });
+        return candidates;
+    }
+
+    private static boolean isLarge(Entity entity)
+    {
+        return entity.getBbWidth() / 2.0D > VANILLA_RADIUS || entity.getBbHeight() > VANILLA_RADIUS
+            || isLarge(entity.getX(), entity.getY(), entity.getZ(), entity.getBoundingBox());
+    }
+
+    /**
+     * If the box reaches further than {@link #VANILLA_RADIUS} from the position in any direction.
+     */
+    static boolean isLarge(double x, double y, double z, AxisAlignedBB box)
+    {
+        return x - box.minX > VANILLA_RADIUS || box.maxX - x > VANILLA_RADIUS
+            || y - box.minY > VANILLA_RADIUS || box.maxY - y > VANILLA_RADIUS
+            || z - box.minZ > VANILLA_RADIUS || box.maxZ - z > VANILLA_RADIUS;
+    }
+
+    /**
+     * If the world's entity searches with the given radius scan the chunk section. Mirrors their bounds: the chunk range
+     * either includes the rounded down upper bound, or excludes the rounded up one, and the section range is clamped.
+     */
+    static boolean isInSearchRange(int chunkX, int sectionY, int chunkZ, AxisAlignedBB box, double radius, boolean roundMaxUp, int sectionCount)
+    {
+        if (chunkX < MathHelper.floor((box.minX - radius) / 16.0D) || chunkZ < MathHelper.floor((box.minZ - radius) / 16.0D))
+            return false;
+        if (roundMaxUp)
+        {
+            if (chunkX >= MathHelper.ceil((box.maxX + radius) / 16.0D) || chunkZ >= MathHelper.ceil((box.maxZ + radius) / 16.0D))
+                return false;
+        }
+        else if (chunkX > MathHelper.floor((box.maxX + radius) / 16.0D) || chunkZ > MathHelper.floor((box.maxZ + radius) / 16.0D))
+        {
+            return false;
+        }
+        int minY = MathHelper.clamp(MathHelper.floor((box.minY - radius) / 16.0D), 0, sectionCount - 1);
+        int maxY = MathHelper.clamp(MathHelper.floor((box.maxY + radius) / 16.0D), 0, sectionCount - 1);
+        return sectionY >= minY && sectionY <= maxY;
+    }
+
+    /**
+     * The number of chunk sections the world's entity searches with the given radius scan, loaded or not.
+     */
+    static int countSearchedSections(AxisAlignedBB box, double radius, boolean roundMaxUp, int sectionCount)
+    {
+        int minX = MathHelper.floor((box.minX - radius) / 16.0D);
+        int minZ = MathHelper.floor((box.minZ - radius) / 16.0D);
+        int maxX = roundMaxUp ? MathHelper.ceil((box.maxX + radius) / 16.0D) - 1 : MathHelper.floor((box.maxX + radius) / 16.0D);
+        int maxZ = roundMaxUp ? MathHelper.ceil((box.maxZ + radius) / 16.0D) - 1 : MathHelper.floor((box.maxZ + radius) / 16.0D);
+        int minY = MathHelper.clamp(MathHelper.floor((box.minY - radius) / 16.0D), 0, sectionCount - 1);
+        int maxY = MathHelper.clamp(MathHelper.floor((box.maxY + radius) / 16.0D), 0, sectionCount - 1);
+        return Math.max(0, maxX - minX + 1) * Math.max(0, maxZ - minZ + 1) * (maxY - minY + 1);
+    }
+}
@@ -21,14 +21,19 @@ package net.minecraftforge.common.world;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.WeakHashMap;
 import javax.annotation.Nullable;
 import net.minecraft.entity.EntityClassification;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.SectionPos;
 import net.minecraft.world.biome.MobSpawnInfo;
 import net.minecraft.world.gen.feature.structure.Structure;
 import net.minecraft.world.gen.feature.structure.StructureManager;
@@ -41,7 +46,14 @@ import net.minecraftforge.registries.ForgeRegistries;
  */
 public class StructureSpawnManager
 {
+    private static final StructureSpawnInfo[] NO_STRUCTURES = new StructureSpawnInfo[0];
     private static Map<Structure<?>, StructureSpawnInfo> structuresWithSpawns = Collections.emptyMap();
+    private static StructureSpawnInfo[] orderedStructures = NO_STRUCTURES;
+    /**
+     * Per structure manager, the structures with spawns that each chunk has references to, in the order they are checked.
+     * Structure references of a chunk are final once it can spawn entities, so entries only go away with the chunk.
+     */
+    private static final Map<StructureManager, Long2ObjectMap<StructureSpawnInfo[]>> chunkStructures = new WeakHashMap<>();
 
     /**
      * Gathers potential entity spawns for all the different registered structures.
@@ -68,6 +80,11 @@ public class StructureSpawnManager
             }
         }
         StructureSpawnManager.structuresWithSpawns = structuresWithSpawns;
+        StructureSpawnManager.orderedStructures = structuresWithSpawns.values().toArray(NO_STRUCTURES);
+        synchronized (chunkStructures)
+        {
+            chunkStructures.clear();
+        }
     }
 
     private static void gatherEntitySpawns(Map<Structure<?>, StructureSpawnInfo> structuresWithSpawns, Structure<?> structure)
@@ -81,7 +98,7 @@ public class StructureSpawnManager
         });
         Map<EntityClassification, List<MobSpawnInfo.Spawners>> entitySpawns = builder.build();
         if (!entitySpawns.isEmpty())
-            structuresWithSpawns.put(structure, new StructureSpawnInfo(entitySpawns, event.isInsideOnly()));
+            structuresWithSpawns.put(structure, new StructureSpawnInfo(structure, entitySpawns, event.isInsideOnly()));
     }
 
     /**
@@ -94,17 +111,83 @@ public class StructureSpawnManager
     @Nullable
     public static List<MobSpawnInfo.Spawners> getStructureSpawns(StructureManager structureManager, EntityClassification classification, BlockPos pos)
     {
-        for (Entry<Structure<?>, StructureSpawnInfo> entry : structuresWithSpawns.entrySet())
+        //Only the structures the chunk has references to can contain the position, and they are kept in the order we check them in
+        for (StructureSpawnInfo spawnInfo : getChunkStructures(structureManager, pos))
         {
-            Structure<?> structure = entry.getKey();
-            StructureSpawnInfo spawnInfo = entry.getValue();
             //Note: We check if the structure has spawns for a type first before looking at the world as it should be a cheaper check
-            if (spawnInfo.spawns.containsKey(classification) && structureManager.getStructureAt(pos, spawnInfo.insideOnly, structure).isValid())
-                return spawnInfo.spawns.get(classification);
+            List<MobSpawnInfo.Spawners> spawns = spawnInfo.spawns.get(classification);
+            if (spawns != null && structureManager.getStructureAt(pos, spawnInfo.insideOnly, spawnInfo.structure).isValid())
+                return spawns;
         }
         return null;
     }
 
+    private static StructureSpawnInfo[] getChunkStructures(StructureManager structureManager, BlockPos pos)
+    {
+        final StructureSpawnInfo[] ordered = orderedStructures;
+        if (ordered.length == 0)
+            return NO_STRUCTURES;
+        final long chunk = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        Long2ObjectMap<StructureSpawnInfo[]> cache;
+        synchronized (chunkStructures)
+        {
+            cache = chunkStructures.computeIfAbsent(structureManager, k -> new Long2ObjectOpenHashMap<>());
+        }
+        synchronized (cache)
+        {
+            StructureSpawnInfo[] structures = cache.get(chunk);
+            if (structures != null)
+                return structures;
+        }
+
+        final SectionPos section = SectionPos.of(pos);
+        final List<StructureSpawnInfo> referenced = new ArrayList<>();
+        for (StructureSpawnInfo spawnInfo : ordered)
+        {
+            if (structureManager.startsForFeature(section, spawnInfo.structure).findAny().isPresent())
+                referenced.add(spawnInfo);
+        }
+        final StructureSpawnInfo[] structures = referenced.isEmpty() ? NO_STRUCTURES : referenced.toArray(NO_STRUCTURES);
+        synchronized (cache)
+        {
+            // The manager may have been dropped while we were looking, which only costs us a lookup next time
+            cache.put(chunk, structures);
+        }
+        return structures;
+    }
+
+    /**
+     * Forgets the structures cached for a chunk, called when it is unloaded.
+     * @apiNote Internal
+     */
+    public static void onChunkUnload(StructureManager structureManager, ChunkPos pos)
+    {
+        Long2ObjectMap<StructureSpawnInfo[]> cache;
+        synchronized (chunkStructures)
+        {
+            cache = chunkStructures.get(structureManager);
+        }
+        if (cache != null)
+        {
+            synchronized (cache)
+            {
+                cache.remove(pos.toLong());
+            }
+        }
+    }
+
+    /**
+     * Forgets the structures cached for all chunks of a world, called when it is unloaded.
+     * @apiNote Internal
+     */
+    public static void onWorldUnload(StructureManager structureManager)
+    {
+        synchronized (chunkStructures)
+        {
+            chunkStructures.remove(structureManager);
+        }
+    }
+
     /**
      * Gets the entity spawn lists for entities of a given classification for a given structure.
      * @param structure      The Structure
@@ -122,11 +205,13 @@ public class StructureSpawnManager
      */
     private static class StructureSpawnInfo
     {
+        private final Structure<?> structure;
         private final Map<EntityClassification, List<MobSpawnInfo.Spawners>> spawns;
         private final boolean insideOnly;
 
-        private StructureSpawnInfo(Map<EntityClassification, List<MobSpawnInfo.Spawners>> spawns, boolean insideOnly)
+        private StructureSpawnInfo(Structure<?> structure, Map<EntityClassification, List<MobSpawnInfo.Spawners>> spawns, boolean insideOnly)
         {
+            this.structure = structure;
             this.spawns = spawns;
             this.insideOnly = insideOnly;
         }
@@ -34,6 +34,9 @@ import net.minecraftforge.eventbus.api.GenericEvent;
  *
  * Please note that as this is fired for ALL object creations efficient code is recommended.
  * And if possible use one of the sub-classes to filter your intended objects.
+ * Capabilities that only depend on the Item, EntityType or TileEntityType of the object are better attached with
+ * {@link net.minecraftforge.common.capabilities.CapabilityManager#registerAttacher(net.minecraft.item.Item, java.util.function.Consumer)
+ * CapabilityManager.registerAttacher}, which is only run for objects of that type.
  */
 public class AttachCapabilitiesEvent<T> extends GenericEvent<T>
 {
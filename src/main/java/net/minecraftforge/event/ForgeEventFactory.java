@@ -20,6 +20,7 @@
 package net.minecraftforge.event;
 
 import java.io.File;
+import java.lang.reflect.Field;
 import java.util.*;
 import java.util.function.Consumer;
 
@@ -94,8 +95,10 @@ import net.minecraftforge.client.event.RenderBlockOverlayEvent.OverlayType;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.ToolType;
 import net.minecraftforge.common.capabilities.CapabilityDispatcher;
+import net.minecraftforge.common.capabilities.CapabilityManager;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
 import net.minecraftforge.common.util.BlockSnapshot;
+import net.minecraftforge.common.util.DirectionMasks;
 import net.minecraftforge.event.brewing.PlayerBrewedPotionEvent;
 import net.minecraftforge.event.brewing.PotionBrewEvent;
 import net.minecraftforge.event.entity.EntityEvent;
@@ -145,11 +148,18 @@ import net.minecraftforge.event.world.PistonEvent;
 import net.minecraftforge.event.world.SaplingGrowTreeEvent;
 import net.minecraftforge.event.world.SleepFinishedTimeEvent;
 import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.ListenerList;
 import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.eventbus.api.Event.Result;
+import net.minecraftforge.eventbus.api.EventListenerHelper;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventBus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public class ForgeEventFactory
 {
+    private static final Logger LOGGER = LogManager.getLogger();
 
     public static boolean onMultiBlockPlace(@Nullable Entity entity, List<BlockSnapshot> blockSnapshots, Direction direction)
     {
@@ -173,6 +183,76 @@ public class ForgeEventFactory
         return event;
     }
 
+    /**
+     * Fires {@link NeighborNotifyEvent} for the sides in the {@link DirectionMasks direction mask}. When nothing listens
+     * to the event, neither it nor the block state at {@code pos} is created.
+     *
+     * @return If the event was canceled
+     */
+    public static boolean onNeighborNotify(World world, BlockPos pos, int notifiedSides, boolean forceRedstoneUpdate)
+    {
+        if (!hasListeners(NEIGHBOR_NOTIFY_LISTENERS))
+            return false;
+        return MinecraftForge.EVENT_BUS.post(new NeighborNotifyEvent(world, pos, world.getBlockState(pos), notifiedSides, forceRedstoneUpdate));
+    }
+
+    private static final ListenerList NEIGHBOR_NOTIFY_LISTENERS = EventListenerHelper.getListenerList(NeighborNotifyEvent.class);
+    private static final int FORGE_BUS_ID = getBusID(MinecraftForge.EVENT_BUS);
+
+    /**
+     * If the Forge bus may have listeners in the list, including those registered for a super class of its event.
+     * Errs on the side of true if the bus can not be inspected.
+     */
+    private static boolean hasListeners(ListenerList listeners)
+    {
+        return FORGE_BUS_ID < 0 || listeners.getListeners(FORGE_BUS_ID).length > 0;
+    }
+
+    /**
+     * EventBus has no public way to look up the listeners of a bus, so its id is read by reflection. The id is only
+     * trusted once a probe listener registered on the bus is found under it, anything else falls back to always firing.
+     */
+    private static int getBusID(IEventBus bus)
+    {
+        int id;
+        try
+        {
+            Field field = bus.getClass().getDeclaredField("busID");
+            field.setAccessible(true);
+            id = field.getInt(bus);
+        }
+        catch (ReflectiveOperationException | RuntimeException e)
+        {
+            LOGGER.warn("Unable to find the id of the Forge event bus, events will always be fired", e);
+            return -1;
+        }
+
+        Consumer<ListenerProbeEvent> probe = event -> {};
+        try
+        {
+            bus.addListener(EventPriority.NORMAL, false, ListenerProbeEvent.class, probe);
+            if (id >= 0 && EventListenerHelper.getListenerList(ListenerProbeEvent.class).getListeners(id).length > 0)
+                return id;
+            LOGGER.warn("The id {} read from the Forge event bus does not match its listeners, events will always be fired", id);
+        }
+        catch (RuntimeException e)
+        {
+            LOGGER.warn("Unable to check the id {} read from the Forge event bus, events will always be fired", id, e);
+        }
+        finally
+        {
+            bus.unregister(probe);
+        }
+        return -1;
+    }
+
+    /**
+     * Only ever listened to while checking the id of the Forge event bus, never posted.
+     */
+    public static class ListenerProbeEvent extends Event
+    {
+    }
+
     public static boolean doPlayerHarvestCheck(PlayerEntity player, BlockState state, boolean success)
     {
         PlayerEvent.HarvestCheck event = new PlayerEvent.HarvestCheck(player, state, success);
@@ -586,6 +666,7 @@ public class ForgeEventFactory
     @Nullable
     private static CapabilityDispatcher gatherCapabilities(AttachCapabilitiesEvent<?> event, @Nullable ICapabilityProvider parent)
     {
+        CapabilityManager.INSTANCE.runAttachers(event);
         MinecraftForge.EVENT_BUS.post(event);
         return event.getCapabilities().size() > 0 || parent != null ? new CapabilityDispatcher(event.getCapabilities(), event.getListeners(), parent) : null;
     }
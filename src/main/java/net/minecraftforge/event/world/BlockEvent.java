@@ -39,6 +39,7 @@ import net.minecraft.world.World;
 import net.minecraftforge.common.ForgeHooks;
 import net.minecraftforge.common.ToolType;
 import net.minecraftforge.common.util.BlockSnapshot;
+import net.minecraftforge.common.util.DirectionMasks;
 import net.minecraftforge.eventbus.api.Cancelable;
 import net.minecraftforge.eventbus.api.Event;
 
@@ -207,16 +208,30 @@ public class BlockEvent extends Event
     @Cancelable
     public static class NeighborNotifyEvent extends BlockEvent
     {
-        private final EnumSet<Direction> notifiedSides;
+        private final int notifiedSidesMask;
+        @Nullable
+        private EnumSet<Direction> notifiedSides;
         private final boolean forceRedstoneUpdate;
 
         public NeighborNotifyEvent(World world, BlockPos pos, BlockState state, EnumSet<Direction> notifiedSides, boolean forceRedstoneUpdate)
         {
             super(world, pos, state);
+            this.notifiedSidesMask = DirectionMasks.fromSet(notifiedSides);
             this.notifiedSides = notifiedSides;
             this.forceRedstoneUpdate = forceRedstoneUpdate;
         }
 
+        /**
+         * @param notifiedSidesMask The notified sides as a {@link DirectionMasks direction mask}, only turned into a set
+         *                          if a listener asks for it
+         */
+        public NeighborNotifyEvent(World world, BlockPos pos, BlockState state, int notifiedSidesMask, boolean forceRedstoneUpdate)
+        {
+            super(world, pos, state);
+            this.notifiedSidesMask = notifiedSidesMask;
+            this.forceRedstoneUpdate = forceRedstoneUpdate;
+        }
+
         /**
          * Gets a list of directions from the base block that updates will occur upon.
          *
@@ -224,6 +239,8 @@ public class BlockEvent extends Event
          */
         public EnumSet<Direction> getNotifiedSides()
         {
+            if (notifiedSides == null)
+                notifiedSides = DirectionMasks.toSet(notifiedSidesMask);
             return notifiedSides;
         }
 
@@ -218,6 +218,7 @@ public class ModLoader
         dispatchAndHandleError(ModLoadingStage.COMPLETE, syncExecutor, parallelExecutor, periodicTask);
         statusConsumer.ifPresent(c->c.accept("Freezing data"));
         GameData.freezeData();
+        CapabilityManager.INSTANCE.freezeAttachers();
         NetworkRegistry.lock();
         statusConsumer.ifPresent(c->c.accept(String.format("Mod loading complete - %d mods loaded", ModList.get().size())));
     }
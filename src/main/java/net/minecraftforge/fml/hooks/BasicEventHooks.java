@@ -29,6 +29,8 @@ import net.minecraftforge.client.model.animation.Animation;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.fml.network.NetworkDirection;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
 import net.minecraftforge.event.TickEvent;
 
 public class BasicEventHooks
@@ -108,6 +110,7 @@ public class BasicEventHooks
     public static void onPostClientTick()
     {
         MinecraftForge.EVENT_BUS.post(new TickEvent.ClientTickEvent(TickEvent.Phase.END));
+        SimpleChannel.flushBundles(NetworkDirection.PLAY_TO_SERVER);
     }
 
     public static void onPreServerTick()
@@ -118,5 +121,6 @@ public class BasicEventHooks
     public static void onPostServerTick()
     {
         MinecraftForge.EVENT_BUS.post(new TickEvent.ServerTickEvent(TickEvent.Phase.END));
+        SimpleChannel.flushBundles(NetworkDirection.PLAY_TO_CLIENT);
     }
 }
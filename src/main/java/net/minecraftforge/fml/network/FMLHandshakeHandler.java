@@ -31,6 +31,7 @@ import net.minecraftforge.fml.network.simple.SimpleChannel;
 import net.minecraftforge.fml.util.ThreeConsumer;
 import net.minecraftforge.registries.ForgeRegistry;
 import net.minecraftforge.registries.GameData;
+import net.minecraftforge.registries.RegistryManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
@@ -38,7 +39,10 @@ import org.apache.logging.log4j.MarkerManager;
 
 import com.google.common.collect.Maps;
 
+import io.netty.buffer.Unpooled;
+
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
@@ -112,6 +116,12 @@ public class FMLHandshakeHandler {
     private Map<ResourceLocation, ForgeRegistry.Snapshot> registrySnapshots;
     private Set<ResourceLocation> registriesToReceive;
     private Map<ResourceLocation, String> registryHashes;
+    /**
+     * Registry payloads are only built once the client has told us which snapshots it already has cached, so the
+     * handshake must not complete while that reply is outstanding.
+     */
+    private volatile boolean awaitingClientModList;
+    private final Queue<NetworkRegistry.LoginPayload> deferredPayloads = new ConcurrentLinkedQueue<>();
 
     private FMLHandshakeHandler(NetworkManager networkManager, NetworkDirection side)
     {
@@ -125,6 +135,7 @@ public class FMLHandshakeHandler {
             LOGGER.debug(FMLHSMARKER, "Starting new vanilla network connection.");
         } else {
             this.messageList = NetworkRegistry.gatherLoginPayloads(this.direction, false);
+            this.awaitingClientModList = this.direction == NetworkDirection.LOGIN_TO_CLIENT;
             LOGGER.debug(FMLHSMARKER, "Starting new modded network connection. Found {} messages to dispatch.", this.messageList.size());
         }
     }
@@ -179,7 +190,12 @@ public class FMLHandshakeHandler {
             c.get().getNetworkManager().disconnect(new StringTextComponent("Connection closed - mismatched mod channel list"));
             return;
         }
-        FMLNetworkConstants.handshakeChannel.reply(new FMLHandshakeMessages.C2SModListReply(), c.get());
+        this.registriesToReceive = new HashSet<>(serverModList.getRegistries());
+        this.registrySnapshots = Maps.newHashMap();
+        Map<ResourceLocation, String> cached = c.get().getNetworkManager().isMemoryConnection() ? Collections.emptyMap() :
+                RegistrySnapshotCache.load(serverModList.getRegistryHashes(), this.registrySnapshots);
+        this.registriesToReceive.removeAll(cached.keySet());
+        FMLNetworkConstants.handshakeChannel.reply(new FMLHandshakeMessages.C2SModListReply(cached), c.get());
 
         LOGGER.debug(FMLHSMARKER, "Accepted server connection");
         // Set the modded marker on the channel so we know we got packets
@@ -187,9 +203,13 @@ public class FMLHandshakeHandler {
         c.get().getNetworkManager().channel().attr(FMLNetworkConstants.FML_CONNECTION_DATA)
                 .set(new FMLConnectionData(serverModList.getModList(), serverModList.getChannels()));
 
-        this.registriesToReceive = new HashSet<>(serverModList.getRegistries());
-        this.registrySnapshots = Maps.newHashMap();
         LOGGER.debug(REGISTRIES, "Expecting {} registries: {}", ()->this.registriesToReceive.size(), ()->this.registriesToReceive);
+        // Every registry came from the cache, so the server will not send any registry packets to trigger loading
+        if (this.registriesToReceive.isEmpty() && !cached.isEmpty()) {
+            if (!handleRegistryLoading(c)) {
+                LOGGER.error(FMLHSMARKER, "Connection closed, not continuing handshake");
+            }
+        }
     }
 
     <MSG extends IntSupplier> void handleIndexedMessage(MSG message, Supplier<NetworkEvent.Context> c)
@@ -211,15 +231,26 @@ public class FMLHandshakeHandler {
         if (!accepted) {
             LOGGER.error(FMLHSMARKER, "Terminating connection with client, mismatched mod list");
             c.get().getNetworkManager().disconnect(new StringTextComponent("Connection closed - mismatched mod channel list"));
+            this.awaitingClientModList = false;
             return;
         }
         LOGGER.debug(FMLHSMARKER, "Accepted client connection mod list");
+        if (this.awaitingClientModList) {
+            RegistryManager.generateRegistryPackets(false, clientModList.getRegistries()).forEach(p -> {
+                PacketBuffer pb = new PacketBuffer(Unpooled.buffer());
+                FMLNetworkConstants.handshakeChannel.encodeMessage(p.getRight(), pb);
+                this.deferredPayloads.add(new NetworkRegistry.LoginPayload(pb, FMLNetworkConstants.FML_HANDSHAKE_RESOURCE, p.getLeft()));
+            });
+            this.awaitingClientModList = false;
+        }
     }
 
     void handleRegistryMessage(final FMLHandshakeMessages.S2CRegistry registryPacket, final Supplier<NetworkEvent.Context> contextSupplier){
         LOGGER.debug(FMLHSMARKER,"Received registry packet for {}", registryPacket.getRegistryName());
         this.registriesToReceive.remove(registryPacket.getRegistryName());
         this.registrySnapshots.put(registryPacket.getRegistryName(), registryPacket.getSnapshot());
+        if (registryPacket.hasSnapshot() && !contextSupplier.get().getNetworkManager().isMemoryConnection())
+            RegistrySnapshotCache.store(registryPacket.getRegistryName(), registryPacket.getSnapshot());
 
         boolean continueHandshake = true;
         if (this.registriesToReceive.isEmpty()) {
@@ -288,6 +319,13 @@ public class FMLHandshakeHandler {
      */
     public boolean tickServer()
     {
+        if (!deferredPayloads.isEmpty()) {
+            List<NetworkRegistry.LoginPayload> deferred = new ArrayList<>();
+            for (NetworkRegistry.LoginPayload payload; (payload = deferredPayloads.poll()) != null; )
+                deferred.add(payload);
+            messageList.addAll(packetPosition, deferred);
+        }
+
         if (packetPosition < messageList.size()) {
             NetworkRegistry.LoginPayload message = messageList.get(packetPosition);
 
@@ -298,7 +336,7 @@ public class FMLHandshakeHandler {
         }
 
         // we're done when sentMessages is empty
-        if (sentMessages.isEmpty() && packetPosition >= messageList.size()-1) {
+        if (sentMessages.isEmpty() && !awaitingClientModList && deferredPayloads.isEmpty() && packetPosition >= messageList.size()-1) {
             // clear ourselves - we're done!
             this.manager.channel().attr(FMLNetworkConstants.FML_HANDSHAKE_HANDLER).set(null);
             LOGGER.debug(FMLHSMARKER, "Handshake complete!");
@@ -28,6 +28,7 @@ import net.minecraftforge.registries.RegistryManager;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.IntSupplier;
@@ -64,16 +65,16 @@ public class FMLHandshakeMessages
     {
         private List<String> mods;
         private Map<ResourceLocation, String> channels;
-        private List<ResourceLocation> registries;
+        private Map<ResourceLocation, String> registries;
 
         public S2CModList()
         {
             this.mods = ModList.get().getMods().stream().map(ModInfo::getModId).collect(Collectors.toList());
             this.channels = NetworkRegistry.buildChannelVersions();
-            this.registries = RegistryManager.getRegistryNamesForSyncToClient();
+            this.registries = RegistryManager.getRegistryHashesForSyncToClient();
         }
 
-        private S2CModList(List<String> mods, Map<ResourceLocation, String> channels, List<ResourceLocation> registries)
+        private S2CModList(List<String> mods, Map<ResourceLocation, String> channels, Map<ResourceLocation, String> registries)
         {
             this.mods = mods;
             this.channels = channels;
@@ -92,10 +93,10 @@ public class FMLHandshakeMessages
             for (int x = 0; x < len; x++)
                 channels.put(input.readResourceLocation(), input.readUtf(0x100));
 
-            List<ResourceLocation> registries = new ArrayList<>();
+            Map<ResourceLocation, String> registries = new LinkedHashMap<>();
             len = input.readVarInt();
             for (int x = 0; x < len; x++)
-                registries.add(input.readResourceLocation());
+                registries.put(input.readResourceLocation(), input.readUtf(0x100));
 
             return new S2CModList(mods, channels, registries);
         }
@@ -112,7 +113,10 @@ public class FMLHandshakeMessages
             });
 
             output.writeVarInt(registries.size());
-            registries.forEach(output::writeResourceLocation);
+            registries.forEach((k, v) -> {
+                output.writeResourceLocation(k);
+                output.writeUtf(v, 0x100);
+            });
         }
 
         public List<String> getModList() {
@@ -120,6 +124,13 @@ public class FMLHandshakeMessages
         }
 
         public List<ResourceLocation> getRegistries() {
+            return new ArrayList<>(this.registries.keySet());
+        }
+
+        /**
+         * @return The {@link ForgeRegistry.Snapshot#getHash() snapshot hash} of every registry the server will sync
+         */
+        public Map<ResourceLocation, String> getRegistryHashes() {
             return this.registries;
         }
 
@@ -135,10 +146,18 @@ public class FMLHandshakeMessages
         private Map<ResourceLocation, String> registries;
 
         public C2SModListReply()
+        {
+            this(Maps.newHashMap());
+        }
+
+        /**
+         * @param registries The registries the client already holds a cached snapshot for, with their hashes
+         */
+        public C2SModListReply(Map<ResourceLocation, String> registries)
         {
             this.mods = ModList.get().getMods().stream().map(ModInfo::getModId).collect(Collectors.toList());
             this.channels = NetworkRegistry.buildChannelVersions();
-            this.registries = Maps.newHashMap(); //TODO: Fill with known hashes, which requires keeping a file cache
+            this.registries = registries;
         }
 
         private C2SModListReply(List<String> mods, Map<ResourceLocation, String> channels, Map<ResourceLocation, String> registries)
@@ -25,17 +25,23 @@ import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.IPacket;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.RegistryKey;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.server.ServerChunkProvider;
+import net.minecraftforge.common.util.PlayerSpatialIndex;
 import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.LogicalSidedProvider;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
 
 /**
  * Means to distribute packets in various ways
@@ -50,31 +56,31 @@ public class PacketDistributor<T> {
      * <br/>
      * {@link #with(Supplier)} Player
      */
-    public static final PacketDistributor<ServerPlayerEntity> PLAYER = new PacketDistributor<>(PacketDistributor::playerConsumer, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<ServerPlayerEntity> PLAYER = new PacketDistributor<>(PacketDistributor::playerConsumer, PacketDistributor::playerConnection, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to everyone in the dimension specified in the Supplier
      * <br/>
      * {@link #with(Supplier)} DimensionType
      */
-    public static final PacketDistributor<RegistryKey<World>> DIMENSION = new PacketDistributor<>(PacketDistributor::playerListDimConsumer, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<RegistryKey<World>> DIMENSION = new PacketDistributor<>(PacketDistributor::playerListDimConsumer, PacketDistributor::playerListDimConnections, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to everyone near the {@link TargetPoint} specified in the Supplier
      * <br/>
      * {@link #with(Supplier)} TargetPoint
      */
-    public static final PacketDistributor<TargetPoint> NEAR = new PacketDistributor<>(PacketDistributor::playerListPointConsumer, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<TargetPoint> NEAR = new PacketDistributor<>(PacketDistributor::playerListPointConsumer, PacketDistributor::playerListPointConnections, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to everyone
      * <br/>
      * {@link #noArg()}
      */
-    public static final PacketDistributor<Void> ALL = new PacketDistributor<>(PacketDistributor::playerListAll, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<Void> ALL = new PacketDistributor<>(PacketDistributor::playerListAll, PacketDistributor::playerListAllConnections, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to the server (CLIENT to SERVER)
      * <br/>
      * {@link #noArg()}
      */
-    public static final PacketDistributor<Void> SERVER = new PacketDistributor<>(PacketDistributor::clientToServer, NetworkDirection.PLAY_TO_SERVER);
+    public static final PacketDistributor<Void> SERVER = new PacketDistributor<>(PacketDistributor::clientToServer, PacketDistributor::clientToServerConnection, NetworkDirection.PLAY_TO_SERVER);
     /**
      * Send to all tracking the Entity in the Supplier
      * <br/>
@@ -92,13 +98,13 @@ public class PacketDistributor<T> {
      * <br/>
      * {@link #with(Supplier)} Chunk
      */
-    public static final PacketDistributor<Chunk> TRACKING_CHUNK = new PacketDistributor<>(PacketDistributor::trackingChunk, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<Chunk> TRACKING_CHUNK = new PacketDistributor<>(PacketDistributor::trackingChunk, PacketDistributor::trackingChunkConnections, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to the supplied list of NetworkManager instances in the Supplier
      * <br/>
      * {@link #with(Supplier)} List of NetworkManager
      */
-    public static final PacketDistributor<List<NetworkManager>> NMLIST = new PacketDistributor<>(PacketDistributor::networkManagerList, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<List<NetworkManager>> NMLIST = new PacketDistributor<>(PacketDistributor::networkManagerList, PacketDistributor::networkManagerListConnections, NetworkDirection.PLAY_TO_CLIENT);
 
     public static final class TargetPoint {
 
@@ -169,9 +175,12 @@ public class PacketDistributor<T> {
      */
     public static class PacketTarget {
         private final Consumer<IPacket<?>> packetConsumer;
+        @Nullable
+        private final Supplier<List<NetworkManager>> connections;
         private final PacketDistributor<?> distributor;
-        PacketTarget(final Consumer<IPacket<?>> packetConsumer, final PacketDistributor<?> distributor) {
+        PacketTarget(final Consumer<IPacket<?>> packetConsumer, @Nullable final Supplier<List<NetworkManager>> connections, final PacketDistributor<?> distributor) {
             this.packetConsumer = packetConsumer;
+            this.connections = connections;
             this.distributor = distributor;
         }
 
@@ -179,6 +188,34 @@ public class PacketDistributor<T> {
             packetConsumer.accept(packet);
         }
 
+        /**
+         * Resolves the connections this target currently addresses.
+         *
+         * @return The connections, or null if the distributor cannot list its recipients up front
+         */
+        @Nullable
+        public List<NetworkManager> getConnections() {
+            return connections == null ? null : connections.get();
+        }
+
+        /**
+         * Sends a batch of packets, resolving the recipients only once for the whole batch when the distributor can
+         * list them. Each recipient receives the packets in list order.
+         *
+         * @param packets The packets to send
+         */
+        public void sendAll(List<? extends IPacket<?>> packets) {
+            final List<NetworkManager> targets = getConnections();
+            if (targets == null) {
+                packets.forEach(this::send);
+                return;
+            }
+            for (NetworkManager target : targets) {
+                for (IPacket<?> packet : packets)
+                    target.send(packet);
+            }
+        }
+
         public NetworkDirection getDirection() {
             return distributor.direction;
         }
@@ -186,10 +223,22 @@ public class PacketDistributor<T> {
     }
 
     private final BiFunction<PacketDistributor<T>, Supplier<T>, Consumer<IPacket<?>>> functor;
+    @Nullable
+    private final BiFunction<PacketDistributor<T>, Supplier<T>, List<NetworkManager>> connections;
     private final NetworkDirection direction;
 
     public PacketDistributor(BiFunction<PacketDistributor<T>, Supplier<T>, Consumer<IPacket<?>>> functor, NetworkDirection direction) {
+        this(functor, null, direction);
+    }
+
+    /**
+     * @param connections Lists the connections a curried target addresses. Targets that can list their recipients
+     *                    can have messages from a bundling {@link net.minecraftforge.fml.network.simple.SimpleChannel}
+     *                    coalesced per connection.
+     */
+    public PacketDistributor(BiFunction<PacketDistributor<T>, Supplier<T>, Consumer<IPacket<?>>> functor, @Nullable BiFunction<PacketDistributor<T>, Supplier<T>, List<NetworkManager>> connections, NetworkDirection direction) {
         this.functor = functor;
+        this.connections = connections;
         this.direction = direction;
     }
 
@@ -199,7 +248,7 @@ public class PacketDistributor<T> {
      * @return A curried instance
      */
     public PacketTarget with(Supplier<T> input) {
-        return new PacketTarget(functor.apply(this, input), this);
+        return new PacketTarget(functor.apply(this, input), connections == null ? null : () -> connections.apply(this, input), this);
     }
 
     /**
@@ -210,7 +259,7 @@ public class PacketDistributor<T> {
      * @return A curried instance
      */
     public PacketTarget noArg() {
-        return new PacketTarget(functor.apply(this, ()->null), this);
+        return new PacketTarget(functor.apply(this, ()->null), connections == null ? null : () -> connections.apply(this, ()->null), this);
     }
 
     private Consumer<IPacket<?>> playerConsumer(final Supplier<ServerPlayerEntity> entityPlayerMPSupplier) {
@@ -231,7 +280,11 @@ public class PacketDistributor<T> {
     private Consumer<IPacket<?>> playerListPointConsumer(final Supplier<TargetPoint> targetPointSupplier) {
         return p -> {
             final TargetPoint tp = targetPointSupplier.get();
-            getServer().getPlayerList().broadcast(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim, p);
+            final MinecraftServer server = getServer();
+            if (server.isSameThread())
+                PlayerSpatialIndex.getPlayersNear(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim).forEach(e -> e.connection.send(p));
+            else
+                server.getPlayerList().broadcast(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim, p);
         };
     }
 
@@ -250,16 +303,75 @@ public class PacketDistributor<T> {
     }
 
     private Consumer<IPacket<?>> trackingChunk(final Supplier<Chunk> chunkPosSupplier) {
-        return p -> {
-            final Chunk chunk = chunkPosSupplier.get();
-            ((ServerChunkProvider)chunk.getLevel().getChunkSource()).chunkMap.getPlayers(chunk.getPos(), false).forEach(e -> e.connection.send(p));
-        };
+        return p -> getChunkTrackers(chunkPosSupplier.get()).forEach(e -> e.connection.send(p));
+    }
+
+    private static List<ServerPlayerEntity> getChunkTrackers(final Chunk chunk) {
+        final MinecraftServer server = chunk.getLevel().getServer();
+        if (server != null && server.isSameThread()) {
+            // Same clamp ChunkManager applies to the player list view distance
+            final int viewDistance = MathHelper.clamp(server.getPlayerList().getViewDistance() + 1, 3, 33);
+            return PlayerSpatialIndex.getPlayersTracking(chunk.getLevel().dimension(), chunk.getPos(), viewDistance);
+        }
+        return ((ServerChunkProvider)chunk.getLevel().getChunkSource()).chunkMap.getPlayers(chunk.getPos(), false).collect(Collectors.toList());
     }
 
     private Consumer<IPacket<?>> networkManagerList(final Supplier<List<NetworkManager>> nmListSupplier) {
         return p -> nmListSupplier.get().forEach(nm->nm.send(p));
     }
 
+    private List<NetworkManager> playerConnection(final Supplier<ServerPlayerEntity> entityPlayerMPSupplier) {
+        return Collections.singletonList(entityPlayerMPSupplier.get().connection.connection);
+    }
+
+    private List<NetworkManager> playerListDimConnections(final Supplier<RegistryKey<World>> dimensionTypeSupplier) {
+        final RegistryKey<World> dimension = dimensionTypeSupplier.get();
+        return getServer().getPlayerList().getPlayers().stream().
+                filter(player -> player.level.dimension() == dimension).
+                map(player -> player.connection.connection).
+                collect(Collectors.toList());
+    }
+
+    private List<NetworkManager> playerListAllConnections(final Supplier<Void> voidSupplier) {
+        return getServer().getPlayerList().getPlayers().stream().
+                map(player -> player.connection.connection).
+                collect(Collectors.toList());
+    }
+
+    private List<NetworkManager> clientToServerConnection(final Supplier<Void> voidSupplier) {
+        return Collections.singletonList(Minecraft.getInstance().getConnection().getConnection());
+    }
+
+    private List<NetworkManager> playerListPointConnections(final Supplier<TargetPoint> targetPointSupplier) {
+        final TargetPoint tp = targetPointSupplier.get();
+        final MinecraftServer server = getServer();
+        if (server.isSameThread())
+            return PlayerSpatialIndex.getPlayersNear(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim).stream().
+                    map(player -> player.connection.connection).
+                    collect(Collectors.toList());
+        // Mirrors PlayerList#broadcast, which treats the radius as a plain distance
+        return server.getPlayerList().getPlayers().stream().
+                filter(player -> player != tp.excluded && player.level.dimension() == tp.dim).
+                filter(player -> {
+                    final double dx = tp.x - player.getX();
+                    final double dy = tp.y - player.getY();
+                    final double dz = tp.z - player.getZ();
+                    return dx * dx + dy * dy + dz * dz < tp.r2 * tp.r2;
+                }).
+                map(player -> player.connection.connection).
+                collect(Collectors.toList());
+    }
+
+    private List<NetworkManager> trackingChunkConnections(final Supplier<Chunk> chunkPosSupplier) {
+        return getChunkTrackers(chunkPosSupplier.get()).stream().
+                map(player -> player.connection.connection).
+                collect(Collectors.toList());
+    }
+
+    private List<NetworkManager> networkManagerListConnections(final Supplier<List<NetworkManager>> nmListSupplier) {
+        return nmListSupplier.get();
+    }
+
     private MinecraftServer getServer() {
         return LogicalSidedProvider.INSTANCE.get(LogicalSide.SERVER);
     }
@@ -0,0 +1,150 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.network;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.registries.ForgeRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.collect.Maps;
+
+import static net.minecraftforge.registries.ForgeRegistry.REGISTRIES;
+
+/**
+ * Client side store of registry snapshots received from servers, addressed by {@link ForgeRegistry.Snapshot#getHash()}.
+ *
+ * <p>Snapshots live under {@code .cache/fml/registries/<namespace>/<path>/<hash>.bin} in their network form. Because
+ * the file name is the content hash, the cache needs no per-server bookkeeping: any server advertising the same hash
+ * for a registry can be answered from the same file.
+ */
+class RegistrySnapshotCache
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int MAX_PER_REGISTRY = 4;
+
+    private static Path getRoot()
+    {
+        return FMLPaths.GAMEDIR.get().resolve(".cache").resolve("fml").resolve("registries");
+    }
+
+    private static Path getDirectory(ResourceLocation registry)
+    {
+        return getRoot().resolve(registry.getNamespace()).resolve(registry.getPath());
+    }
+
+    /**
+     * Loads every cached snapshot matching the hashes advertised by the server.
+     *
+     * @param serverHashes The registry hashes the server advertised
+     * @param into Receives the loaded snapshots
+     * @return The registries that were loaded, with their hashes, for reporting back to the server
+     */
+    static Map<ResourceLocation, String> load(Map<ResourceLocation, String> serverHashes, Map<ResourceLocation, ForgeRegistry.Snapshot> into)
+    {
+        Map<ResourceLocation, String> ret = Maps.newHashMap();
+        serverHashes.forEach((name, hash) -> {
+            if (hash.isEmpty())
+                return;
+            Path file = getDirectory(name).resolve(hash + ".bin");
+            if (!Files.isRegularFile(file))
+                return;
+            try
+            {
+                ForgeRegistry.Snapshot snapshot = ForgeRegistry.Snapshot.read(new PacketBuffer(Unpooled.wrappedBuffer(Files.readAllBytes(file))));
+                if (!hash.equals(snapshot.getHash()))
+                {
+                    LOGGER.debug(REGISTRIES, "Discarding cached registry snapshot {} for {}, content does not match its hash", file, name);
+                    Files.deleteIfExists(file);
+                    return;
+                }
+                into.put(name, snapshot);
+                ret.put(name, hash);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                LOGGER.debug(REGISTRIES, "Failed to read cached registry snapshot {} for {}", file, name, e);
+            }
+        });
+        LOGGER.debug(REGISTRIES, "Loaded {} of {} registries from the snapshot cache", ret.size(), serverHashes.size());
+        return ret;
+    }
+
+    static void store(ResourceLocation name, ForgeRegistry.Snapshot snapshot)
+    {
+        Path dir = getDirectory(name);
+        Path file = dir.resolve(snapshot.getHash() + ".bin");
+        if (Files.isRegularFile(file))
+            return;
+        try
+        {
+            Files.createDirectories(dir);
+            PacketBuffer data = snapshot.getPacketData();
+            byte[] bytes = new byte[data.readableBytes()];
+            data.readBytes(bytes);
+            Path tmp = Files.createTempFile(dir, "snapshot", ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            prune(dir);
+        }
+        catch (IOException e)
+        {
+            LOGGER.debug(REGISTRIES, "Failed to cache registry snapshot for {}", name, e);
+        }
+    }
+
+    private static void prune(Path dir) throws IOException
+    {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir))
+        {
+            files = stream.filter(p -> p.getFileName().toString().endsWith(".bin")).
+                    sorted(Comparator.comparingLong(RegistrySnapshotCache::lastModified).reversed()).
+                    collect(Collectors.toList());
+        }
+        for (int x = MAX_PER_REGISTRY; x < files.size(); x++)
+            Files.deleteIfExists(files.get(x));
+    }
+
+    private static long lastModified(Path path)
+    {
+        try
+        {
+            return Files.getLastModifiedTime(path).toMillis();
+        }
+        catch (IOException e)
+        {
+            return 0;
+        }
+    }
+}
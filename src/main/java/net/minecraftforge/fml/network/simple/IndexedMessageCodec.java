@@ -22,6 +22,7 @@ package net.minecraftforge.fml.network.simple;
 import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectArrayMap;
 import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.fml.network.NetworkEvent;
 import net.minecraftforge.fml.network.NetworkHooks;
@@ -31,9 +32,12 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
+import javax.annotation.Nullable;
+
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -43,13 +47,34 @@ public class IndexedMessageCodec
     private static final Marker SIMPLENET = MarkerManager.getMarker("SIMPLENET");
     private final Short2ObjectArrayMap<MessageHandler<?>> indicies = new Short2ObjectArrayMap<>();
     private final Object2ObjectArrayMap<Class<?>, MessageHandler<?>> types = new Object2ObjectArrayMap<>();
+    /**
+     * Discriminator reserved for message bundles once {@link #reserveBundleIndex()} has been called.
+     */
+    static final short BUNDLE_INDEX = 0xff;
     private final NetworkInstance networkInstance;
+    private boolean bundling;
 
     public IndexedMessageCodec() {
         this(null);
     }
     public IndexedMessageCodec(final NetworkInstance instance) {
         this.networkInstance = instance;
+        if (instance != null)
+            MessageMetrics.register(this);
+    }
+
+    ResourceLocation getChannelName() {
+        return networkInstance == null ? null : networkInstance.getChannelName();
+    }
+
+    void forEachHandler(Consumer<MessageHandler<?>> consumer) {
+        types.values().forEach(consumer);
+    }
+
+    void reserveBundleIndex() {
+        if (indicies.containsKey(BUNDLE_INDEX))
+            throw new IllegalStateException("Cannot enable bundling on channel " + getChannelName() + ", discriminator " + BUNDLE_INDEX + " is already in use by " + indicies.get(BUNDLE_INDEX).messageType.getName());
+        this.bundling = true;
     }
 
     @SuppressWarnings("unchecked")
@@ -65,21 +90,26 @@ public class IndexedMessageCodec
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     class MessageHandler<MSG>
     {
-        private final Optional<BiConsumer<MSG, PacketBuffer>> encoder;
-        private final Optional<Function<PacketBuffer, MSG>> decoder;
+        @Nullable
+        private final BiConsumer<MSG, PacketBuffer> encoder;
+        @Nullable
+        private final Function<PacketBuffer, MSG> decoder;
         private final int index;
         private final BiConsumer<MSG,Supplier<NetworkEvent.Context>> messageConsumer;
         private final Class<MSG> messageType;
         private final Optional<NetworkDirection> networkDirection;
         private Optional<BiConsumer<MSG, Integer>> loginIndexSetter;
         private Optional<Function<MSG, Integer>> loginIndexGetter;
+        private final MessageMetrics.Counter metrics = new MessageMetrics.Counter();
 
         public MessageHandler(int index, Class<MSG> messageType, BiConsumer<MSG, PacketBuffer> encoder, Function<PacketBuffer, MSG> decoder, BiConsumer<MSG, Supplier<NetworkEvent.Context>> messageConsumer, final Optional<NetworkDirection> networkDirection)
         {
+            if (bundling && (short)(index & 0xff) == BUNDLE_INDEX)
+                throw new IllegalArgumentException("Discriminator " + BUNDLE_INDEX + " is reserved for message bundles on channel " + getChannelName());
             this.index = index;
             this.messageType = messageType;
-            this.encoder = Optional.ofNullable(encoder);
-            this.decoder = Optional.ofNullable(decoder);
+            this.encoder = encoder;
+            this.decoder = decoder;
             this.messageConsumer = messageConsumer;
             this.networkDirection = networkDirection;
             this.loginIndexGetter = Optional.empty();
@@ -105,6 +135,18 @@ public class IndexedMessageCodec
             return this.loginIndexGetter;
         }
 
+        int getIndex() {
+            return this.index & 0xff;
+        }
+
+        Class<MSG> getMessageType() {
+            return this.messageType;
+        }
+
+        MessageMetrics.Counter getMetrics() {
+            return this.metrics;
+        }
+
         MSG newInstance() {
             try {
                 return messageType.newInstance();
@@ -117,23 +159,49 @@ public class IndexedMessageCodec
 
     private static <M> void tryDecode(PacketBuffer payload, Supplier<NetworkEvent.Context> context, int payloadIndex, MessageHandler<M> codec)
     {
-        codec.decoder.map(d->d.apply(payload)).
-                map(p->{
-                    // Only run the loginIndex function for payloadIndexed packets (login)
-                    if (payloadIndex != Integer.MIN_VALUE)
-                    {
-                        codec.getLoginIndexSetter().ifPresent(f-> f.accept(p, payloadIndex));
-                    }
-                    return p;
-                }).ifPresent(m->codec.messageConsumer.accept(m, context));
+        if (codec.decoder == null)
+            return;
+        final M message;
+        if (MessageMetrics.isEnabled())
+        {
+            // The discriminator has already been read, count it anyway so sizes match the encode side
+            final int size = payload.readableBytes() + 1;
+            final long start = System.nanoTime();
+            message = codec.decoder.apply(payload);
+            codec.metrics.recordDecode(size, System.nanoTime() - start);
+        }
+        else
+        {
+            message = codec.decoder.apply(payload);
+        }
+        if (message == null)
+            return;
+        // Only run the loginIndex function for payloadIndexed packets (login)
+        if (payloadIndex != Integer.MIN_VALUE)
+        {
+            codec.getLoginIndexSetter().ifPresent(f-> f.accept(message, payloadIndex));
+        }
+        codec.messageConsumer.accept(message, context);
     }
 
     private static <M> int tryEncode(PacketBuffer target, M message, MessageHandler<M> codec) {
-        codec.encoder.ifPresent(encoder->{
-            target.writeByte(codec.index & 0xff);
-            encoder.accept(message, target);
-        });
-        return codec.loginIndexGetter.orElse(m -> Integer.MIN_VALUE).apply(message);
+        if (codec.encoder != null)
+        {
+            if (MessageMetrics.isEnabled())
+            {
+                final int start = target.writerIndex();
+                final long startTime = System.nanoTime();
+                target.writeByte(codec.index & 0xff);
+                codec.encoder.accept(message, target);
+                codec.metrics.recordEncode(target.writerIndex() - start, System.nanoTime() - startTime);
+            }
+            else
+            {
+                target.writeByte(codec.index & 0xff);
+                codec.encoder.accept(message, target);
+            }
+        }
+        return codec.loginIndexGetter.isPresent() ? codec.loginIndexGetter.get().apply(message) : Integer.MIN_VALUE;
     }
 
     public <MSG> int build(MSG message, PacketBuffer target)
@@ -153,6 +221,38 @@ public class IndexedMessageCodec
             return;
         }
         short discriminator = payload.readUnsignedByte();
+        if (bundling && discriminator == BUNDLE_INDEX) {
+            consumeBundle(payload, payloadIndex, context);
+            return;
+        }
+        dispatch(discriminator, payload, payloadIndex, context);
+    }
+
+    private void consumeBundle(PacketBuffer payload, int payloadIndex, Supplier<NetworkEvent.Context> context) {
+        // A bundle is a count followed by length prefixed messages, each starting with its own discriminator
+        int count = payload.readVarInt();
+        // Every message takes at least a length and a discriminator byte
+        if (count < 0 || count > payload.readableBytes() / 2) {
+            LOGGER.error(SIMPLENET, "Received bundle of {} messages in {} bytes on channel {}", count, payload.readableBytes(), Optional.ofNullable(networkInstance).map(NetworkInstance::getChannelName).map(Objects::toString).orElse("MISSING CHANNEL"));
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            int length = payload.isReadable() ? payload.readVarInt() : -1;
+            if (length < 1 || length > payload.readableBytes()) {
+                LOGGER.error(SIMPLENET, "Received bundled message of invalid length {} with {} bytes left on channel {}", length, payload.readableBytes(), Optional.ofNullable(networkInstance).map(NetworkInstance::getChannelName).map(Objects::toString).orElse("MISSING CHANNEL"));
+                return;
+            }
+            PacketBuffer message = new PacketBuffer(payload.readSlice(length));
+            short discriminator = message.readUnsignedByte();
+            if (discriminator == BUNDLE_INDEX) {
+                LOGGER.error(SIMPLENET, "Dropping bundle nested in a bundle on channel {}", Optional.ofNullable(networkInstance).map(NetworkInstance::getChannelName).map(Objects::toString).orElse("MISSING CHANNEL"));
+                continue;
+            }
+            dispatch(discriminator, message, payloadIndex, context);
+        }
+    }
+
+    private void dispatch(short discriminator, PacketBuffer payload, int payloadIndex, Supplier<NetworkEvent.Context> context) {
         final MessageHandler<?> messageHandler = indicies.get(discriminator);
         if (messageHandler == null) {
             LOGGER.error(SIMPLENET, "Received invalid discriminator byte {} on channel {}", discriminator, Optional.ofNullable(networkInstance).map(NetworkInstance::getChannelName).map(Objects::toString).orElse("MISSING CHANNEL"));
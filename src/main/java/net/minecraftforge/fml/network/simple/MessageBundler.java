@@ -0,0 +1,192 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.network.simple;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.network.NetworkDirection;
+
+/**
+ * Collects the messages a bundling {@link SimpleChannel} sends during a tick, and writes them out as one custom
+ * payload per connection when flushed.
+ *
+ * <p>A bundle payload is the reserved {@link IndexedMessageCodec#BUNDLE_INDEX} discriminator, a message count and
+ * then every message prefixed with its length. Bundles are split so they stay within the custom payload limit of
+ * their direction; a bundle of a single message, or a message too large to share a payload, is sent as a plain
+ * payload instead.
+ */
+class MessageBundler
+{
+    // Largest custom payload CCustomPayloadPacket reads and SCustomPayloadPlayPacket accepts
+    static final int MAX_PAYLOAD_TO_SERVER = 32767;
+    static final int MAX_PAYLOAD_TO_CLIENT = 1048576;
+    // 1 byte for the bundle discriminator, 5 bytes for the VarInt message count
+    private static final int BUNDLE_HEADER = 1 + 5;
+
+    private static final List<MessageBundler> BUNDLERS = new CopyOnWriteArrayList<>();
+    private final ResourceLocation channelName;
+    private final Map<NetworkManager, List<ByteBuf>> toClient = new ConcurrentHashMap<>();
+    private final Map<NetworkManager, List<ByteBuf>> toServer = new ConcurrentHashMap<>();
+    private final MessageMetrics.BundleCounter metrics = new MessageMetrics.BundleCounter();
+
+    MessageBundler(ResourceLocation channelName)
+    {
+        this.channelName = channelName;
+        BUNDLERS.add(this);
+    }
+
+    static List<MessageBundler> getBundlers()
+    {
+        return BUNDLERS;
+    }
+
+    static void flushAll(NetworkDirection direction)
+    {
+        BUNDLERS.forEach(bundler -> bundler.flush(direction));
+    }
+
+    ResourceLocation getChannelName()
+    {
+        return channelName;
+    }
+
+    MessageMetrics.BundleCounter getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * @return false if the direction cannot be bundled, and the message has to be sent right away
+     */
+    boolean queue(NetworkDirection direction, Collection<NetworkManager> connections, ByteBuf message)
+    {
+        final Map<NetworkManager, List<ByteBuf>> queues = getQueues(direction);
+        if (queues == null)
+            return false;
+        // compute and remove are atomic per connection, so a list is never appended to once a flush has taken it
+        for (NetworkManager connection : connections)
+        {
+            queues.compute(connection, (k, queue) -> {
+                if (queue == null)
+                    queue = new ArrayList<>();
+                queue.add(message);
+                return queue;
+            });
+        }
+        return true;
+    }
+
+    void flush(NetworkDirection direction)
+    {
+        final Map<NetworkManager, List<ByteBuf>> queues = getQueues(direction);
+        if (queues == null || queues.isEmpty())
+            return;
+        for (NetworkManager connection : new ArrayList<>(queues.keySet()))
+        {
+            List<ByteBuf> queue = queues.remove(connection);
+            if (queue == null || queue.isEmpty() || !connection.isConnected())
+                continue;
+            for (PacketBuffer payload : pack(queue, direction == NetworkDirection.PLAY_TO_SERVER ? MAX_PAYLOAD_TO_SERVER : MAX_PAYLOAD_TO_CLIENT))
+                connection.send(direction.buildPacket(Pair.of(payload, Integer.MIN_VALUE), channelName).getThis());
+        }
+    }
+
+    /**
+     * Packs the messages, in order, into as few payloads as fit within {@code limit} bytes each.
+     */
+    List<PacketBuffer> pack(List<ByteBuf> messages, int limit)
+    {
+        List<PacketBuffer> payloads = new ArrayList<>();
+        int from = 0;
+        int size = BUNDLE_HEADER;
+        for (int i = 0; i < messages.size(); i++)
+        {
+            int length = messages.get(i).readableBytes();
+            int entry = PacketBuffer.getVarIntSize(length) + length;
+            if (BUNDLE_HEADER + entry > limit)
+            {
+                // Never fits in a bundle, so flush what came before and send it on its own
+                addPayload(payloads, messages, from, i);
+                payloads.add(new PacketBuffer(messages.get(i).slice()));
+                from = i + 1;
+                size = BUNDLE_HEADER;
+            }
+            else if (size + entry > limit)
+            {
+                addPayload(payloads, messages, from, i);
+                from = i;
+                size = BUNDLE_HEADER + entry;
+            }
+            else
+            {
+                size += entry;
+            }
+        }
+        addPayload(payloads, messages, from, messages.size());
+        return payloads;
+    }
+
+    private void addPayload(List<PacketBuffer> payloads, List<ByteBuf> messages, int from, int to)
+    {
+        if (to - from == 1)
+            payloads.add(new PacketBuffer(messages.get(from).slice()));
+        else if (to - from > 1)
+            payloads.add(bundle(messages.subList(from, to)));
+    }
+
+    private PacketBuffer bundle(List<ByteBuf> messages)
+    {
+        int size = 0;
+        for (ByteBuf message : messages)
+            size += message.readableBytes();
+        PacketBuffer payload = new PacketBuffer(Unpooled.buffer(size + messages.size() * 3 + BUNDLE_HEADER));
+        payload.writeByte(IndexedMessageCodec.BUNDLE_INDEX);
+        payload.writeVarInt(messages.size());
+        for (ByteBuf message : messages)
+        {
+            payload.writeVarInt(message.readableBytes());
+            payload.writeBytes(message, message.readerIndex(), message.readableBytes());
+        }
+        metrics.record(messages.size(), payload.readableBytes());
+        return payload;
+    }
+
+    private Map<NetworkManager, List<ByteBuf>> getQueues(NetworkDirection direction)
+    {
+        switch (direction)
+        {
+            case PLAY_TO_CLIENT: return toClient;
+            case PLAY_TO_SERVER: return toServer;
+            default: return null;
+        }
+    }
+}
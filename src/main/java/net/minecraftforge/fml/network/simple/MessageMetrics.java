@@ -0,0 +1,205 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.network.simple;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.minecraft.util.ResourceLocation;
+
+/**
+ * Per channel, per discriminator traffic counters for {@link SimpleChannel}s.
+ *
+ * <p>Recording is off by default, as it costs two {@link System#nanoTime()} calls per message. While enabled, every
+ * encode and decode through an {@link IndexedMessageCodec} counts the message, its size in bytes including the
+ * discriminator, and the time spent in the encoder or decoder. Handling time is not included. A message sent to
+ * several players is only encoded, and counted, once.
+ *
+ * <p>Channels with {@link SimpleChannel#enableBundling() bundling} enabled also count the bundles they flushed and
+ * the messages that went into them.
+ */
+public final class MessageMetrics
+{
+    private static final List<IndexedMessageCodec> CODECS = new CopyOnWriteArrayList<>();
+    private static volatile boolean enabled = false;
+
+    private MessageMetrics() {}
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled)
+    {
+        MessageMetrics.enabled = enabled;
+    }
+
+    public static void reset()
+    {
+        CODECS.forEach(codec -> codec.forEachHandler(handler -> handler.getMetrics().reset()));
+        MessageBundler.getBundlers().forEach(bundler -> bundler.getMetrics().reset());
+    }
+
+    /**
+     * @return The counters of every registered message that has seen any traffic, heaviest by total bytes first
+     */
+    public static List<Entry> snapshot()
+    {
+        List<Entry> ret = new ArrayList<>();
+        CODECS.forEach(codec -> codec.forEachHandler(handler -> {
+            Entry entry = new Entry(codec.getChannelName(), handler.getIndex(), handler.getMessageType(), handler.getMetrics());
+            if (entry.getEncodedCount() > 0 || entry.getDecodedCount() > 0)
+                ret.add(entry);
+        }));
+        ret.sort(Comparator.comparingLong((Entry e) -> e.getEncodedBytes() + e.getDecodedBytes()).reversed());
+        return ret;
+    }
+
+    /**
+     * @return The bundle counters of every channel that has bundling enabled
+     */
+    public static List<BundleEntry> bundles()
+    {
+        List<BundleEntry> ret = new ArrayList<>();
+        MessageBundler.getBundlers().forEach(bundler -> ret.add(new BundleEntry(bundler.getChannelName(), bundler.getMetrics())));
+        return ret;
+    }
+
+    static void register(IndexedMessageCodec codec)
+    {
+        CODECS.add(codec);
+    }
+
+    static final class Counter
+    {
+        private final LongAdder encodedCount = new LongAdder();
+        private final LongAdder encodedBytes = new LongAdder();
+        private final LongAdder encodeNanos = new LongAdder();
+        private final LongAdder decodedCount = new LongAdder();
+        private final LongAdder decodedBytes = new LongAdder();
+        private final LongAdder decodeNanos = new LongAdder();
+
+        void recordEncode(int bytes, long nanos)
+        {
+            encodedCount.increment();
+            encodedBytes.add(bytes);
+            encodeNanos.add(nanos);
+        }
+
+        void recordDecode(int bytes, long nanos)
+        {
+            decodedCount.increment();
+            decodedBytes.add(bytes);
+            decodeNanos.add(nanos);
+        }
+
+        void reset()
+        {
+            encodedCount.reset();
+            encodedBytes.reset();
+            encodeNanos.reset();
+            decodedCount.reset();
+            decodedBytes.reset();
+            decodeNanos.reset();
+        }
+    }
+
+    static final class BundleCounter
+    {
+        private final LongAdder bundles = new LongAdder();
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        void record(int messages, int bytes)
+        {
+            this.bundles.increment();
+            this.messages.add(messages);
+            this.bytes.add(bytes);
+        }
+
+        void reset()
+        {
+            bundles.reset();
+            messages.reset();
+            bytes.reset();
+        }
+    }
+
+    public static final class Entry
+    {
+        private final ResourceLocation channel;
+        private final int discriminator;
+        private final Class<?> messageType;
+        private final long encodedCount;
+        private final long encodedBytes;
+        private final long encodeNanos;
+        private final long decodedCount;
+        private final long decodedBytes;
+        private final long decodeNanos;
+
+        private Entry(ResourceLocation channel, int discriminator, Class<?> messageType, Counter counter)
+        {
+            this.channel = channel;
+            this.discriminator = discriminator;
+            this.messageType = messageType;
+            this.encodedCount = counter.encodedCount.sum();
+            this.encodedBytes = counter.encodedBytes.sum();
+            this.encodeNanos = counter.encodeNanos.sum();
+            this.decodedCount = counter.decodedCount.sum();
+            this.decodedBytes = counter.decodedBytes.sum();
+            this.decodeNanos = counter.decodeNanos.sum();
+        }
+
+        public ResourceLocation getChannel() { return channel; }
+        public int getDiscriminator() { return discriminator; }
+        public Class<?> getMessageType() { return messageType; }
+        public long getEncodedCount() { return encodedCount; }
+        public long getEncodedBytes() { return encodedBytes; }
+        public long getEncodeNanos() { return encodeNanos; }
+        public long getDecodedCount() { return decodedCount; }
+        public long getDecodedBytes() { return decodedBytes; }
+        public long getDecodeNanos() { return decodeNanos; }
+    }
+
+    public static final class BundleEntry
+    {
+        private final ResourceLocation channel;
+        private final long bundles;
+        private final long messages;
+        private final long bytes;
+
+        private BundleEntry(ResourceLocation channel, BundleCounter counter)
+        {
+            this.channel = channel;
+            this.bundles = counter.bundles.sum();
+            this.messages = counter.messages.sum();
+            this.bytes = counter.bytes.sum();
+        }
+
+        public ResourceLocation getChannel() { return channel; }
+        public long getBundles() { return bundles; }
+        public long getMessages() { return messages; }
+        public long getBytes() { return bytes; }
+    }
+}
@@ -38,6 +38,8 @@ import java.util.function.Function;
 import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
+import javax.annotation.Nullable;
+
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class SimpleChannel
 {
@@ -45,6 +47,8 @@ public class SimpleChannel
     private final IndexedMessageCodec indexedCodec;
     private final Optional<Consumer<NetworkEvent.ChannelRegistrationChangeEvent>> registryChangeConsumer;
     private List<Function<Boolean, ? extends List<? extends Pair<String,?>>>> loginPackets;
+    @Nullable
+    private MessageBundler bundler;
 
     public SimpleChannel(NetworkInstance instance) {
         this(instance, Optional.empty());
@@ -106,6 +110,8 @@ public class SimpleChannel
 
     public <MSG> void sendTo(MSG message, NetworkManager manager, NetworkDirection direction)
     {
+        if (bundler != null && bundler.queue(direction, Collections.singletonList(manager), toBuffer(message).getLeft()))
+            return;
         manager.send(toVanillaPacket(message, direction));
     }
 
@@ -121,9 +127,57 @@ public class SimpleChannel
      * @param <MSG> The type of the message
      */
     public <MSG> void send(PacketDistributor.PacketTarget target, MSG message) {
+        if (bundler != null) {
+            final List<NetworkManager> connections = target.getConnections();
+            if (connections != null && bundler.queue(target.getDirection(), connections, toBuffer(message).getLeft()))
+                return;
+        }
         target.send(toVanillaPacket(message, target.getDirection()));
     }
 
+    /**
+     * Enables bundling on this channel. Play messages sent through {@link #send(PacketDistributor.PacketTarget, Object)}
+     * or {@link #sendTo(Object, NetworkManager, NetworkDirection)} are then queued, and written out as a single
+     * custom payload per connection at the end of the tick, or when {@link #flush()} is called.
+     *
+     * <p>Messages to targets that cannot list their connections are still sent immediately, which can reorder them
+     * against queued messages. Replies are never queued.
+     *
+     * <p>Discriminator 255 is reserved for bundles, so it must not be used by any message on this channel. Both sides
+     * of the connection need to enable bundling.
+     *
+     * @return this channel
+     */
+    public SimpleChannel enableBundling() {
+        if (this.bundler == null) {
+            this.indexedCodec.reserveBundleIndex();
+            this.bundler = new MessageBundler(this.instance.getChannelName());
+        }
+        return this;
+    }
+
+    public boolean isBundling() {
+        return this.bundler != null;
+    }
+
+    /**
+     * Sends everything this channel has queued for bundling right away.
+     */
+    public void flush() {
+        if (this.bundler != null) {
+            this.bundler.flush(NetworkDirection.PLAY_TO_CLIENT);
+            this.bundler.flush(NetworkDirection.PLAY_TO_SERVER);
+        }
+    }
+
+    /**
+     * Flushes the queued messages of every bundling channel in the given direction. Called at the end of each server
+     * tick for {@link NetworkDirection#PLAY_TO_CLIENT}, and each client tick for {@link NetworkDirection#PLAY_TO_SERVER}.
+     */
+    public static void flushBundles(NetworkDirection direction) {
+        MessageBundler.flushAll(direction);
+    }
+
     public <MSG> IPacket<?> toVanillaPacket(MSG message, NetworkDirection direction)
     {
         return direction.buildPacket(toBuffer(message), instance.getChannelName()).getThis();
@@ -90,7 +90,7 @@ public class DelegatingResourcePack extends ResourcePack
     @Override
     public Collection<ResourceLocation> getResources(ResourcePackType type, String pathIn, String pathIn2, int maxDepth, Predicate<String> filter)
     {
-        return delegates.stream()
+        return getCandidatePacks(type, pathIn).stream()
                 .flatMap(r -> r.getResources(type, pathIn, pathIn2, maxDepth, filter).stream())
                 .collect(Collectors.toList());
     }
@@ -158,9 +158,14 @@ public class DelegatingResourcePack extends ResourcePack
     }
 
     private List<IResourcePack> getCandidatePacks(ResourcePackType type, ResourceLocation location)
+    {
+        return getCandidatePacks(type, location.getNamespace());
+    }
+
+    private List<IResourcePack> getCandidatePacks(ResourcePackType type, String namespace)
     {
         Map<String, List<IResourcePack>> map = type == ResourcePackType.CLIENT_RESOURCES ? namespacesAssets : namespacesData;
-        List<IResourcePack> packsWithNamespace = map.get(location.getNamespace());
+        List<IResourcePack> packsWithNamespace = map.get(namespace);
         return packsWithNamespace == null ? Collections.emptyList() : packsWithNamespace;
     }
 
@@ -0,0 +1,171 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.packs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableSet;
+
+import net.minecraft.resources.ResourcePackType;
+import net.minecraft.util.ResourceLocation;
+
+/**
+ * Immutable in-memory index of the assets and data trees of a mod jar.
+ * Built once by walking the jar's file system, it answers resource listing and existence checks
+ * without touching the zip file system again.
+ *
+ * Both files and directories are indexed, mirroring what {@link Files#walk} and {@link Files#exists} report.
+ */
+public class ModFileResourceIndex
+{
+    private final Map<ResourcePackType, Node> roots = new EnumMap<>(ResourcePackType.class);
+    private final Set<String> entries = new HashSet<>();
+
+    /**
+     * @param resolver Resolves a type directory name to its path in the mod file system.
+     */
+    public ModFileResourceIndex(Function<String, Path> resolver) throws IOException
+    {
+        for (ResourcePackType type : ResourcePackType.values())
+        {
+            Path typeRoot = resolver.apply(type.getDirectory()).toAbsolutePath();
+            if (!Files.isDirectory(typeRoot))
+                continue;
+            Node typeNode = new Node();
+            roots.put(type, typeNode);
+            try (Stream<Path> walk = Files.walk(typeRoot))
+            {
+                walk.forEach(path -> {
+                    Path relative = typeRoot.relativize(path.toAbsolutePath());
+                    StringBuilder full = new StringBuilder(type.getDirectory());
+                    Node node = typeNode;
+                    for (Path part : relative)
+                    {
+                        String name = part.toString().replace("/", "");
+                        if (name.isEmpty())
+                            continue;
+                        node = node.children.computeIfAbsent(name, k -> new Node());
+                        full.append('/').append(name);
+                    }
+                    entries.add(full.toString());
+                });
+            }
+        }
+    }
+
+    /**
+     * @return True if the full path, such as {@code assets/modid/textures/block/foo.png}, is a file or directory in the index.
+     */
+    public boolean contains(String fullPath)
+    {
+        return entries.contains(fullPath);
+    }
+
+    /**
+     * @return True if the path is inside one of the indexed type directories, so {@link #contains} is authoritative for it.
+     */
+    public boolean covers(String fullPath)
+    {
+        for (ResourcePackType type : ResourcePackType.values())
+        {
+            String dir = type.getDirectory();
+            if (fullPath.startsWith(dir) && (fullPath.length() == dir.length() || fullPath.charAt(dir.length()) == '/'))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The namespaces of the type, or null if the type directory does not exist.
+     */
+    @Nullable
+    public Set<String> getNamespaces(ResourcePackType type)
+    {
+        Node root = roots.get(type);
+        return root == null ? null : ImmutableSet.copyOf(root.children.keySet());
+    }
+
+    public boolean hasNamespace(ResourcePackType type, String namespace)
+    {
+        Node root = roots.get(type);
+        return root != null && root.children.containsKey(namespace);
+    }
+
+    /**
+     * Same contract as {@link net.minecraft.resources.IResourcePack#getResources}.
+     */
+    public Collection<ResourceLocation> getResources(ResourcePackType type, String namespace, String pathIn, int maxDepth, Predicate<String> filter)
+    {
+        Node root = roots.get(type);
+        Node node = root == null ? null : root.children.get(namespace);
+        if (node == null)
+            return Collections.emptyList();
+
+        List<String> prefix = new ArrayList<>();
+        for (String part : pathIn.split("/"))
+        {
+            if (part.isEmpty())
+                continue;
+            node = node.children.get(part);
+            if (node == null)
+                return Collections.emptyList();
+            prefix.add(part);
+        }
+
+        List<ResourceLocation> ret = new ArrayList<>();
+        collect(node, namespace, String.join("/", prefix), prefix.isEmpty() ? "" : prefix.get(prefix.size() - 1), prefix.size(), maxDepth, filter, ret);
+        return ret;
+    }
+
+    private static void collect(Node node, String namespace, String path, String name, int depth, int maxDepth, Predicate<String> filter, List<ResourceLocation> out)
+    {
+        if (depth > maxDepth)
+            return;
+        if (!path.isEmpty() && !name.endsWith(".mcmeta") && filter.test(name))
+            out.add(new ResourceLocation(namespace, path));
+        for (Map.Entry<String, Node> child : node.children.entrySet())
+        {
+            String childPath = path.isEmpty() ? child.getKey() : path + '/' + child.getKey();
+            collect(child.getValue(), namespace, childPath, child.getKey(), depth + 1, maxDepth, filter, out);
+        }
+    }
+
+    // Children are kept sorted so listings are deterministic.
+    private static final class Node
+    {
+        private final TreeMap<String, Node> children = new TreeMap<>();
+    }
+}
@@ -24,6 +24,7 @@ import net.minecraft.resources.ResourcePackFileNotFoundException;
 import net.minecraft.resources.ResourcePackInfo;
 import net.minecraft.resources.ResourcePackType;
 import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.loading.moddiscovery.AbstractJarFileLocator;
 import net.minecraftforge.fml.loading.moddiscovery.ModFile;
 
 import java.io.File;
@@ -34,21 +35,49 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import com.google.common.base.Joiner;
+import com.google.common.base.Suppliers;
 
 public class ModFileResourcePack extends ResourcePack
 {
+    private static final Logger LOGGER = LogManager.getLogger();
     private final ModFile modFile;
     private ResourcePackInfo packInfo;
+    private final Supplier<Optional<ModFileResourceIndex>> index;
 
     public ModFileResourcePack(final ModFile modFile)
     {
         super(new File("dummy"));
         this.modFile = modFile;
+        this.index = Suppliers.memoize(this::buildIndex);
+    }
+
+    /**
+     * Jars can't change while they are open, so their content is indexed once.
+     * Exploded directories (mostly development environments) keep querying the file system so edited resources are picked up.
+     */
+    private Optional<ModFileResourceIndex> buildIndex()
+    {
+        if (!(modFile.getLocator() instanceof AbstractJarFileLocator))
+            return Optional.empty();
+        try
+        {
+            return Optional.of(new ModFileResourceIndex(dir -> modFile.getLocator().findPath(modFile, dir)));
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn("Failed to index resources of {}, falling back to file system lookups", modFile.getFileName(), e);
+            return Optional.empty();
+        }
     }
 
     public ModFile getModFile() {
@@ -73,6 +102,9 @@ public class ModFileResourcePack extends ResourcePack
     @Override
     protected boolean hasResource(String name)
     {
+        final Optional<ModFileResourceIndex> idx = index.get();
+        if (idx.isPresent() && idx.get().covers(name))
+            return idx.get().contains(name);
         return Files.exists(modFile.getLocator().findPath(modFile, name));
     }
 
@@ -80,6 +112,9 @@ public class ModFileResourcePack extends ResourcePack
     @Override
     public Collection<ResourceLocation> getResources(ResourcePackType type, String resourceNamespace, String pathIn, int maxDepth, Predicate<String> filter)
     {
+        final Optional<ModFileResourceIndex> idx = index.get();
+        if (idx.isPresent())
+            return idx.get().getResources(type, resourceNamespace, pathIn, maxDepth, filter);
         try
         {
             Path root = modFile.getLocator().findPath(modFile, type.getDirectory(), resourceNamespace).toAbsolutePath();
@@ -106,6 +141,14 @@ public class ModFileResourcePack extends ResourcePack
     @Override
     public Set<String> getNamespaces(ResourcePackType type)
     {
+        final Optional<ModFileResourceIndex> idx = index.get();
+        if (idx.isPresent())
+        {
+            final Set<String> namespaces = idx.get().getNamespaces(type);
+            if (namespaces != null)
+                return namespaces;
+            return type == ResourcePackType.SERVER_DATA ? this.getNamespaces(ResourcePackType.CLIENT_RESOURCES) : Collections.emptySet();
+        }
         try {
             Path root = modFile.getLocator().findPath(modFile, type.getDirectory()).toAbsolutePath();
             return Files.walk(root,1)
@@ -19,6 +19,7 @@
 
 package net.minecraftforge.registries;
 
+import java.io.ByteArrayOutputStream;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
@@ -27,6 +28,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -97,6 +102,12 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
 
     private V defaultValue = null;
     boolean isFrozen = false;
+    // Built by freeze() and dropped by anything that unfreezes the registry, the id maps can't change in between.
+    @Nullable
+    private FrozenIdMap<V> frozenIds = null;
+    // Likewise the snapshot sent to connecting clients, which caches its hash and compressed network form
+    @Nullable
+    private Snapshot syncSnapshot = null;
 
     private final ResourceLocation name;
     private final RegistryKey<Registry<V>> key;
@@ -271,6 +282,12 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
 
     public int getID(V value)
     {
+        final FrozenIdMap<V> frozen = this.frozenIds;
+        if (frozen != null)
+        {
+            int id = frozen.getId(value);
+            return id == -1 && this.defaultValue != null ? frozen.getId(this.defaultValue) : id;
+        }
         Integer ret = this.ids.inverse().get(value);
         if (ret == null && this.defaultValue != null)
             ret = this.ids.inverse().get(this.defaultValue);
@@ -283,6 +300,9 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     }
     private int getIDRaw(V value)
     {
+        final FrozenIdMap<V> frozen = this.frozenIds;
+        if (frozen != null)
+            return frozen.getId(value);
         Integer ret = this.ids.inverse().get(value);
         return ret == null ? -1 : ret.intValue();
     }
@@ -293,7 +313,8 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
 
     public V getValue(int id)
     {
-        V ret = this.ids.get(id);
+        final FrozenIdMap<V> frozen = this.frozenIds;
+        V ret = frozen != null && frozen.hasDenseIds() ? frozen.getValue(id) : this.ids.get(id);
         return ret == null ? this.defaultValue : ret;
     }
 
@@ -532,7 +553,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         if (from.superType != this.superType)
             throw new IllegalArgumentException("Attempted to copy to incompatible registry: " + name + " " + from.superType + " -> " + this.superType);
 
-        this.isFrozen = false;
+        this.unfreeze();
 
         if (this.clear != null)
             this.clear.onClear(this, stage);
@@ -667,11 +688,15 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     public void freeze()
     {
         this.isFrozen = true;
+        this.frozenIds = new FrozenIdMap<>(this.ids);
+        this.syncSnapshot = null;
     }
 
     public void unfreeze()
     {
         this.isFrozen = false;
+        this.frozenIds = null;
+        this.syncSnapshot = null;
     }
 
     RegistryEvent.Register<V> getRegisterEvent(ResourceLocation name)
@@ -825,6 +850,19 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         return ret;
     }
 
+    /**
+     * The snapshot to send to clients. While frozen it is built once and shared by every login, so its content hash
+     * and compressed form are only computed once.
+     */
+    synchronized Snapshot getSyncSnapshot()
+    {
+        if (!this.isFrozen)
+            return makeSnapshot();
+        if (this.syncSnapshot == null)
+            this.syncSnapshot = makeSnapshot();
+        return this.syncSnapshot;
+    }
+
     Map<ResourceLocation, String> getOverrideOwners()
     {
         Map<ResourceLocation, String> ret = Maps.newHashMap();
@@ -847,7 +885,11 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         public final Set<Integer> blocked = Sets.newTreeSet();
         public final Set<ResourceLocation> dummied = Sets.newTreeSet(sorter);
         public final Map<ResourceLocation, String> overrides = Maps.newTreeMap(sorter);
+        private static final int FLAG_DEFLATED = 1;
+        private static final int COMPRESSION_THRESHOLD = 256;
+        private static final int MAX_INFLATED_SIZE = 32 * 1024 * 1024;
         private PacketBuffer binary = null;
+        private String hash = null;
 
         public CompoundNBT write()
         {
@@ -934,34 +976,83 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
             return ret;
         }
 
+        /**
+         * Network form of this snapshot.
+         *
+         * <p>Resource locations are split against a dictionary of their namespaces, ids and blocked ids are written
+         * sorted and delta coded, and the body is deflated when that actually makes it smaller. The content hash of
+         * the uncompressed body is available from {@link #getHash()}, so a client that already holds a snapshot with
+         * the same hash does not need to receive it again.
+         */
         public synchronized PacketBuffer getPacketData()
         {
             if (binary == null) {
-                PacketBuffer pkt = new PacketBuffer(Unpooled.buffer());
+                PacketBuffer body = new PacketBuffer(Unpooled.buffer());
 
-                pkt.writeVarInt(this.ids.size());
-                this.ids.forEach((k,v) -> {
-                    pkt.writeResourceLocation(k);
-                    pkt.writeVarInt(v);
+                Map<String, Integer> namespaces = Maps.newLinkedHashMap();
+                Consumer<ResourceLocation> collect = rl -> namespaces.computeIfAbsent(rl.getNamespace(), k -> namespaces.size());
+                this.ids.keySet().forEach(collect);
+                this.aliases.forEach((k, v) -> {
+                    collect.accept(k);
+                    collect.accept(v);
                 });
+                this.overrides.keySet().forEach(collect);
+                this.dummied.forEach(collect);
+
+                body.writeVarInt(namespaces.size());
+                namespaces.keySet().forEach(body::writeUtf);
+
+                List<Entry<ResourceLocation, Integer>> byId = Lists.newArrayList(this.ids.entrySet());
+                byId.sort(Entry.comparingByValue());
+                body.writeVarInt(byId.size());
+                int last = 0;
+                for (Entry<ResourceLocation, Integer> e : byId)
+                {
+                    body.writeVarInt(e.getValue() - last);
+                    writeCompact(body, namespaces, e.getKey());
+                    last = e.getValue();
+                }
 
-                pkt.writeVarInt(this.aliases.size());
+                body.writeVarInt(this.aliases.size());
                 this.aliases.forEach((k, v) -> {
-                    pkt.writeResourceLocation(k);
-                    pkt.writeResourceLocation(v);
+                    writeCompact(body, namespaces, k);
+                    writeCompact(body, namespaces, v);
                 });
 
-                pkt.writeVarInt(this.overrides.size());
+                body.writeVarInt(this.overrides.size());
                 this.overrides.forEach((k, v) -> {
-                    pkt.writeResourceLocation(k);
-                    pkt.writeUtf(v, 0x100);
+                    writeCompact(body, namespaces, k);
+                    body.writeUtf(v, 0x100);
                 });
 
-                pkt.writeVarInt(this.blocked.size());
-                this.blocked.forEach(pkt::writeVarInt);
+                body.writeVarInt(this.blocked.size());
+                last = 0;
+                for (int id : this.blocked)
+                {
+                    body.writeVarInt(id - last);
+                    last = id;
+                }
+
+                body.writeVarInt(this.dummied.size());
+                this.dummied.forEach(rl -> writeCompact(body, namespaces, rl));
+
+                byte[] raw = new byte[body.readableBytes()];
+                body.getBytes(body.readerIndex(), raw);
+                this.hash = Hashing.sha256().hashBytes(raw).toString();
 
-                pkt.writeVarInt(this.dummied.size());
-                this.dummied.forEach(pkt::writeResourceLocation);
+                PacketBuffer pkt = new PacketBuffer(Unpooled.buffer());
+                byte[] compressed = raw.length > COMPRESSION_THRESHOLD ? deflate(raw) : null;
+                if (compressed != null && compressed.length < raw.length)
+                {
+                    pkt.writeByte(FLAG_DEFLATED);
+                    pkt.writeVarInt(raw.length);
+                    pkt.writeByteArray(compressed);
+                }
+                else
+                {
+                    pkt.writeByte(0);
+                    pkt.writeBytes(raw);
+                }
 
                 this.binary = pkt;
             }
@@ -969,35 +1060,129 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
             return new PacketBuffer(binary.slice());
         }
 
+        /**
+         * Content hash of this snapshot, the hex SHA-256 of the uncompressed {@link #getPacketData() network form}.
+         */
+        public synchronized String getHash()
+        {
+            if (hash == null)
+                getPacketData();
+            return hash;
+        }
+
         public static Snapshot read(PacketBuffer buff)
         {
             if (buff == null)
                 return new Snapshot();
 
+            byte flags = buff.readByte();
+            if ((flags & FLAG_DEFLATED) != 0)
+            {
+                int length = buff.readVarInt();
+                buff = new PacketBuffer(Unpooled.wrappedBuffer(inflate(buff.readByteArray(), length)));
+            }
+
             Snapshot ret = new Snapshot();
 
             int len = buff.readVarInt();
+            String[] namespaces = new String[len];
             for (int x = 0; x < len; x++)
-                ret.ids.put(buff.readResourceLocation(), buff.readVarInt());
+                namespaces[x] = buff.readUtf(32767);
 
             len = buff.readVarInt();
+            int id = 0;
             for (int x = 0; x < len; x++)
-                ret.aliases.put(buff.readResourceLocation(), buff.readResourceLocation());
+            {
+                id += buff.readVarInt();
+                ret.ids.put(readCompact(buff, namespaces), id);
+            }
+
+            len = buff.readVarInt();
+            for (int x = 0; x < len; x++)
+                ret.aliases.put(readCompact(buff, namespaces), readCompact(buff, namespaces));
 
             len = buff.readVarInt();
             for (int x = 0; x < len; x++)
-                ret.overrides.put(buff.readResourceLocation(), buff.readUtf(0x100));
+                ret.overrides.put(readCompact(buff, namespaces), buff.readUtf(0x100));
 
             len = buff.readVarInt();
+            id = 0;
             for (int x = 0; x < len; x++)
-                ret.blocked.add(buff.readVarInt());
+            {
+                id += buff.readVarInt();
+                ret.blocked.add(id);
+            }
 
             len = buff.readVarInt();
             for (int x = 0; x < len; x++)
-                ret.dummied.add(buff.readResourceLocation());
+                ret.dummied.add(readCompact(buff, namespaces));
 
             return ret;
         }
+
+        private static void writeCompact(PacketBuffer buf, Map<String, Integer> namespaces, ResourceLocation rl)
+        {
+            buf.writeVarInt(namespaces.get(rl.getNamespace()));
+            buf.writeUtf(rl.getPath(), 32767);
+        }
+
+        private static ResourceLocation readCompact(PacketBuffer buf, String[] namespaces)
+        {
+            int index = buf.readVarInt();
+            if (index < 0 || index >= namespaces.length)
+                throw new IllegalStateException("Invalid namespace index " + index + " in registry snapshot");
+            return new ResourceLocation(namespaces[index], buf.readUtf(32767));
+        }
+
+        private static byte[] deflate(byte[] data)
+        {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try
+            {
+                deflater.setInput(data);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+                byte[] chunk = new byte[8192];
+                while (!deflater.finished())
+                    out.write(chunk, 0, deflater.deflate(chunk));
+                return out.toByteArray();
+            }
+            finally
+            {
+                deflater.end();
+            }
+        }
+
+        private static byte[] inflate(byte[] data, int length)
+        {
+            if (length < 0 || length > MAX_INFLATED_SIZE)
+                throw new IllegalStateException("Invalid registry snapshot length " + length);
+            Inflater inflater = new Inflater();
+            try
+            {
+                inflater.setInput(data);
+                byte[] ret = new byte[length];
+                int read = 0;
+                while (read < length && !inflater.finished())
+                {
+                    int n = inflater.inflate(ret, read, length - read);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                        break;
+                    read += n;
+                }
+                if (read != length)
+                    throw new IllegalStateException("Truncated registry snapshot, expected " + length + " bytes but got " + read);
+                return ret;
+            }
+            catch (DataFormatException e)
+            {
+                throw new IllegalStateException("Corrupt registry snapshot", e);
+            }
+            finally
+            {
+                inflater.end();
+            }
+        }
     }
 
     public MissingMappings<?> getMissingEvent(ResourceLocation name, Map<ResourceLocation, Integer> map)
@@ -0,0 +1,115 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.registries;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable, primitive keyed view of a frozen {@link ForgeRegistry}'s id map.
+ *
+ * Ids are looked up through a dense array, and values through an identity keyed open addressing table,
+ * so neither direction boxes or calls hashCode/equals. Used for the hot paths that map between
+ * objects and network/save ids, such as chunk serialization and packet encoding.
+ */
+final class FrozenIdMap<V>
+{
+    // Don't allocate the dense array for registries with a handful of entries at huge ids.
+    private static final int MAX_SPARSENESS = 4;
+
+    @Nullable
+    private final Object[] byId;
+    private final Object[] keys;
+    private final int[] values;
+    private final int mask;
+
+    FrozenIdMap(Map<Integer, V> ids)
+    {
+        int maxId = -1;
+        for (Integer id : ids.keySet())
+            maxId = Math.max(maxId, id);
+
+        if (maxId < ids.size() * MAX_SPARSENESS + 1024)
+        {
+            this.byId = new Object[maxId + 1];
+            ids.forEach((id, value) -> this.byId[id] = value);
+        }
+        else
+        {
+            this.byId = null;
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(ids.size(), 1) * 2 - 1) << 1;
+        this.keys = new Object[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        ids.forEach((id, value) -> {
+            int idx = indexFor(value);
+            while (keys[idx] != null)
+                idx = (idx + 1) & mask;
+            keys[idx] = value;
+            values[idx] = id;
+        });
+    }
+
+    private int indexFor(Object value)
+    {
+        int hash = System.identityHashCode(value) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * @return False if ids are too sparse for the dense array, callers must then fall back to their own map.
+     */
+    boolean hasDenseIds()
+    {
+        return byId != null;
+    }
+
+    /**
+     * @return The value, or null if the id is unused. Only valid if {@link #hasDenseIds()}.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    V getValue(int id)
+    {
+        return id >= 0 && id < byId.length ? (V)byId[id] : null;
+    }
+
+    /**
+     * @return The id of the value, or -1 if it is not registered.
+     */
+    int getId(@Nullable Object value)
+    {
+        if (value == null)
+            return -1;
+        int idx = indexFor(value);
+        Object key;
+        while ((key = keys[idx]) != null)
+        {
+            if (key == value)
+                return values[idx];
+            idx = (idx + 1) & mask;
+        }
+        return -1;
+    }
+
+}
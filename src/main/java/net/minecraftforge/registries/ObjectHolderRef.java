@@ -19,6 +19,8 @@
 
 package net.minecraftforge.registries;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.Collections;
@@ -40,6 +42,7 @@ public class ObjectHolderRef implements Consumer<Predicate<ResourceLocation>>
 {
     private static final Logger LOGGER  = LogManager.getLogger();
     private Field field;
+    private MethodHandle setter;
     private ResourceLocation injectedObject;
     private boolean isValid;
     private ForgeRegistry<?> registry;
@@ -101,6 +104,15 @@ public class ObjectHolderRef implements Consumer<Predicate<ResourceLocation>>
         {
             throw new RuntimeException("@ObjectHolder on final field, our transformer did not run? " + field.getDeclaringClass().getName() + "/" + field.getName());
         }
+
+        try
+        {
+            this.setter = MethodHandles.lookup().unreflectSetter(field);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException("Unable to access @ObjectHolder field " + field.getDeclaringClass().getName() + "/" + field.getName(), e);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -133,12 +145,28 @@ public class ObjectHolderRef implements Consumer<Predicate<ResourceLocation>>
         return isValid;
     }
 
+    /**
+     * The name of the registry this holder is looked up in, or null if it is not valid.
+     */
+    @Nullable
+    ResourceLocation getRegistryName()
+    {
+        return registry == null ? null : registry.getRegistryName();
+    }
+
     @Override
     public void accept(Predicate<ResourceLocation> filter)
     {
         if (registry == null || !filter.test(registry.getRegistryName()))
             return;
+        apply();
+    }
 
+    /**
+     * Looks up and sets the holder, regardless of the registry it is in.
+     */
+    void apply()
+    {
         Object thing;
         if (isValid && registry.containsKey(injectedObject) && !registry.isDummied(injectedObject))
         {
@@ -156,9 +184,9 @@ public class ObjectHolderRef implements Consumer<Predicate<ResourceLocation>>
         }
         try
         {
-            field.set(null, thing);
+            setter.invoke(thing);
         }
-        catch (IllegalArgumentException | ReflectiveOperationException e)
+        catch (Throwable e)
         {
             LOGGER.warn("Unable to set {} with value {} ({})", this.field, thing, this.injectedObject, e);
         }
@@ -21,12 +21,15 @@ package net.minecraftforge.registries;
 
 import java.lang.annotation.ElementType;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -61,7 +64,16 @@ public class ObjectHolderRegistry
      */
     public static void addHandler(Consumer<Predicate<ResourceLocation>> ref)
     {
-        objectHolders.add(ref);
+        ResourceLocation registry = getRegistryName(ref);
+        if (registry != null)
+            holdersByRegistry.computeIfAbsent(registry, k -> ConcurrentHashMap.newKeySet()).add((ObjectHolderRef)ref);
+        else
+        {
+            synchronized (objectHolders)
+            {
+                objectHolders.add(ref);
+            }
+        }
     }
 
     /**
@@ -75,7 +87,16 @@ public class ObjectHolderRegistry
      */
     public static boolean removeHandler(Consumer<Predicate<ResourceLocation>> ref)
     {
-        return objectHolders.remove(ref);
+        ResourceLocation registry = getRegistryName(ref);
+        if (registry != null)
+        {
+            Set<ObjectHolderRef> holders = holdersByRegistry.get(registry);
+            return holders != null && holders.remove(ref);
+        }
+        synchronized (objectHolders)
+        {
+            return objectHolders.remove(ref);
+        }
     }
 
     //==============================================================
@@ -83,7 +104,15 @@ public class ObjectHolderRegistry
     //==============================================================
 
     private static final Logger LOGGER = LogManager.getLogger();
+    /**
+     * Handlers other than our own, which are notified with a filter on the registry name.
+     */
     private static final Set<Consumer<Predicate<ResourceLocation>>> objectHolders = new HashSet<>();
+    /**
+     * Our own @ObjectHolder references, grouped by the registry they are looked up in, so the others are not touched
+     * when a single registry changes.
+     */
+    private static final Map<ResourceLocation, Set<ObjectHolderRef>> holdersByRegistry = new ConcurrentHashMap<>();
     private static final Type OBJECT_HOLDER = Type.getType(ObjectHolder.class);
     private static final Type MOD = Type.getType(Mod.class);
 
@@ -108,7 +137,7 @@ public class ObjectHolderRegistry
 
         annotations.stream().filter(a -> OBJECT_HOLDER.equals(a.getAnnotationType())).filter(a -> a.getTargetType() == ElementType.FIELD)
         .forEach(data -> scanTarget(classModIds, classCache, data.getClassType(), data.getMemberName(), (String)data.getAnnotationData().get("value"), false, false));
-        LOGGER.debug(REGISTRIES,"Found {} ObjectHolder annotations", objectHolders.size());
+        LOGGER.debug(REGISTRIES,"Found {} ObjectHolder annotations in {} registries", holdersByRegistry.values().stream().mapToInt(Set::size).sum(), holdersByRegistry.size());
     }
 
     private static void scanTarget(Map<Type, String> classModIds, Map<Type, Class<?>> classCache, Type type, @Nullable String annotationTarget, String value, boolean isClass, boolean extractFromValue)
@@ -176,16 +205,57 @@ public class ObjectHolderRegistry
         }
     }
 
+    @Nullable
+    private static ResourceLocation getRegistryName(Consumer<Predicate<ResourceLocation>> ref)
+    {
+        return ref instanceof ObjectHolderRef ? ((ObjectHolderRef)ref).getRegistryName() : null;
+    }
+
     public static void applyObjectHolders()
     {
         LOGGER.debug(REGISTRIES,"Applying holder lookups");
+        final long start = System.nanoTime();
         applyObjectHolders(key -> true);
-        LOGGER.debug(REGISTRIES,"Holder lookups applied");
+        LOGGER.debug(REGISTRIES,"Holder lookups applied in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
     public static void applyObjectHolders(Predicate<ResourceLocation> filter)
     {
-        objectHolders.forEach(e -> e.accept(filter));
+        holdersByRegistry.forEach((registry, holders) -> {
+            if (filter.test(registry))
+                applyObjectHolders(registry, holders);
+        });
+        notifyHandlers(filter);
+    }
+
+    /**
+     * Applies only the holders looked up in the given registry, and notifies the other handlers of it.
+     */
+    public static void applyObjectHolders(ResourceLocation registry)
+    {
+        Set<ObjectHolderRef> holders = holdersByRegistry.get(registry);
+        if (holders != null)
+            applyObjectHolders(registry, holders);
+        notifyHandlers(registry::equals);
+    }
+
+    private static void applyObjectHolders(ResourceLocation registry, Set<ObjectHolderRef> holders)
+    {
+        final long start = System.nanoTime();
+        holders.forEach(ObjectHolderRef::apply);
+        LOGGER.debug(REGISTRIES,"Applied {} holder lookups for {} in {} ms", holders.size(), registry, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void notifyHandlers(Predicate<ResourceLocation> filter)
+    {
+        List<Consumer<Predicate<ResourceLocation>>> handlers;
+        synchronized (objectHolders)
+        {
+            if (objectHolders.isEmpty())
+                return;
+            handlers = new ArrayList<>(objectHolders);
+        }
+        handlers.forEach(e -> e.accept(filter));
     }
 
 }
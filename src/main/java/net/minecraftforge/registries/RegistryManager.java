@@ -181,6 +181,13 @@ public class RegistryManager
         return ret;
     }
 
+    private Map<ResourceLocation, Snapshot> getSyncSnapshots()
+    {
+        Map<ResourceLocation, Snapshot> ret = Maps.newHashMap();
+        this.synced.forEach(name -> ret.put(name, getRegistry(name).getSyncSnapshot()));
+        return ret;
+    }
+
     //Public for testing only
     public void clean()
     {
@@ -192,9 +199,39 @@ public class RegistryManager
 
     public static List<Pair<String, FMLHandshakeMessages.S2CRegistry>> generateRegistryPackets(boolean isLocal)
     {
-        return !isLocal ? ACTIVE.takeSnapshot(false).entrySet().stream().
+        return generateRegistryPackets(isLocal, Collections.emptyMap());
+    }
+
+    /**
+     * Builds the registry packets for a connecting client, leaving out every registry whose snapshot hash matches
+     * the one the client reported as already cached.
+     *
+     * @param isLocal If the connection is a local (memory) connection, in which case nothing needs to be sent
+     * @param knownHashes The registry snapshot hashes the client already has, keyed by registry name
+     */
+    public static List<Pair<String, FMLHandshakeMessages.S2CRegistry>> generateRegistryPackets(boolean isLocal, Map<ResourceLocation, String> knownHashes)
+    {
+        if (isLocal)
+            return Collections.emptyList();
+        Map<ResourceLocation, Snapshot> snapshots = ACTIVE.getSyncSnapshots();
+        List<Pair<String, FMLHandshakeMessages.S2CRegistry>> ret = snapshots.entrySet().stream().
+                filter(e -> !e.getValue().getHash().equals(knownHashes.get(e.getKey()))).
                 map(e->Pair.of("Registry " + e.getKey(), new FMLHandshakeMessages.S2CRegistry(e.getKey(), e.getValue()))).
-                collect(Collectors.toList()) : Collections.emptyList();
+                collect(Collectors.toList());
+        LOGGER.debug(ForgeRegistry.REGISTRIES, "Sending {} registries to client, {} already cached", ret.size(), snapshots.size() - ret.size());
+        return ret;
+    }
+
+    public static Map<ResourceLocation, String> getRegistryHashesForSyncToClient()
+    {
+        Map<ResourceLocation, Snapshot> snapshots = ACTIVE.getSyncSnapshots();
+        Map<ResourceLocation, String> ret = Maps.newLinkedHashMap();
+        getRegistryNamesForSyncToClient().forEach(name -> {
+            Snapshot snapshot = snapshots.get(name);
+            if (snapshot != null)
+                ret.put(name, snapshot.getHash());
+        });
+        return ret;
     }
 
     public static List<ResourceLocation> getRegistryNamesForSyncToClient()
@@ -38,7 +38,7 @@ public class ChunkGenWorker implements IWorker
     protected final BlockPos start;
     protected final int total;
     private final ServerWorld dim;
-    private final Queue<BlockPos> queue;
+    private Queue<BlockPos> queue;
     private final int notificationFrequency;
     private int lastNotification = 0;
     private long lastNotifcationTime = 0;
@@ -51,7 +51,6 @@ public class ChunkGenWorker implements IWorker
         this.start = start;
         this.total = total;
         this.dim  = dim;
-        this.queue = buildQueue();
         this.notificationFrequency = interval != -1 ? interval : Math.max(total / 20, 100); //Every 5% or every 100, whichever is more.
         this.lastNotifcationTime = System.currentTimeMillis(); //We also notify at least once every 60 seconds, to show we haven't froze.
     }
@@ -90,7 +89,22 @@ public class ChunkGenWorker implements IWorker
     @Override
     public boolean hasWork()
     {
-        return queue.size() > 0;
+        return queue == null || queue.size() > 0;
+    }
+
+    @Override
+    public boolean canPrepare()
+    {
+        return queue == null;
+    }
+
+    /**
+     * Builds the spiral of positions to generate, off the server thread so large requests don't stall a tick.
+     */
+    @Override
+    public void prepare()
+    {
+        this.queue = buildQueue();
     }
 
     @Override
@@ -110,6 +124,9 @@ public class ChunkGenWorker implements IWorker
         }
         */
 
+        if (queue == null)
+            prepare();
+
         BlockPos next = queue.poll();
 
         if (next != null)
@@ -0,0 +1,89 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.command;
+
+import java.text.DecimalFormat;
+import java.util.List;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraftforge.fml.network.simple.MessageMetrics;
+
+class CommandNetStats
+{
+    private static final DecimalFormat TIME_FORMAT = new DecimalFormat("#####0.00");
+
+    static ArgumentBuilder<CommandSource, ?> register()
+    {
+        return Commands.literal("netstats")
+            .requires(cs->cs.hasPermission(2)) //permission
+            .then(Commands.literal("start")
+                .executes(ctx -> {
+                    MessageMetrics.setEnabled(true);
+                    ctx.getSource().sendSuccess(new TranslationTextComponent("commands.forge.netstats.started"), true);
+                    return 0;
+                })
+            )
+            .then(Commands.literal("stop")
+                .executes(ctx -> {
+                    MessageMetrics.setEnabled(false);
+                    ctx.getSource().sendSuccess(new TranslationTextComponent("commands.forge.netstats.stopped"), true);
+                    return 0;
+                })
+            )
+            .then(Commands.literal("reset")
+                .executes(ctx -> {
+                    MessageMetrics.reset();
+                    ctx.getSource().sendSuccess(new TranslationTextComponent("commands.forge.netstats.reset"), true);
+                    return 0;
+                })
+            )
+            .then(Commands.literal("top")
+                .executes(ctx -> top(ctx.getSource(), 10))
+                .then(Commands.argument("count", IntegerArgumentType.integer(1))
+                    .executes(ctx -> top(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "count")))
+                )
+            );
+    }
+
+    private static int top(CommandSource source, int count)
+    {
+        List<MessageMetrics.Entry> entries = MessageMetrics.snapshot();
+        if (entries.isEmpty())
+        {
+            source.sendSuccess(new TranslationTextComponent("commands.forge.tracking.no_data"), true);
+            return 0;
+        }
+        entries.stream().limit(count).forEach(e ->
+            source.sendSuccess(new TranslationTextComponent("commands.forge.netstats.entry", e.getChannel().toString(), e.getDiscriminator(),
+                    e.getMessageType().getSimpleName(), e.getEncodedCount(), e.getEncodedBytes(), TIME_FORMAT.format(e.getEncodeNanos() / 1_000_000.0),
+                    e.getDecodedCount(), e.getDecodedBytes(), TIME_FORMAT.format(e.getDecodeNanos() / 1_000_000.0)), true)
+        );
+        MessageMetrics.bundles().stream().filter(b -> b.getBundles() > 0).forEach(b ->
+            source.sendSuccess(new TranslationTextComponent("commands.forge.netstats.bundles", b.getChannel().toString(), b.getBundles(),
+                    b.getMessages(), b.getBytes()), true)
+        );
+        return entries.size();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.command;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.server.timings.TickHistogram;
+import net.minecraftforge.server.timings.TickProfiler;
+
+class CommandProfiler
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final DecimalFormat TIME_FORMAT = new DecimalFormat("#####0.00");
+
+    static ArgumentBuilder<CommandSource, ?> register()
+    {
+        return Commands.literal("profiler")
+            .requires(cs->cs.hasPermission(2)) //permission
+            .then(Commands.literal("start")
+                .executes(ctx -> {
+                    TickProfiler.TILE_ENTITIES.setEnabled(true);
+                    TickProfiler.ENTITIES.setEnabled(true);
+                    ctx.getSource().sendSuccess(new TranslationTextComponent("commands.forge.profiler.started"), true);
+                    return 0;
+                })
+            )
+            .then(Commands.literal("stop")
+                .executes(ctx -> {
+                    TickProfiler.TILE_ENTITIES.setEnabled(false);
+                    TickProfiler.ENTITIES.setEnabled(false);
+                    ctx.getSource().sendSuccess(new TranslationTextComponent("commands.forge.profiler.stopped"), true);
+                    return 0;
+                })
+            )
+            .then(Commands.literal("reset")
+                .executes(ctx -> {
+                    TickProfiler.TILE_ENTITIES.reset();
+                    TickProfiler.ENTITIES.reset();
+                    ctx.getSource().sendSuccess(new TranslationTextComponent("commands.forge.profiler.reset"), true);
+                    return 0;
+                })
+            )
+            .then(Commands.literal("top")
+                .then(Commands.literal("te").executes(ctx -> top(ctx.getSource(), TickProfiler.TILE_ENTITIES)))
+                .then(Commands.literal("entity").executes(ctx -> top(ctx.getSource(), TickProfiler.ENTITIES)))
+            )
+            .then(Commands.literal("dump")
+                .executes(ctx -> dump(ctx.getSource()))
+            );
+    }
+
+    private static int top(CommandSource source, TickProfiler<?> profiler)
+    {
+        TickProfiler.Snapshot snapshot = profiler.snapshot();
+        if (snapshot.getTypes().isEmpty())
+        {
+            source.sendSuccess(new TranslationTextComponent("commands.forge.tracking.no_data"), true);
+            return 0;
+        }
+        snapshot.getTypes().stream().limit(10).forEach(entry -> {
+            TickHistogram hist = entry.getHistogram();
+            source.sendSuccess(new TranslationTextComponent("commands.forge.profiler.entry", String.valueOf(entry.getType()), hist.getCount(),
+                    TIME_FORMAT.format(hist.getTotalNanos() / 1_000_000.0), TIME_FORMAT.format(hist.getMeanNanos() / 1000.0),
+                    TIME_FORMAT.format(hist.getValueAtPercentile(99) / 1000.0)), true);
+        });
+        return 0;
+    }
+
+    private static int dump(CommandSource source)
+    {
+        JsonObject root = new JsonObject();
+        root.add(TickProfiler.TILE_ENTITIES.getName(), TickProfiler.TILE_ENTITIES.snapshot().toJson());
+        root.add(TickProfiler.ENTITIES.getName(), TickProfiler.ENTITIES.snapshot().toJson());
+
+        Path file = FMLPaths.GAMEDIR.get().resolve("profiler").resolve("tick-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + ".json");
+        try
+        {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+            {
+                GSON.toJson(root, writer);
+            }
+        }
+        catch (IOException e)
+        {
+            LOGGER.error("Failed to write tick profiler results to {}", file, e);
+            source.sendFailure(new TranslationTextComponent("commands.forge.profiler.dump.failed", file.toString()));
+            return 0;
+        }
+        source.sendSuccess(new TranslationTextComponent("commands.forge.profiler.dump", file.toString()), true);
+        return 1;
+    }
+}
@@ -31,6 +31,8 @@ public class ForgeCommand
             LiteralArgumentBuilder.<CommandSource>literal("forge")
             .then(CommandTps.register())
             .then(CommandTrack.register())
+            .then(CommandProfiler.register())
+            .then(CommandNetStats.register())
             .then(CommandEntity.register())
             .then(CommandGenerate.register())
             .then(CommandDimensions.register())
@@ -0,0 +1,121 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.timings;
+
+/**
+ * A fixed size, log-linear histogram of nanosecond durations, in the style of HdrHistogram.
+ * Every power of two is split into {@value #SUB_BUCKETS} linear buckets, giving a worst case
+ * relative error of about 12% while using a constant amount of memory per histogram.
+ *
+ * Instances are not thread safe, the {@link TickProfiler} gives each recording thread its own.
+ * Reading a histogram while it is being recorded to gives approximate, but never corrupt, results.
+ */
+public class TickHistogram
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40; // ~18 minutes, anything larger is clamped.
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    static int bucketFor(long nanos)
+    {
+        if (nanos < SUB_BUCKETS)
+            return nanos < 0 ? 0 : (int)nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT)
+            return BUCKETS - 1;
+        int sub = (int)(nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return (long)(SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    public void record(long nanos)
+    {
+        counts[bucketFor(nanos)]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos)
+            maxNanos = nanos;
+    }
+
+    /**
+     * Adds all values recorded by another histogram to this one.
+     */
+    public void add(TickHistogram other)
+    {
+        for (int x = 0; x < BUCKETS; x++)
+            counts[x] += other.counts[x];
+        count += other.count;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    public long getCount()
+    {
+        return count;
+    }
+
+    public long getTotalNanos()
+    {
+        return totalNanos;
+    }
+
+    public long getMaxNanos()
+    {
+        return maxNanos;
+    }
+
+    public double getMeanNanos()
+    {
+        return count == 0 ? 0 : (double)totalNanos / count;
+    }
+
+    /**
+     * @param percentile The percentile to look up, between 0 and 100
+     * @return The lower bound of the bucket containing the given percentile, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (count == 0)
+            return 0;
+        long target = Math.max(1, (long)Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int x = 0; x < BUCKETS; x++)
+        {
+            seen += counts[x];
+            if (seen >= target)
+                return Math.min(lowerBound(x), maxNanos);
+        }
+        return maxNanos;
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.registries.IForgeRegistryEntry;
+
+/**
+ * A continuous, low overhead profiler for ticking objects {currently Tile Entities and Entities}.
+ *
+ * Unlike {@link TimeTracker}, which samples individual objects for a fixed duration, this aggregates
+ * every update into a {@link TickHistogram} per object type, plus total time per chunk, so it is cheap
+ * enough to leave enabled permanently. Per mod rollups are derived from the type registry names when
+ * a {@link #snapshot() snapshot} is taken.
+ *
+ * Recording never takes a lock: every thread records into its own {@link Recorder}, which are only
+ * merged when a snapshot is taken. Memory is bounded by the number of registered types and
+ * {@value #MAX_CHUNKS} chunks per dimension and thread, further chunks are counted as overflow.
+ *
+ * Only server side worlds are recorded.
+ *
+ * @param <T> The type of ticking object
+ */
+public class TickProfiler<T>
+{
+    public static final TickProfiler<TileEntity> TILE_ENTITIES = new TickProfiler<>("tile_entities", TileEntity::getType, TileEntity::getLevel, TileEntity::getBlockPos);
+    public static final TickProfiler<Entity> ENTITIES = new TickProfiler<>("entities", Entity::getType, e -> e.level, Entity::blockPosition);
+
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_CHUNKS = 4096;
+
+    private final String name;
+    private final Function<T, ? extends IForgeRegistryEntry<?>> typeGetter;
+    private final Function<T, World> worldGetter;
+    private final Function<T, BlockPos> posGetter;
+    private final ThreadLocal<Recorder> recorder = new ThreadLocal<>();
+    private final List<Recorder> recorders = new CopyOnWriteArrayList<>();
+    private volatile boolean enabled;
+    private volatile int generation;
+    private volatile long startTime = System.nanoTime();
+
+    public TickProfiler(String name, Function<T, ? extends IForgeRegistryEntry<?>> typeGetter, Function<T, World> worldGetter, Function<T, BlockPos> posGetter)
+    {
+        this.name = name;
+        this.typeGetter = typeGetter;
+        this.worldGetter = worldGetter;
+        this.posGetter = posGetter;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Discards all recorded data. Threads that are currently recording switch to fresh recorders on their next update.
+     */
+    public void reset()
+    {
+        generation++;
+        recorders.clear();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Starts timing the update of the provided object, nested updates are supported.
+     *
+     * @param object The object about to be updated
+     * @return If the update is being timed, {@link #end} must then be called once it finishes, even if the profiler was disabled since
+     */
+    public boolean start(T object)
+    {
+        if (!enabled)
+            return false;
+        Recorder r = getRecorder();
+        if (r.depth < MAX_DEPTH)
+            r.starts[r.depth] = System.nanoTime();
+        r.depth++;
+        return true;
+    }
+
+    /**
+     * Ends the timing of the provided object, only call this if {@link #start} returned true for it.
+     *
+     * @param object The object that finished updating
+     */
+    public void end(T object)
+    {
+        Recorder r = recorder.get();
+        if (r == null || r.depth == 0)
+            return;
+        long now = System.nanoTime();
+        if (--r.depth >= MAX_DEPTH || r.generation != generation)
+            return;
+        World world = worldGetter.apply(object);
+        if (world == null || world.isClientSide)
+            return;
+        r.record(typeGetter.apply(object), world.dimension(), posGetter.apply(object), now - r.starts[r.depth]);
+    }
+
+    private Recorder getRecorder()
+    {
+        Recorder r = recorder.get();
+        int gen = generation;
+        if (r == null || r.generation != gen)
+        {
+            Recorder old = r;
+            r = new Recorder(gen);
+            if (old != null) // Keep in sync with updates that are still in progress.
+            {
+                r.depth = old.depth;
+                System.arraycopy(old.starts, 0, r.starts, 0, MAX_DEPTH);
+            }
+            recorder.set(r);
+            recorders.add(r);
+        }
+        return r;
+    }
+
+    /**
+     * Merges the data of all recording threads, this is safe to call from any thread.
+     *
+     * @return An immutable view of the data recorded since the last {@link #reset()}.
+     */
+    public Snapshot snapshot()
+    {
+        Map<IForgeRegistryEntry<?>, TickHistogram> types = new IdentityHashMap<>();
+        Map<RegistryKey<World>, Map<Long, long[]>> chunks = new IdentityHashMap<>();
+        long overflow = 0;
+        for (Recorder r : recorders)
+        {
+            r.types.forEach((type, hist) -> types.computeIfAbsent(type, k -> new TickHistogram()).add(hist));
+            for (Map.Entry<RegistryKey<World>, ChunkTable> entry : r.chunks.entrySet())
+            {
+                Map<Long, long[]> dim = chunks.computeIfAbsent(entry.getKey(), k -> new HashMap<>());
+                overflow += entry.getValue().mergeInto(dim);
+            }
+        }
+        return new Snapshot(name, System.nanoTime() - startTime, types, chunks, overflow);
+    }
+
+    private static final class Recorder
+    {
+        private final int generation;
+        private final long[] starts = new long[MAX_DEPTH];
+        private int depth;
+        private final Map<IForgeRegistryEntry<?>, TickHistogram> types = new ConcurrentHashMap<>();
+        private final Map<RegistryKey<World>, ChunkTable> chunks = new ConcurrentHashMap<>();
+        @Nullable
+        private RegistryKey<World> lastDimension;
+        @Nullable
+        private ChunkTable lastChunks;
+
+        private Recorder(int generation)
+        {
+            this.generation = generation;
+        }
+
+        private void record(IForgeRegistryEntry<?> type, RegistryKey<World> dimension, BlockPos pos, long nanos)
+        {
+            TickHistogram hist = types.get(type);
+            if (hist == null)
+                hist = types.computeIfAbsent(type, k -> new TickHistogram());
+            hist.record(nanos);
+
+            ChunkTable table = lastChunks;
+            if (dimension != lastDimension || table == null)
+            {
+                table = chunks.computeIfAbsent(dimension, k -> new ChunkTable());
+                lastDimension = dimension;
+                lastChunks = table;
+            }
+            table.record(pos.getX() >> 4, pos.getZ() >> 4, nanos);
+        }
+    }
+
+    /**
+     * Fixed capacity open addressing table of chunk -> (count, total nanos), there is no removal so readers never see a moved entry.
+     */
+    private static final class ChunkTable
+    {
+        private static final long EMPTY = Long.MIN_VALUE;
+        private final long[] keys = new long[MAX_CHUNKS * 2];
+        private final long[] counts = new long[MAX_CHUNKS * 2];
+        private final long[] nanos = new long[MAX_CHUNKS * 2];
+        private int size;
+        private long overflow;
+
+        private ChunkTable()
+        {
+            Arrays.fill(keys, EMPTY);
+        }
+
+        private void record(int x, int z, long time)
+        {
+            long key = chunkKey(x, z);
+            int mask = keys.length - 1;
+            int idx = (int)(key ^ (key >>> 29) ^ (key >>> 32)) * 0x9E3779B9 & mask;
+            while (true)
+            {
+                long existing = keys[idx];
+                if (existing == key)
+                    break;
+                if (existing == EMPTY)
+                {
+                    if (size >= MAX_CHUNKS)
+                    {
+                        overflow += time;
+                        return;
+                    }
+                    size++;
+                    keys[idx] = key;
+                    break;
+                }
+                idx = (idx + 1) & mask;
+            }
+            counts[idx]++;
+            nanos[idx] += time;
+        }
+
+        private long mergeInto(Map<Long, long[]> target)
+        {
+            for (int x = 0; x < keys.length; x++)
+            {
+                if (keys[x] == EMPTY)
+                    continue;
+                long[] data = target.computeIfAbsent(keys[x], k -> new long[2]);
+                data[0] += counts[x];
+                data[1] += nanos[x];
+            }
+            return overflow;
+        }
+    }
+
+    private static long chunkKey(int x, int z)
+    {
+        return (long)x & 0xFFFFFFFFL | ((long)z & 0xFFFFFFFFL) << 32;
+    }
+
+    /**
+     * Merged, immutable results of a {@link TickProfiler}.
+     */
+    public static class Snapshot
+    {
+        private final String name;
+        private final long durationNanos;
+        private final List<TypeEntry> types = new ArrayList<>();
+        private final List<ModEntry> mods = new ArrayList<>();
+        private final List<ChunkEntry> chunks = new ArrayList<>();
+        private final long overflowNanos;
+
+        private Snapshot(String name, long durationNanos, Map<IForgeRegistryEntry<?>, TickHistogram> types, Map<RegistryKey<World>, Map<Long, long[]>> chunks, long overflowNanos)
+        {
+            this.name = name;
+            this.durationNanos = durationNanos;
+            this.overflowNanos = overflowNanos;
+
+            Map<String, ModEntry> mods = new HashMap<>();
+            types.forEach((type, hist) -> {
+                ResourceLocation id = type.getRegistryName();
+                String mod = id == null ? "unknown" : id.getNamespace();
+                this.types.add(new TypeEntry(id, hist));
+                ModEntry modEntry = mods.computeIfAbsent(mod, ModEntry::new);
+                modEntry.count += hist.getCount();
+                modEntry.totalNanos += hist.getTotalNanos();
+            });
+            this.types.sort(Comparator.comparingLong((TypeEntry e) -> e.histogram.getTotalNanos()).reversed());
+            this.mods.addAll(mods.values());
+            this.mods.sort(Comparator.comparingLong((ModEntry e) -> e.totalNanos).reversed());
+
+            chunks.forEach((dim, data) -> data.forEach((key, value) ->
+                this.chunks.add(new ChunkEntry(dim.location(), (int)(long)key, (int)(key >>> 32), value[0], value[1]))));
+            this.chunks.sort(Comparator.comparingLong((ChunkEntry e) -> e.totalNanos).reversed());
+        }
+
+        public String getName() { return name; }
+        public long getDurationNanos() { return durationNanos; }
+        /** @return Per type statistics, most expensive first. */
+        public List<TypeEntry> getTypes() { return types; }
+        /** @return Per mod totals, most expensive first. */
+        public List<ModEntry> getMods() { return mods; }
+        /** @return Per chunk totals, most expensive first. */
+        public List<ChunkEntry> getChunks() { return chunks; }
+        /** @return Time spent in chunks that did not fit into the bounded chunk tables. */
+        public long getOverflowNanos() { return overflowNanos; }
+
+        public JsonObject toJson()
+        {
+            JsonObject ret = new JsonObject();
+            ret.addProperty("name", name);
+            ret.addProperty("durationNanos", durationNanos);
+
+            JsonArray types = new JsonArray();
+            for (TypeEntry entry : this.types)
+            {
+                TickHistogram hist = entry.getHistogram();
+                JsonObject obj = new JsonObject();
+                obj.addProperty("type", String.valueOf(entry.getType()));
+                obj.addProperty("count", hist.getCount());
+                obj.addProperty("totalNanos", hist.getTotalNanos());
+                obj.addProperty("meanNanos", hist.getMeanNanos());
+                obj.addProperty("p50Nanos", hist.getValueAtPercentile(50));
+                obj.addProperty("p90Nanos", hist.getValueAtPercentile(90));
+                obj.addProperty("p99Nanos", hist.getValueAtPercentile(99));
+                obj.addProperty("maxNanos", hist.getMaxNanos());
+                types.add(obj);
+            }
+            ret.add("types", types);
+
+            JsonArray mods = new JsonArray();
+            for (ModEntry entry : this.mods)
+            {
+                JsonObject obj = new JsonObject();
+                obj.addProperty("mod", entry.getMod());
+                obj.addProperty("count", entry.getCount());
+                obj.addProperty("totalNanos", entry.getTotalNanos());
+                mods.add(obj);
+            }
+            ret.add("mods", mods);
+
+            JsonArray chunks = new JsonArray();
+            for (ChunkEntry entry : this.chunks)
+            {
+                JsonObject obj = new JsonObject();
+                obj.addProperty("dimension", entry.getDimension().toString());
+                obj.addProperty("x", entry.getX());
+                obj.addProperty("z", entry.getZ());
+                obj.addProperty("count", entry.getCount());
+                obj.addProperty("totalNanos", entry.getTotalNanos());
+                chunks.add(obj);
+            }
+            ret.add("chunks", chunks);
+            ret.addProperty("chunkOverflowNanos", overflowNanos);
+            return ret;
+        }
+    }
+
+    public static class TypeEntry
+    {
+        @Nullable
+        private final ResourceLocation type;
+        private final TickHistogram histogram;
+
+        private TypeEntry(@Nullable ResourceLocation type, TickHistogram histogram)
+        {
+            this.type = type;
+            this.histogram = histogram;
+        }
+
+        @Nullable
+        public ResourceLocation getType() { return type; }
+        public TickHistogram getHistogram() { return histogram; }
+    }
+
+    public static class ModEntry
+    {
+        private final String mod;
+        private long count;
+        private long totalNanos;
+
+        private ModEntry(String mod)
+        {
+            this.mod = mod;
+        }
+
+        public String getMod() { return mod; }
+        public long getCount() { return count; }
+        public long getTotalNanos() { return totalNanos; }
+    }
+
+    public static class ChunkEntry
+    {
+        private final ResourceLocation dimension;
+        private final int x;
+        private final int z;
+        private final long count;
+        private final long totalNanos;
+
+        private ChunkEntry(ResourceLocation dimension, int x, int z, long count, long totalNanos)
+        {
+            this.dimension = dimension;
+            this.x = x;
+            this.z = z;
+            this.count = count;
+            this.totalNanos = totalNanos;
+        }
+
+        public ResourceLocation getDimension() { return dimension; }
+        public int getX() { return x; }
+        public int getZ() { return z; }
+        public long getCount() { return count; }
+        public long getTotalNanos() { return totalNanos; }
+    }
+}
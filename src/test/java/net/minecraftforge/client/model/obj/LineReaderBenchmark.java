@@ -0,0 +1,183 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model.obj;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.util.ResourceLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads a synthetic OBJ file made of a grid of quads, comparing the byte tokenizer in {@link LineReader} against the
+ * previous approach of splitting each line into strings with a regex and parsing those. Scores are milliseconds per
+ * file; run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineReaderBenchmark
+{
+    @Param({"10000", "200000"})
+    public int faces;
+
+    private byte[] data;
+    private OBJModel.ModelSettings settings;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(42);
+        int side = (int) Math.ceil(Math.sqrt(faces));
+        StringBuilder builder = new StringBuilder();
+        builder.append("# synthetic grid of ").append(faces).append(" quads\n");
+        builder.append("o grid\n");
+        for (int z = 0; z <= side; z++)
+        {
+            for (int x = 0; x <= side; x++)
+            {
+                builder.append(String.format(Locale.ROOT, "v %.6f %.6f %.6f\n", x / (float) side, random.nextFloat() * 0.1f, z / (float) side));
+                builder.append(String.format(Locale.ROOT, "vt %.6f %.6f\n", x / (float) side, z / (float) side));
+            }
+        }
+        builder.append("vn 0.000000 1.000000 0.000000\n");
+        builder.append("s off\n");
+        for (int i = 0; i < faces; i++)
+        {
+            int x = i % side;
+            int z = i / side;
+            int a = z * (side + 1) + x + 1;
+            int b = a + side + 1;
+            builder.append(String.format(Locale.ROOT, "f %d/%d/1 %d/%d/1 %d/%d/1 %d/%d/1\n", a, a, b, b, b + 1, b + 1, a + 1, a + 1));
+        }
+        data = builder.toString().getBytes(StandardCharsets.UTF_8);
+        settings = new OBJModel.ModelSettings(new ResourceLocation("forge", "models/benchmark.obj"), false, true, false, false, null);
+    }
+
+    @Benchmark
+    public float splitStrings() throws IOException
+    {
+        float checksum = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8)))
+        {
+            String[] line;
+            while ((line = readAndSplitLine(reader)) != null)
+            {
+                switch (line[0])
+                {
+                    case "v":
+                    case "vt":
+                    case "vn":
+                        for (int i = 1; i < line.length; i++)
+                            checksum += Float.parseFloat(line[i]);
+                        break;
+                    case "f":
+                        for (int i = 1; i < line.length; i++)
+                        {
+                            for (String index : line[i].split("/"))
+                                checksum += index.isEmpty() ? 0 : Integer.parseInt(index);
+                        }
+                        break;
+                }
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public float tokenizeBytes() throws IOException
+    {
+        float checksum = 0;
+        int[] indices = new int[4];
+        LineReader reader = new LineReader(data);
+        while (reader.nextLine())
+        {
+            switch (reader.keyword())
+            {
+                case "v":
+                case "vt":
+                case "vn":
+                    for (int i = 1; i < reader.tokenCount(); i++)
+                        checksum += reader.parseFloat(i);
+                    break;
+                case "f":
+                    for (int i = 1; i < reader.tokenCount(); i++)
+                    {
+                        int count = reader.parseIndices(i, indices);
+                        for (int j = 0; j < count; j++)
+                            checksum += indices[j];
+                    }
+                    break;
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public OBJModel loadModel() throws IOException
+    {
+        return new OBJModel(new LineReader(data), settings);
+    }
+
+    // The line splitting LineReader used before it tokenized bytes directly
+    private static String[] readAndSplitLine(BufferedReader reader) throws IOException
+    {
+        while (true)
+        {
+            String currentLine = reader.readLine();
+            if (currentLine == null)
+                return null;
+
+            List<String> lineParts = new ArrayList<>();
+            if (!currentLine.startsWith("#"))
+            {
+                for (String part : currentLine.split("[\t ]+"))
+                {
+                    if (!part.isEmpty())
+                        lineParts.add(part);
+                }
+            }
+
+            if (lineParts.size() > 0)
+                return lineParts.toArray(new String[0]);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.client.renderer.model.BakedQuad;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.vector.Quaternion;
+import net.minecraft.util.math.vector.TransformationMatrix;
+import net.minecraft.util.math.vector.Vector3f;
+import net.minecraftforge.client.model.QuadTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Rotates, translates and tints baked quads through the per-element consumer chain and through a
+ * {@link QuadTransformer} running a fused {@link IQuadTransformer} chain. Runs on the CPU only, scores are quads per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuadTransformBenchmark
+{
+    private static final int QUADS = 1024;
+
+    private final List<BakedQuad> quads = new ArrayList<>();
+    private TransformationMatrix transform;
+    private QuadTransformer fused;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(42);
+        int stride = DefaultVertexFormats.BLOCK.getIntegerSize();
+        for (int q = 0; q < QUADS; q++)
+        {
+            int[] data = new int[stride * 4];
+            for (int v = 0; v < 4; v++)
+            {
+                int offset = v * stride;
+                data[offset] = Float.floatToRawIntBits(random.nextFloat());
+                data[offset + 1] = Float.floatToRawIntBits(random.nextFloat());
+                data[offset + 2] = Float.floatToRawIntBits(random.nextFloat());
+                data[offset + 3] = -1;
+                data[offset + 4] = Float.floatToRawIntBits(random.nextFloat());
+                data[offset + 5] = Float.floatToRawIntBits(random.nextFloat());
+                data[offset + 6] = random.nextInt(0xF0) | random.nextInt(0xF0) << 16;
+                data[offset + 7] = 127 << 8;
+            }
+            quads.add(new BakedQuad(data, -1, Direction.UP, null, true));
+        }
+        transform = new TransformationMatrix(new Vector3f(0.25F, 0, 0.25F), new Quaternion(Vector3f.YP, 90, true), new Vector3f(0.5F, 0.5F, 0.5F), null);
+        fused = new QuadTransformer(QuadTransformers.applying(transform).andThen(QuadTransformers.applyingColor(0xFF7FBF3F)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUADS)
+    public void perElementConsumers(Blackhole blackhole)
+    {
+        for (BakedQuad quad : quads)
+        {
+            PackingConsumer packer = new PackingConsumer();
+            LightUtil.ItemConsumer tint = new LightUtil.ItemConsumer(packer);
+            tint.setAuxColor(0.5F, 0.75F, 0.25F, 1);
+            quad.pipe(new TRSRTransformer(tint, transform));
+            blackhole.consume(new BakedQuad(packer.data, quad.getTintIndex(), quad.getDirection(), quad.getSprite(), quad.isShade()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUADS)
+    public void fusedTransformer(Blackhole blackhole)
+    {
+        for (BakedQuad quad : quads)
+            blackhole.consume(fused.processOne(quad));
+    }
+
+    /**
+     * Packs elements the way {@link BakedQuadBuilder#build} does, which can't be used here as it requires a sprite.
+     */
+    private static class PackingConsumer implements IVertexConsumer
+    {
+        private static final int SIZE = DefaultVertexFormats.BLOCK.getElements().size();
+
+        private final int[] data = new int[DefaultVertexFormats.BLOCK.getIntegerSize() * 4];
+        private int vertex = 0;
+
+        @Override
+        public VertexFormat getVertexFormat()
+        {
+            return DefaultVertexFormats.BLOCK;
+        }
+
+        @Override
+        public void setQuadTint(int tint) {}
+
+        @Override
+        public void setQuadOrientation(Direction orientation) {}
+
+        @Override
+        public void setApplyDiffuseLighting(boolean diffuse) {}
+
+        @Override
+        public void setTexture(TextureAtlasSprite texture) {}
+
+        @Override
+        public void put(int element, float... data)
+        {
+            LightUtil.pack(data, this.data, DefaultVertexFormats.BLOCK, vertex, element);
+            if (element == SIZE - 1)
+                vertex++;
+        }
+    }
+}
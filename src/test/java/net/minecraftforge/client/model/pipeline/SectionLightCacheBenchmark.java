@@ -0,0 +1,136 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model.pipeline;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockDisplayReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rebuilds a synthetic section in which every block renders all six faces, reading the light neighbourhood of each
+ * block the way {@link BlockInfo#updateLightMatrix()} does. Scores are quads per second.
+ * <p>
+ * The world is a flat array behind a hashed lookup, which is far cheaper than a real world read, so the difference
+ * between the two modes understates the real one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SectionLightCacheBenchmark
+{
+    private static final int QUADS = 16 * 16 * 16 * 6;
+
+    private SyntheticCache cache;
+
+    @Setup
+    public void setup()
+    {
+        cache = new SyntheticCache(new Random(42));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUADS)
+    public float resampleEveryBlock()
+    {
+        return rebuild(false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUADS)
+    public float reuseWithinSection()
+    {
+        return rebuild(true);
+    }
+
+    private float rebuild(boolean reuse)
+    {
+        cache.invalidate();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        float total = 0;
+        for (int x = 0; x < 16; x++)
+        {
+            for (int y = 0; y < 16; y++)
+            {
+                for (int z = 0; z < 16; z++)
+                {
+                    cache.prepare(null, pos.set(x, y, z), reuse);
+                    for (int dx = -1; dx <= 1; dx++)
+                    {
+                        for (int dy = -1; dy <= 1; dy++)
+                        {
+                            for (int dz = -1; dz <= 1; dz++)
+                            {
+                                int i = cache.sample(x + dx, y + dy, z + dz);
+                                if (cache.getLightBlock(i) < 15)
+                                    total += cache.getLightColor(i) * cache.getShadeBrightness(i);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    private static class SyntheticCache extends SectionLightCache
+    {
+        private static final int SAMPLES = 4096;
+
+        private final int[] lightBlock = new int[SAMPLES];
+        private final int[] lightColor = new int[SAMPLES];
+        private final float[] shadeBrightness = new float[SAMPLES];
+
+        SyntheticCache(Random random)
+        {
+            for (int i = 0; i < SAMPLES; i++)
+            {
+                lightBlock[i] = random.nextInt(4) == 0 ? 15 : 0;
+                lightColor[i] = random.nextInt(16) << 4 | random.nextInt(16) << 20;
+                shadeBrightness[i] = lightBlock[i] == 15 ? 0.2F : 1.0F;
+            }
+        }
+
+        @Override
+        protected void sample(@Nullable IBlockDisplayReader world, BlockPos pos, int index)
+        {
+            int i = Math.floorMod(Long.hashCode(pos.asLong() * 0x9E3779B97F4A7C15L), SAMPLES);
+            store(index, (BlockState)null, lightBlock[i], lightColor[i], shadeBrightness[i]);
+        }
+    }
+}
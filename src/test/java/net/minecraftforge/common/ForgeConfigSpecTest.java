@@ -19,6 +19,7 @@
 
 package net.minecraftforge.common;
 
+import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.file.CommentedFileConfig;
 import com.electronwill.nightconfig.core.io.WritingMode;
 import com.google.common.base.Stopwatch;
@@ -59,6 +60,41 @@ public class ForgeConfigSpecTest
         executeSpeedTest("test.test.test.test.test.test.test.test.test.test", "deepKeyValue", "deepKeySpeedTest");
     }
 
+    @Test
+    public void snapshotTest()
+    {
+        final ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
+        final ForgeConfigSpec.IntValue intValue = builder.defineInRange("int", 4, 0, 10);
+        final ForgeConfigSpec.DoubleValue doubleValue = builder.defineInRange("double", 0.5D, 0D, 1D);
+        final ForgeConfigSpec.BooleanValue booleanValue = builder.define("boolean", true);
+        final ForgeConfigSpec spec = builder.build();
+
+        // Unloaded specs return the defaults
+        Assert.assertEquals(4, intValue.getAsInt());
+        Assert.assertEquals(0.5D, doubleValue.getAsDouble(), 0D);
+        Assert.assertTrue(booleanValue.getAsBoolean());
+
+        final CommentedConfig config = CommentedConfig.inMemory();
+        spec.setConfig(config);
+        Assert.assertEquals(4, intValue.getAsInt());
+
+        // Changes to the backing config are only visible once reloaded
+        config.set("int", 7);
+        config.set("double", 0.25D);
+        config.set("boolean", false);
+        Assert.assertEquals(4, intValue.getAsInt());
+        spec.afterReload();
+        Assert.assertEquals(7, intValue.getAsInt());
+        Assert.assertEquals(Integer.valueOf(7), intValue.get());
+        Assert.assertEquals(0.25D, doubleValue.getAsDouble(), 0D);
+        Assert.assertFalse(booleanValue.getAsBoolean());
+
+        intValue.set(9);
+        Assert.assertEquals(9, intValue.getAsInt());
+        Assert.assertEquals(Integer.valueOf(9), config.get("int"));
+        Assert.assertEquals(0.25D, doubleValue.getAsDouble(), 0D);
+    }
+
     private <T> void executeSpeedTest(final String configKey, final T defaultKeyValue, final String testName) throws IOException
     {
         final ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
@@ -0,0 +1,165 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.capabilities;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.Direction;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
+
+/**
+ * Measures creating and copying capability providers with eager and lazy capability gathering.
+ * ItemStack needs a bootstrapped game, so a provider that creates and copies itself the same way stands in for it.
+ * The copied template carries saved capability data, like a stack loaded from disk, and has either been used since,
+ * so its capabilities are gathered, or not. Eager providers always gather them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapabilityProviderBenchmark
+{
+    private static final ResourceLocation KEY = new ResourceLocation("forge", "benchmark");
+
+    @Param({"false", "true"})
+    public boolean lazy;
+
+    @Param({"1", "4"})
+    public int attachers;
+
+    @Param({"false", "true"})
+    public boolean initialized;
+
+    private Stack template;
+
+    @Setup
+    public void setup()
+    {
+        MinecraftForge.EVENT_BUS.start();
+        for (int i = 0; i < attachers; i++)
+        {
+            final ResourceLocation key = new ResourceLocation(KEY.getNamespace(), KEY.getPath() + i);
+            MinecraftForge.EVENT_BUS.addGenericListener(Stack.class, (AttachCapabilitiesEvent<Stack> event) -> event.addCapability(key, new Counter()));
+        }
+        CapabilityProvider.setLazyCapabilities(lazy);
+
+        CompoundNBT data = new CompoundNBT();
+        for (int i = 0; i < attachers; i++)
+        {
+            CompoundNBT counter = new CompoundNBT();
+            counter.putInt("count", i + 1);
+            data.put(KEY + String.valueOf(i), counter);
+        }
+        template = new Stack(data);
+        if (initialized)
+            template.initialize();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        CapabilityProvider.setLazyCapabilities(false);
+    }
+
+    @Benchmark
+    public Stack create()
+    {
+        return new Stack(null);
+    }
+
+    @Benchmark
+    public Stack copy()
+    {
+        return template.copy();
+    }
+
+    @Benchmark
+    public boolean copyAndCompare()
+    {
+        return template.copy().areCapsCompatible(template);
+    }
+
+    public static class Stack extends CapabilityProvider<Stack>
+    {
+        private Stack(@Nullable CompoundNBT capNBT)
+        {
+            super(Stack.class, true);
+            this.lazilyGatherCapabilities(null);
+            if (capNBT != null)
+                this.deserializeCaps(capNBT);
+        }
+
+        private Stack copy()
+        {
+            return new Stack(this.getCapsForCopy());
+        }
+
+        private void initialize()
+        {
+            this.getCapabilities();
+        }
+    }
+
+    private static class Counter implements ICapabilitySerializable<CompoundNBT>
+    {
+        private int count;
+
+        @Override
+        public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side)
+        {
+            return LazyOptional.empty();
+        }
+
+        @Override
+        public CompoundNBT serializeNBT()
+        {
+            CompoundNBT nbt = new CompoundNBT();
+            nbt.putInt("count", count);
+            return nbt;
+        }
+
+        @Override
+        public void deserializeNBT(CompoundNBT nbt)
+        {
+            count = nbt.getInt("count");
+        }
+    }
+}
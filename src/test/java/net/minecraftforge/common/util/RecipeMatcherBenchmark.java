@@ -0,0 +1,104 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matches shapeless inputs that the old claim and backtrack pass handled worst. Inputs are plain integers and tests
+ * match sets of them, like ingredients that accept several items.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeMatcherBenchmark
+{
+    @Param({"9", "12", "16"})
+    public int size;
+
+    private List<Integer> inputs;
+    private List<Predicate<Integer>> interchangeable;
+    private List<Predicate<Integer>> impossible;
+    private List<Predicate<Integer>> chained;
+
+    @Setup
+    public void setup()
+    {
+        inputs = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+            inputs.add(i);
+
+        // Every test accepts every input, as with a recipe of several copies of a tag ingredient
+        interchangeable = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+            interchangeable.add(input -> true);
+
+        // All but one test compete for all but two inputs, so no pairing exists, but every test and input has a match
+        impossible = new ArrayList<>();
+        for (int i = 0; i < size - 1; i++)
+            impossible.add(input -> input < size - 2);
+        impossible.add(input -> true);
+
+        // Each test accepts its own input and all later ones, so the greedy first choice is wrong for almost every test
+        chained = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+        {
+            final int min = size - 1 - i;
+            chained.add(input -> input >= min);
+        }
+        chained.add(0, chained.remove(chained.size() - 1));
+    }
+
+    @Benchmark
+    public int[] interchangeable()
+    {
+        return RecipeMatcher.findMatches(inputs, interchangeable);
+    }
+
+    @Benchmark
+    public int[] impossible()
+    {
+        return RecipeMatcher.findMatches(inputs, impossible);
+    }
+
+    @Benchmark
+    public int[] chained()
+    {
+        return RecipeMatcher.findMatches(inputs, chained);
+    }
+}
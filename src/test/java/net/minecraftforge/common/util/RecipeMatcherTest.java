@@ -0,0 +1,122 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecipeMatcherTest
+{
+    private static Predicate<String> is(String... values)
+    {
+        List<String> accepted = Arrays.asList(values);
+        return accepted::contains;
+    }
+
+    private static void assertMapping(List<String> inputs, List<Predicate<String>> tests, int[] mapping)
+    {
+        assertNotNull(mapping, "Inputs should have matched");
+        assertEquals(inputs.size(), mapping.length, "Mapping should have one entry per input");
+        boolean[] used = new boolean[tests.size()];
+        for (int x = 0; x < mapping.length; x++)
+        {
+            int y = mapping[x];
+            assertTrue(y >= 0 && y < tests.size(), "Input " + x + " was mapped to no test");
+            assertFalse(used[y], "Test " + y + " was used by more than one input");
+            used[y] = true;
+            assertTrue(tests.get(y).test(inputs.get(x)), "Input " + x + " was mapped to test " + y + " which does not match it");
+        }
+    }
+
+    @Test
+    public void testSimpleMatch()
+    {
+        List<String> inputs = Arrays.asList("b", "a");
+        List<Predicate<String>> tests = Arrays.asList(is("a"), is("b"));
+        int[] mapping = RecipeMatcher.findMatches(inputs, tests);
+        assertMapping(inputs, tests, mapping);
+        assertArrayEquals(new int[] {1, 0}, mapping);
+    }
+
+    @Test
+    public void testGreedyPassCorrected()
+    {
+        // The greedy pass pairs the first test with "a", the only input the last test matches
+        List<String> inputs = Arrays.asList("a", "b", "c");
+        List<Predicate<String>> tests = Arrays.asList(is("a", "b"), is("b", "c"), is("a"));
+        int[] mapping = RecipeMatcher.findMatches(inputs, tests);
+        assertMapping(inputs, tests, mapping);
+        assertArrayEquals(new int[] {2, 0, 1}, mapping, "Only one pairing is possible");
+    }
+
+    @Test
+    public void testDuplicateTests()
+    {
+        AtomicInteger calls = new AtomicInteger();
+        Predicate<String> isA = s -> {
+            calls.incrementAndGet();
+            return s.equals("a");
+        };
+        List<String> inputs = Arrays.asList("a", "b", "a");
+        List<Predicate<String>> tests = Arrays.asList(isA, is("b"), isA);
+        int[] mapping = RecipeMatcher.findMatches(inputs, tests);
+        assertEquals(inputs.size(), calls.get(), "A test appearing twice should only be run once against each input");
+        assertMapping(inputs, tests, mapping);
+        assertEquals(1, mapping[1]);
+        assertNotEquals(mapping[0], mapping[2]);
+    }
+
+    @Test
+    public void testImpossiblePairing()
+    {
+        // Every test and every input matches something, but both "a" tests need the one "a"
+        List<String> inputs = Arrays.asList("a", "b", "c");
+        List<Predicate<String>> tests = Arrays.asList(is("a"), is("a"), is("a", "b", "c"));
+        assertNull(RecipeMatcher.findMatches(inputs, tests));
+    }
+
+    @Test
+    public void testUnmatchedInput()
+    {
+        List<String> inputs = Arrays.asList("a", "c");
+        List<Predicate<String>> tests = Arrays.asList(is("a"), is("a", "b"));
+        assertNull(RecipeMatcher.findMatches(inputs, tests));
+    }
+
+    @Test
+    public void testUnmatchedTest()
+    {
+        List<String> inputs = Arrays.asList("a", "b");
+        List<Predicate<String>> tests = Arrays.asList(is("a", "b"), is("c"));
+        assertNull(RecipeMatcher.findMatches(inputs, tests));
+    }
+
+    @Test
+    public void testSizeMismatch()
+    {
+        assertNull(RecipeMatcher.findMatches(Arrays.asList("a", "a"), Collections.singletonList(is("a"))));
+    }
+}
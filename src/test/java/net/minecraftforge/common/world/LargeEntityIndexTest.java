@@ -0,0 +1,81 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.world;
+
+import java.util.Random;
+
+import net.minecraft.util.math.AxisAlignedBB;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LargeEntityIndexTest
+{
+    private static final int SECTIONS = 16;
+    private static final double MAX_RADIUS = 10.0D;
+
+    @Test
+    public void testSameResultsAsWideSearch()
+    {
+        Random random = new Random(42);
+        int foundThroughIndex = 0;
+        for (int i = 0; i < 200000; i++)
+        {
+            double qx = random.nextDouble() * 128 - 64, qy = random.nextDouble() * 256, qz = random.nextDouble() * 128 - 64;
+            AxisAlignedBB query = new AxisAlignedBB(qx, qy, qz, qx + random.nextDouble() * 20, qy + random.nextDouble() * 20, qz + random.nextDouble() * 20);
+
+            double x = qx + random.nextDouble() * 60 - 30, y = Math.max(0, qy + random.nextDouble() * 60 - 30), z = qz + random.nextDouble() * 60 - 30;
+            double halfWidth = random.nextDouble() * 8, height = random.nextDouble() * MAX_RADIUS;
+            AxisAlignedBB entity = new AxisAlignedBB(x - halfWidth, y, z - halfWidth, x + halfWidth, y + height, z + halfWidth);
+            int chunkX = (int) Math.floor(x / 16), sectionY = Math.min((int) Math.floor(y / 16), SECTIONS - 1), chunkZ = (int) Math.floor(z / 16);
+            boolean large = LargeEntityIndex.isLarge(x, y, z, entity);
+
+            for (boolean roundMaxUp : new boolean[] { false, true })
+            {
+                boolean wide = LargeEntityIndex.isInSearchRange(chunkX, sectionY, chunkZ, query, MAX_RADIUS, roundMaxUp, SECTIONS);
+                boolean tight = LargeEntityIndex.isInSearchRange(chunkX, sectionY, chunkZ, query, LargeEntityIndex.VANILLA_RADIUS, roundMaxUp, SECTIONS);
+                boolean intersects = entity.intersects(query);
+
+                boolean viaIndex = large && wide && !tight && intersects;
+                boolean expected = wide && intersects;
+                boolean actual = (tight && intersects) || viaIndex;
+                assertEquals(expected, actual, () -> "Search of " + query + " disagreed on entity " + entity);
+                if (viaIndex)
+                    foundThroughIndex++;
+            }
+        }
+        assertTrue(foundThroughIndex > 0, "No entity was only found through the index");
+    }
+
+    @Test
+    public void testFewerSectionsScanned()
+    {
+        AxisAlignedBB player = new AxisAlignedBB(7.7D, 64.0D, 7.7D, 8.3D, 65.8D, 8.3D);
+        AxisAlignedBB inflated = player.inflate(8.0D);
+        for (AxisAlignedBB box : new AxisAlignedBB[] { player, inflated })
+        {
+            for (boolean roundMaxUp : new boolean[] { false, true })
+            {
+                int tight = LargeEntityIndex.countSearchedSections(box, LargeEntityIndex.VANILLA_RADIUS, roundMaxUp, SECTIONS);
+                int wide = LargeEntityIndex.countSearchedSections(box, MAX_RADIUS, roundMaxUp, SECTIONS);
+                assertTrue(tight < wide, () -> "Searching " + box + " scanned " + tight + " sections, widened " + wide);
+            }
+        }
+    }
+}
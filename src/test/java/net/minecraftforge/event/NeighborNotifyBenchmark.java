@@ -0,0 +1,95 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.event;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.util.DirectionMasks;
+import net.minecraftforge.event.world.BlockEvent.NeighborNotifyEvent;
+import net.minecraftforge.eventbus.api.BusBuilder;
+import net.minecraftforge.eventbus.api.IEventBus;
+
+/**
+ * Measures the per-call cost of firing neighbor notifications the way World did before and after the direction mask
+ * fast path. Run with {@code -prof gc} to compare allocation rates. Worlds need a bootstrapped game, so the block state
+ * lookup is left out and the event is posted without one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeighborNotifyBenchmark
+{
+    private final BlockPos pos = new BlockPos(16, 64, 16);
+    private IEventBus listenedBus;
+
+    @Setup
+    public void setup()
+    {
+        MinecraftForge.EVENT_BUS.start();
+        listenedBus = BusBuilder.builder().build();
+        listenedBus.addListener((NeighborNotifyEvent event) -> {});
+    }
+
+    @Benchmark
+    public boolean enumSetWithoutListeners()
+    {
+        EnumSet<Direction> directions = EnumSet.allOf(Direction.class);
+        directions.remove(Direction.UP);
+        return MinecraftForge.EVENT_BUS.post(new NeighborNotifyEvent(null, pos, null, directions, false));
+    }
+
+    @Benchmark
+    public boolean maskWithoutListeners()
+    {
+        return ForgeEventFactory.onNeighborNotify(null, pos, DirectionMasks.allExcept(Direction.UP), false);
+    }
+
+    @Benchmark
+    public boolean enumSetWithListener()
+    {
+        EnumSet<Direction> directions = EnumSet.allOf(Direction.class);
+        directions.remove(Direction.UP);
+        return listenedBus.post(new NeighborNotifyEvent(null, pos, null, directions, false));
+    }
+
+    @Benchmark
+    public boolean maskWithListener()
+    {
+        return listenedBus.post(new NeighborNotifyEvent(null, pos, null, DirectionMasks.allExcept(Direction.UP), false));
+    }
+}
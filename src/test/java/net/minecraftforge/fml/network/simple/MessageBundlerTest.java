@@ -0,0 +1,155 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.network.simple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.ResourceLocation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageBundlerTest
+{
+    private final MessageBundler bundler = new MessageBundler(new ResourceLocation("forge", "bundler_test"));
+
+    @Test
+    public void testSplitsAtServerboundLimit()
+    {
+        List<ByteBuf> messages = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            messages.add(message(i, 1000));
+
+        List<PacketBuffer> payloads = bundler.pack(messages, MessageBundler.MAX_PAYLOAD_TO_SERVER);
+
+        assertTrue(payloads.size() > 1, "100 KB of messages should not fit in one serverbound payload");
+        for (PacketBuffer payload : payloads)
+            assertTrue(payload.readableBytes() <= MessageBundler.MAX_PAYLOAD_TO_SERVER, "Payload of " + payload.readableBytes() + " bytes is over the limit");
+        assertEquals(messages, unpack(payloads), "Messages should arrive complete and in order");
+    }
+
+    @Test
+    public void testOversizedMessageSentAlone()
+    {
+        List<ByteBuf> messages = new ArrayList<>();
+        messages.add(message(0, 100));
+        messages.add(message(1, 100));
+        messages.add(message(2, MessageBundler.MAX_PAYLOAD_TO_SERVER - 3));
+        messages.add(message(3, 100));
+
+        List<PacketBuffer> payloads = bundler.pack(messages, MessageBundler.MAX_PAYLOAD_TO_SERVER);
+
+        assertEquals(3, payloads.size(), "The large message should split the queue into a bundle, itself and a plain payload");
+        assertEquals(IndexedMessageCodec.BUNDLE_INDEX, payloads.get(0).getUnsignedByte(0));
+        assertEquals(MessageBundler.MAX_PAYLOAD_TO_SERVER - 3, payloads.get(1).readableBytes(), "The large message should be sent unbundled");
+        assertEquals(messages, unpack(payloads));
+    }
+
+    @Test
+    public void testSingleMessageNotBundled()
+    {
+        List<ByteBuf> messages = new ArrayList<>();
+        messages.add(message(0, 10));
+
+        List<PacketBuffer> payloads = bundler.pack(messages, MessageBundler.MAX_PAYLOAD_TO_CLIENT);
+
+        assertEquals(1, payloads.size());
+        assertEquals(messages, unpack(payloads));
+    }
+
+    @Test
+    public void testNestedBundleDropped()
+    {
+        IndexedMessageCodec codec = new IndexedMessageCodec();
+        codec.reserveBundleIndex();
+        codec.addCodecIndex(1, String.class, (msg, buf) -> buf.writeUtf(msg), PacketBuffer::readUtf, (msg, ctx) -> fail("Nothing should be dispatched"), Optional.empty());
+
+        // About 32 KB of bundles, each holding only the next one
+        ByteBuf nested = message(0, 10);
+        while (nested.readableBytes() < MessageBundler.MAX_PAYLOAD_TO_SERVER - 16)
+        {
+            PacketBuffer outer = new PacketBuffer(Unpooled.buffer(nested.readableBytes() + 8));
+            outer.writeByte(IndexedMessageCodec.BUNDLE_INDEX);
+            outer.writeVarInt(1);
+            outer.writeVarInt(nested.readableBytes());
+            outer.writeBytes(nested);
+            nested = outer;
+        }
+
+        codec.consume(new PacketBuffer(nested), Integer.MIN_VALUE, () -> fail("Nothing should be dispatched"));
+    }
+
+    @Test
+    public void testInvalidBundleDropped()
+    {
+        IndexedMessageCodec codec = new IndexedMessageCodec();
+        codec.reserveBundleIndex();
+
+        PacketBuffer count = new PacketBuffer(Unpooled.buffer());
+        count.writeByte(IndexedMessageCodec.BUNDLE_INDEX);
+        count.writeVarInt(1000);
+        count.writeVarInt(1);
+        count.writeByte(1);
+        codec.consume(count, Integer.MIN_VALUE, () -> fail("Nothing should be dispatched"));
+
+        PacketBuffer length = new PacketBuffer(Unpooled.buffer());
+        length.writeByte(IndexedMessageCodec.BUNDLE_INDEX);
+        length.writeVarInt(1);
+        length.writeVarInt(1000);
+        length.writeByte(1);
+        length.writeByte(1);
+        codec.consume(length, Integer.MIN_VALUE, () -> fail("Nothing should be dispatched"));
+    }
+
+    // Messages start with discriminator 1 and are filled with their id, so they never look like a bundle
+    private static ByteBuf message(int id, int length)
+    {
+        ByteBuf message = Unpooled.buffer(length);
+        message.writeByte(1);
+        for (int i = 1; i < length; i++)
+            message.writeByte(id);
+        return message;
+    }
+
+    private static List<ByteBuf> unpack(List<PacketBuffer> payloads)
+    {
+        List<ByteBuf> messages = new ArrayList<>();
+        for (PacketBuffer payload : payloads)
+        {
+            if (payload.getUnsignedByte(payload.readerIndex()) != IndexedMessageCodec.BUNDLE_INDEX)
+            {
+                messages.add(payload.slice());
+                continue;
+            }
+            PacketBuffer buf = new PacketBuffer(payload.slice());
+            buf.readUnsignedByte();
+            int count = buf.readVarInt();
+            for (int i = 0; i < count; i++)
+                messages.add(buf.readBytes(buf.readVarInt()));
+            assertFalse(buf.isReadable(), "Bundle should contain exactly its messages");
+        }
+        return messages;
+    }
+}
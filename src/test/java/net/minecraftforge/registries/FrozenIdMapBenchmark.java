@@ -0,0 +1,115 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2021.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.registries;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+
+/**
+ * Compares the id lookups of a frozen ForgeRegistry against the HashBiMap it uses while mutable.
+ * The entries are plain objects, which like Blocks and Items use identity hash codes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrozenIdMapBenchmark
+{
+    private static final int LOOKUPS = 4096;
+
+    @Param({"1000", "20000"})
+    public int size;
+
+    private BiMap<Integer, Object> biMap;
+    private FrozenIdMap<Object> frozen;
+    private Object[] lookupValues;
+    private int[] lookupIds;
+
+    @Setup
+    public void setup()
+    {
+        biMap = HashBiMap.create();
+        Object[] entries = new Object[size];
+        for (int x = 0; x < size; x++)
+        {
+            entries[x] = new Object();
+            biMap.put(x, entries[x]);
+        }
+        frozen = new FrozenIdMap<>(biMap);
+
+        Random rand = new Random(42);
+        lookupValues = new Object[LOOKUPS];
+        lookupIds = new int[LOOKUPS];
+        for (int x = 0; x < LOOKUPS; x++)
+        {
+            lookupIds[x] = rand.nextInt(size);
+            lookupValues[x] = entries[rand.nextInt(size)];
+        }
+    }
+
+    @Benchmark
+    public void getIdBiMap(Blackhole bh)
+    {
+        for (Object value : lookupValues)
+        {
+            Integer id = biMap.inverse().get(value);
+            bh.consume(id == null ? -1 : id.intValue());
+        }
+    }
+
+    @Benchmark
+    public void getIdFrozen(Blackhole bh)
+    {
+        for (Object value : lookupValues)
+            bh.consume(frozen.getId(value));
+    }
+
+    @Benchmark
+    public void getValueBiMap(Blackhole bh)
+    {
+        for (int id : lookupIds)
+            bh.consume(biMap.get(id));
+    }
+
+    @Benchmark
+    public void getValueFrozen(Blackhole bh)
+    {
+        for (int id : lookupIds)
+            bh.consume(frozen.getValue(id));
+    }
+}